@@ -0,0 +1,107 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+import com.zsq.winter.design.link.model2.handler.IProceedLogicHandler;
+
+/**
+ * 基准共用的链路处理器。
+ *
+ * <p>使用多个不同的实现类循环组成链路，使调用点呈现与生产环境相近的多态形态，
+ * 避免单一实现被 JIT 内联后得到过于乐观的结果。</p>
+ */
+final class BenchmarkHandlers {
+
+    private BenchmarkHandlers() {}
+
+    /**
+     * 创建长度为 {@code length} 的放行处理器数组。
+     *
+     * @param length 处理器数量
+     * @param fused  是否使用 {@link IProceedLogicHandler} 标记（可被编译链路融合）
+     * @return 处理器数组
+     */
+    @SuppressWarnings("unchecked")
+    static ILogicHandler<Long, DynamicContext, Long>[] proceedHandlers(int length, boolean fused) {
+        ILogicHandler<Long, DynamicContext, Long>[] handlers = new ILogicHandler[length];
+        for (int i = 0; i < length; i++) {
+            handlers[i] = fused ? fusedHandler(i) : plainHandler(i);
+        }
+        return handlers;
+    }
+
+    private static ILogicHandler<Long, DynamicContext, Long> plainHandler(int i) {
+        switch (i & 3) {
+            case 0: return new Plain0();
+            case 1: return new Plain1();
+            case 2: return new Plain2();
+            default: return new Plain3();
+        }
+    }
+
+    private static ILogicHandler<Long, DynamicContext, Long> fusedHandler(int i) {
+        switch (i & 3) {
+            case 0: return new Fused0();
+            case 1: return new Fused1();
+            case 2: return new Fused2();
+            default: return new Fused3();
+        }
+    }
+
+    static final class Plain0 implements ILogicHandler<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) {
+            return next(requestParameter, dynamicContext);
+        }
+    }
+
+    static final class Plain1 implements ILogicHandler<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) {
+            return next(requestParameter, dynamicContext);
+        }
+    }
+
+    static final class Plain2 implements ILogicHandler<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) {
+            return next(requestParameter, dynamicContext);
+        }
+    }
+
+    static final class Plain3 implements ILogicHandler<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) {
+            return next(requestParameter, dynamicContext);
+        }
+    }
+
+    static final class Fused0 implements IProceedLogicHandler<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) {
+            return next(requestParameter, dynamicContext);
+        }
+    }
+
+    static final class Fused1 implements IProceedLogicHandler<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) {
+            return next(requestParameter, dynamicContext);
+        }
+    }
+
+    static final class Fused2 implements IProceedLogicHandler<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) {
+            return next(requestParameter, dynamicContext);
+        }
+    }
+
+    static final class Fused3 implements IProceedLogicHandler<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) {
+            return next(requestParameter, dynamicContext);
+        }
+    }
+
+}
@@ -0,0 +1,20 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.strategy.BaseEnum;
+
+/**
+ * 基准使用的策略枚举，16 个常量用于观察按 code 查找时位置对耗时的影响。
+ */
+public enum BenchmarkType implements BaseEnum {
+    C0, C1, C2, C3, C4, C5, C6, C7, C8, C9, C10, C11, C12, C13, C14, C15;
+
+    @Override
+    public String getCode() {
+        return name();
+    }
+
+    @Override
+    public String getDesc() {
+        return "基准策略" + ordinal();
+    }
+}
@@ -0,0 +1,67 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.LinkArmory;
+import com.zsq.winter.design.link.model2.chain.BusinessLinkedList;
+import com.zsq.winter.design.link.model2.chain.CompiledLogicChain;
+import com.zsq.winter.design.link.model2.chain.ConcurrentBusinessLinkedList;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 责任链执行基准：逐节点遍历的 {@link BusinessLinkedList} 与编译后的数组执行器对比。
+ *
+ * <p>链路中所有处理器均放行，测量完整走完一条链路的开销；{@code chainLength} 覆盖短链与 15~30 节点的长链。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class BusinessLinkedListBenchmark {
+
+    @Param({"1", "15", "30"})
+    public int chainLength;
+
+    private BusinessLinkedList<Long, DynamicContext, Long> linked;
+
+    private CompiledLogicChain<Long, DynamicContext, Long> compiled;
+
+    private CompiledLogicChain<Long, DynamicContext, Long> compiledFused;
+
+    private ConcurrentBusinessLinkedList<Long, DynamicContext, Long> concurrent;
+
+    private final DynamicContext context = new DynamicContext();
+
+    private final Long request = 42L;
+
+    @Setup
+    public void setup() {
+        LinkArmory<Long, DynamicContext, Long> armory = new LinkArmory<>("benchmark", BenchmarkHandlers.proceedHandlers(chainLength, false));
+        linked = armory.getLogicLink();
+        compiled = armory.compile();
+        compiledFused = new LinkArmory<>("fused", BenchmarkHandlers.proceedHandlers(chainLength, true)).compile();
+        concurrent = new ConcurrentBusinessLinkedList<>("concurrent", BenchmarkHandlers.proceedHandlers(chainLength, false));
+    }
+
+    @Benchmark
+    public Long linkedList() throws Exception {
+        return linked.apply(request, context);
+    }
+
+    @Benchmark
+    public Long compiled() throws Exception {
+        return compiled.apply(request, context);
+    }
+
+    @Benchmark
+    public Long compiledFused() throws Exception {
+        return compiledFused.apply(request, context);
+    }
+
+    @Benchmark
+    public Long concurrentSnapshot() throws Exception {
+        return concurrent.apply(request, context);
+    }
+
+}
@@ -0,0 +1,69 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.chain.ConcurrentBusinessLinkedList;
+import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程共享链路基准：无竞争（仅读者）与有竞争（读者 + 持续热替换的写者）对比。
+ *
+ * <p>同一组内的线程共享一条 {@link ConcurrentBusinessLinkedList}；
+ * 有竞争组中写者不停地替换中间处理器，用于观察热更新对读路径吞吐的影响。</p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ConcurrentChainBenchmark {
+
+    @Param({"15"})
+    public int chainLength;
+
+    private ConcurrentBusinessLinkedList<Long, DynamicContext, Long> chain;
+
+    private ILogicHandler<Long, DynamicContext, Long> original;
+
+    private ILogicHandler<Long, DynamicContext, Long> replacement;
+
+    private boolean swapped;
+
+    @Setup
+    public void setup() {
+        ILogicHandler<Long, DynamicContext, Long>[] handlers = BenchmarkHandlers.proceedHandlers(chainLength, false);
+        chain = new ConcurrentBusinessLinkedList<>("shared", handlers);
+        original = handlers[chainLength / 2];
+        replacement = BenchmarkHandlers.proceedHandlers(1, false)[0];
+    }
+
+    @State(Scope.Thread)
+    public static class ReaderState {
+        final DynamicContext context = new DynamicContext();
+    }
+
+    @Benchmark
+    @Group("uncontended")
+    @GroupThreads(4)
+    public Long uncontendedRead(ReaderState state) throws Exception {
+        return chain.apply(42L, state.context);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(3)
+    public Long contendedRead(ReaderState state) throws Exception {
+        return chain.apply(42L, state.context);
+    }
+
+    @Benchmark
+    @Group("contended")
+    @GroupThreads(1)
+    public boolean contendedWrite() {
+        // 仅写者线程访问 swapped，无需同步
+        swapped = !swapped;
+        return swapped ? chain.replace(original, replacement) : chain.replace(replacement, original);
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.context.ConcurrentDynamicContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 多线程共享上下文基准：同一组内的线程读写同一个上下文，模拟多个加载线程写入结果、路由线程读取。
+ *
+ * <p>对比 {@link ConcurrentDynamicContext} 与以 {@code synchronized} 保护的 {@link DynamicContext}（等价于
+ * {@code Collections.synchronizedMap}）。每个线程写入自己的键并读取全部键，同时读写是否继续执行。</p>
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class ConcurrentContextBenchmark {
+
+    @Param({"16"})
+    public int contextSize;
+
+    private String[] names;
+
+    private ConcurrentDynamicContext concurrentContext;
+
+    private SynchronizedDynamicContext synchronizedContext;
+
+    private final AtomicInteger threadIndex = new AtomicInteger();
+
+    private final Object value = new Object();
+
+    @Setup
+    public void setup() {
+        names = new String[contextSize];
+        for (int i = 0; i < contextSize; i++) {
+            names[i] = "key-" + i;
+        }
+        concurrentContext = new ConcurrentDynamicContext(contextSize);
+        synchronizedContext = new SynchronizedDynamicContext();
+        for (String name : names) {
+            concurrentContext.setValue(name, value);
+            synchronizedContext.setValue(name, value);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class WriterState {
+
+        String ownKey;
+
+        @Setup
+        public void setup(ConcurrentContextBenchmark benchmark) {
+            ownKey = benchmark.names[benchmark.threadIndex.getAndIncrement() % benchmark.contextSize];
+        }
+
+    }
+
+    @Benchmark
+    @Group("concurrent")
+    @GroupThreads(4)
+    public int concurrent(WriterState state) {
+        return readWrite(concurrentContext, state.ownKey);
+    }
+
+    @Benchmark
+    @Group("synchronized")
+    @GroupThreads(4)
+    public int synchronizedMap(WriterState state) {
+        return readWrite(synchronizedContext, state.ownKey);
+    }
+
+    private int readWrite(DynamicContext context, String ownKey) {
+        context.setValue(ownKey, value);
+        context.setProceed(true);
+        int found = 0;
+        for (String name : names) {
+            if (context.getValue(name) != null) found++;
+        }
+        return context.isProceed() ? found : -found;
+    }
+
+    /**
+     * 以对象锁保护全部读写的上下文，作为对比基线。
+     */
+    static final class SynchronizedDynamicContext extends DynamicContext {
+
+        @Override
+        public synchronized <T> void setValue(String key, T value) {
+            super.setValue(key, value);
+        }
+
+        @Override
+        public synchronized <T> T getValue(String key) {
+            return super.getValue(key);
+        }
+
+        @Override
+        public synchronized boolean isProceed() {
+            return super.isProceed();
+        }
+
+        @Override
+        public synchronized void setProceed(boolean proceed) {
+            super.setProceed(proceed);
+        }
+
+    }
+
+}
@@ -0,0 +1,96 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.tree.DecisionTable;
+import com.zsq.winter.design.tree.StrategyHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 策略映射基准：手写 if/else 阶梯与 {@link DecisionTable} 查找对比。
+ *
+ * <p>共 {@code rules} 条规则，第 {@code i} 条规则要求 {@code channel == i % 4} 且 {@code amount} 落在第 {@code i} 个区间内，
+ * 请求轮流命中各条规则，因此阶梯的平均比较次数随规则数线性增长。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DecisionTableBenchmark {
+
+    private static final int CHANNELS = 4;
+
+    private static final long WIDTH = 100L;
+
+    @Param({"4", "16", "64"})
+    public int rules;
+
+    private StrategyHandler<Request, DynamicContext, Long>[] handlers;
+
+    private DecisionTable<Request, DynamicContext, Long> table;
+
+    private Request[] requests;
+
+    private int cursor;
+
+    private final DynamicContext context = new DynamicContext();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        handlers = new StrategyHandler[rules];
+        DecisionTable.Builder<Request, DynamicContext, Long> builder = DecisionTable.<Request, DynamicContext, Long>builder()
+                .exact("channel", (request, dynamicContext) -> request.channel)
+                .range("amount", (request, dynamicContext) -> request.amount);
+        for (int i = 0; i < rules; i++) {
+            final long value = i;
+            handlers[i] = (requestParameter, dynamicContext) -> value;
+            builder.rule(handlers[i]).in("channel", i % CHANNELS).between("amount", i * WIDTH, (i + 1) * WIDTH).end();
+        }
+        table = builder.build();
+        requests = new Request[rules];
+        for (int i = 0; i < rules; i++) {
+            requests[i] = new Request(i % CHANNELS, i * WIDTH + WIDTH / 2);
+        }
+    }
+
+    @Benchmark
+    public StrategyHandler<Request, DynamicContext, Long> ladder() {
+        Request request = next();
+        for (int i = 0; i < rules; i++) {
+            if (request.channel == i % CHANNELS && request.amount >= i * WIDTH && request.amount < (i + 1) * WIDTH) {
+                return handlers[i];
+            }
+        }
+        return null;
+    }
+
+    @Benchmark
+    public StrategyHandler<Request, DynamicContext, Long> decisionTable() {
+        return table.get(next(), context);
+    }
+
+    private Request next() {
+        Request request = requests[cursor];
+        cursor = cursor + 1 == requests.length ? 0 : cursor + 1;
+        return request;
+    }
+
+    /**
+     * 路由请求：一个精确字段与一个区间字段。
+     */
+    static final class Request {
+
+        final Integer channel;
+
+        final long amount;
+
+        Request(int channel, long amount) {
+            this.channel = channel;
+            this.amount = amount;
+        }
+
+    }
+
+}
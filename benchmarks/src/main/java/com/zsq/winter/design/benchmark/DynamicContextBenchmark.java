@@ -0,0 +1,74 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.context.ContextKey;
+import com.zsq.winter.design.link.model2.context.ContextSchema;
+import com.zsq.winter.design.link.model2.context.SlotDynamicContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 上下文读写基准：模拟一次请求内写入并读取 {@code contextSize} 个值。
+ *
+ * <p>对比每次请求新建 {@link DynamicContext}（HashMap 存储）与复用 {@link SlotDynamicContext}（槽位存储 + reset）。
+ * 建议配合 {@code -prof gc} 观察每次操作的分配量。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class DynamicContextBenchmark {
+
+    @Param({"4", "16", "64"})
+    public int contextSize;
+
+    private String[] names;
+
+    private ContextKey<Object>[] keys;
+
+    private SlotDynamicContext slotContext;
+
+    private final Object value = new Object();
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() {
+        ContextSchema schema = new ContextSchema();
+        names = new String[contextSize];
+        keys = new ContextKey[contextSize];
+        for (int i = 0; i < contextSize; i++) {
+            names[i] = "key-" + i;
+            keys[i] = schema.register(names[i], Object.class);
+        }
+        slotContext = schema.newContext();
+    }
+
+    @Benchmark
+    public int hashMapContextPerRequest() {
+        DynamicContext context = new DynamicContext();
+        for (String name : names) {
+            context.setValue(name, value);
+        }
+        int found = 0;
+        for (String name : names) {
+            if (context.getValue(name) != null) found++;
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int slotContextReused() {
+        SlotDynamicContext context = slotContext;
+        context.reset();
+        for (ContextKey<Object> key : keys) {
+            context.set(key, value);
+        }
+        int found = 0;
+        for (ContextKey<Object> key : keys) {
+            if (context.get(key) != null) found++;
+        }
+        return found;
+    }
+
+}
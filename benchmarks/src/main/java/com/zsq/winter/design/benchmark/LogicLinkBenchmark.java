@@ -0,0 +1,122 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.link.model1.AbstractLogicLink;
+import com.zsq.winter.design.link.model1.ILogicLink;
+import com.zsq.winter.design.link.model1.ILogicStep;
+import com.zsq.winter.design.link.model1.LogicDecision;
+import com.zsq.winter.design.link.model1.LogicStepChain;
+import com.zsq.winter.design.link.model2.DynamicContext;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * model1 逻辑链基准：对比 {@link AbstractLogicLink#next} 递归传递与 {@link LogicStepChain} 循环执行到链尾的开销。
+ *
+ * <ul>
+ *   <li>{@code recursive}：原有递归链路，每个节点占用一层调用栈；</li>
+ *   <li>{@code iterative}：原生 {@link ILogicStep} 步骤，由执行器循环驱动；</li>
+ *   <li>{@code adapted}：原有节点经 {@link LogicStepChain#fromLinks(ILogicLink)} 适配后循环执行。</li>
+ * </ul>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class LogicLinkBenchmark {
+
+    @Param({"1", "15", "30", "300"})
+    public int chainLength;
+
+    private ILogicLink<Long, DynamicContext, Long> head;
+
+    private LogicStepChain<Long, DynamicContext, Long> iterative;
+
+    private LogicStepChain<Long, DynamicContext, Long> adapted;
+
+    private final DynamicContext context = new DynamicContext();
+
+    private final Long request = 42L;
+
+    @Setup
+    public void setup() {
+        head = buildLinks();
+
+        @SuppressWarnings("unchecked")
+        ILogicStep<Long, DynamicContext, Long>[] steps = new ILogicStep[chainLength];
+        for (int i = 0; i < chainLength - 1; i++) {
+            steps[i] = new PassStep();
+        }
+        steps[chainLength - 1] = new TailStep();
+        iterative = new LogicStepChain<>(steps);
+
+        // 适配会改写节点的 next 指针，使用独立的一组节点
+        adapted = LogicStepChain.fromLinks(buildLinks());
+    }
+
+    private ILogicLink<Long, DynamicContext, Long> buildLinks() {
+        ILogicLink<Long, DynamicContext, Long> link = new TailLink();
+        for (int i = 1; i < chainLength; i++) {
+            ILogicLink<Long, DynamicContext, Long> previous = new PassLink();
+            previous.appendNext(link);
+            link = previous;
+        }
+        return link;
+    }
+
+    @Benchmark
+    public Long recursive() throws Exception {
+        return head.apply(request, context);
+    }
+
+    @Benchmark
+    public Long iterative() throws Exception {
+        return iterative.apply(request, context);
+    }
+
+    @Benchmark
+    public Long adapted() throws Exception {
+        return adapted.apply(request, context);
+    }
+
+    /**
+     * 中间节点：直接传递给下一个节点。
+     */
+    static final class PassLink extends AbstractLogicLink<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) throws Exception {
+            return next(requestParameter, dynamicContext);
+        }
+    }
+
+    /**
+     * 链尾节点：返回结果。
+     */
+    static final class TailLink extends AbstractLogicLink<Long, DynamicContext, Long> {
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) {
+            return requestParameter;
+        }
+    }
+
+    /**
+     * 中间步骤：继续执行。
+     */
+    static final class PassStep implements ILogicStep<Long, DynamicContext, Long> {
+        @Override
+        public LogicDecision<Long> apply(Long requestParameter, DynamicContext dynamicContext) {
+            return LogicDecision.next();
+        }
+    }
+
+    /**
+     * 链尾步骤：终止并返回结果。
+     */
+    static final class TailStep implements ILogicStep<Long, DynamicContext, Long> {
+        @Override
+        public LogicDecision<Long> apply(Long requestParameter, DynamicContext dynamicContext) {
+            return LogicDecision.stop(requestParameter);
+        }
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.strategy.AbstractStrategyFactory;
+import com.zsq.winter.design.strategy.BaseStrategy;
+import com.zsq.winter.design.strategy.EnumUtils;
+import com.zsq.winter.design.strategy.WeightedStrategy;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 策略查找基准：按枚举查找与按 code 查找（{@link AbstractStrategyFactory#getStrategy(String, Class)}）对比。
+ *
+ * <p>{@code code} 分别取枚举中第一个与最后一个常量，用于暴露线性扫描带来的差异。
+ * {@code weighted*} 为同一 {@code code} 注册 4 个加权候选后的查找，限流版本的速率足够大，只衡量令牌桶本身的开销。</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class StrategyFactoryBenchmark {
+
+    @Param({"C0", "C15"})
+    public String code;
+
+    private BenchmarkStrategyFactory factory;
+
+    private BenchmarkType type;
+
+    private BenchmarkStrategyFactory weightedFactory;
+
+    private BenchmarkStrategyFactory rateLimitedFactory;
+
+    @Setup
+    public void setup() {
+        List<BenchmarkStrategy> strategies = new ArrayList<>();
+        for (BenchmarkType value : BenchmarkType.values()) {
+            strategies.add(new BenchmarkStrategy(value));
+        }
+        factory = new BenchmarkStrategyFactory(strategies);
+        type = BenchmarkType.valueOf(code);
+
+        weightedFactory = new BenchmarkStrategyFactory(strategies);
+        weightedFactory.registerWeightedStrategies(type, Arrays.asList(
+                WeightedStrategy.of(new BenchmarkStrategy(type), 40),
+                WeightedStrategy.of(new BenchmarkStrategy(type), 30),
+                WeightedStrategy.of(new BenchmarkStrategy(type), 20),
+                WeightedStrategy.of(new BenchmarkStrategy(type), 10)));
+        rateLimitedFactory = new BenchmarkStrategyFactory(strategies);
+        rateLimitedFactory.registerWeightedStrategies(type, Arrays.asList(
+                WeightedStrategy.of(new BenchmarkStrategy(type), 40).rateLimit(1e9),
+                WeightedStrategy.of(new BenchmarkStrategy(type), 30).rateLimit(1e9),
+                WeightedStrategy.of(new BenchmarkStrategy(type), 20).rateLimit(1e9),
+                WeightedStrategy.of(new BenchmarkStrategy(type), 10).rateLimit(1e9)));
+    }
+
+    @Benchmark
+    public BenchmarkStrategy byType() {
+        return factory.getStrategy(type);
+    }
+
+    @Benchmark
+    public BenchmarkStrategy byCode() {
+        return factory.getStrategy(code, BenchmarkType.class);
+    }
+
+    @Benchmark
+    public BenchmarkStrategy byCodeDirect() {
+        return factory.getStrategy(code);
+    }
+
+    @Benchmark
+    public BenchmarkStrategy weighted() {
+        return weightedFactory.getStrategy(type);
+    }
+
+    @Benchmark
+    public BenchmarkStrategy weightedRateLimited() {
+        return rateLimitedFactory.getStrategy(type);
+    }
+
+    @Benchmark
+    public BenchmarkType enumByCode() {
+        return EnumUtils.getByCode(BenchmarkType.class, code);
+    }
+
+    /**
+     * 基准策略实现。
+     */
+    public static final class BenchmarkStrategy implements BaseStrategy<BenchmarkType> {
+
+        private final BenchmarkType type;
+
+        BenchmarkStrategy(BenchmarkType type) {
+            this.type = type;
+        }
+
+        @Override
+        public void execute(Object... params) {
+        }
+
+        @Override
+        public BenchmarkType getStrategyType() {
+            return type;
+        }
+    }
+
+    /**
+     * 基准策略工厂，不依赖 SPI，全部手动注册。
+     */
+    static final class BenchmarkStrategyFactory extends AbstractStrategyFactory<BenchmarkType, BenchmarkStrategy> {
+        BenchmarkStrategyFactory(List<BenchmarkStrategy> strategies) {
+            super(BenchmarkStrategy.class, strategies);
+        }
+    }
+
+}
@@ -0,0 +1,97 @@
+package com.zsq.winter.design.benchmark;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.tree.AbstractStrategyRouter;
+import com.zsq.winter.design.tree.RoutingPlan;
+import com.zsq.winter.design.tree.StrategyHandler;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 规则树路由基准：测量 {@link AbstractStrategyRouter#router(Object, Object)} 逐层下探到叶子节点的开销。
+ *
+ * <p>每层节点在 {@code apply} 中直接调用 {@code router}，{@code get} 固定返回下一层，
+ * 因此结果只反映框架自身的分派成本；{@code treeDepth} 为根到叶子的路由次数。
+ * {@code plan} 以同样结构的 {@link RoutingPlan} 循环执行，{@code planFlattened} 中的中间节点均为直通节点，构建时被折叠。</p>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g"})
+public class StrategyRouterBenchmark {
+
+    @Param({"1", "4", "16"})
+    public int treeDepth;
+
+    private RouterNode root;
+
+    private RoutingPlan<Long, DynamicContext, Long> plan;
+
+    private RoutingPlan<Long, DynamicContext, Long> planFlattened;
+
+    private final DynamicContext context = new DynamicContext();
+
+    private final Long request = 42L;
+
+    @Setup
+    public void setup() {
+        StrategyHandler<Long, DynamicContext, Long> child = (requestParameter, dynamicContext) -> requestParameter + 1;
+        RouterNode node = null;
+        for (int i = 0; i < treeDepth; i++) {
+            node = new RouterNode(child);
+            child = node;
+        }
+        root = node;
+
+        StrategyHandler<Long, DynamicContext, Long> leaf = (requestParameter, dynamicContext) -> requestParameter + 1;
+        RoutingPlan.Builder<Long, DynamicContext, Long> routed = RoutingPlan.<Long, DynamicContext, Long>builder().root("n0");
+        RoutingPlan.Builder<Long, DynamicContext, Long> flattened = RoutingPlan.<Long, DynamicContext, Long>builder().root("n0");
+        for (int i = 0; i < treeDepth; i++) {
+            final String childId = "n" + (i + 1);
+            routed.route("n" + i, (requestParameter, dynamicContext) -> childId, childId);
+            flattened.passThrough("n" + i, childId);
+        }
+        plan = routed.leaf("n" + treeDepth, leaf).build();
+        planFlattened = flattened.leaf("n" + treeDepth, leaf).build();
+    }
+
+    @Benchmark
+    public Long router() throws Exception {
+        return root.router(request, context);
+    }
+
+    @Benchmark
+    public Long plan() throws Exception {
+        return plan.apply(request, context);
+    }
+
+    @Benchmark
+    public Long planFlattened() throws Exception {
+        return planFlattened.apply(request, context);
+    }
+
+    /**
+     * 中间节点：受理时直接路由到唯一的子节点。
+     */
+    static final class RouterNode extends AbstractStrategyRouter<Long, DynamicContext, Long> {
+
+        private final StrategyHandler<Long, DynamicContext, Long> child;
+
+        RouterNode(StrategyHandler<Long, DynamicContext, Long> child) {
+            this.child = child;
+        }
+
+        @Override
+        public StrategyHandler<Long, DynamicContext, Long> get(Long requestParameter, DynamicContext dynamicContext) {
+            return child;
+        }
+
+        @Override
+        public Long apply(Long requestParameter, DynamicContext dynamicContext) throws Exception {
+            return router(requestParameter, dynamicContext);
+        }
+
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.zsq.winter.design.cache;
+
+/**
+ * 缓存统计快照，不可变。
+ */
+public final class CacheStats {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long evictionCount;
+
+    private final long expirationCount;
+
+    CacheStats(long hitCount, long missCount, long evictionCount, long expirationCount) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+    }
+
+    /**
+     * 获取命中次数。
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 获取未命中次数（含过期导致的未命中）。
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 获取因容量不足被淘汰的条目数。
+     *
+     * @return 淘汰条目数
+     */
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    /**
+     * 获取因 TTL 到期被移除的条目数。
+     *
+     * @return 过期条目数
+     */
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    /**
+     * 计算命中率。
+     *
+     * @return 命中率，无请求时为 {@code 1.0}
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats{hit=" + hitCount + ", miss=" + missCount + ", eviction=" + evictionCount
+                + ", expiration=" + expirationCount + ", hitRate=" + getHitRate() + "}";
+    }
+
+}
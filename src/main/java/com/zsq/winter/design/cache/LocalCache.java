@@ -0,0 +1,289 @@
+package com.zsq.winter.design.cache;
+
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 有界并发本地缓存：按容量淘汰 + 写入后 TTL 过期 + 命中统计。
+ *
+ * <p>实现要点：</p>
+ * <ul>
+ *   <li>读路径只有一次 {@link ConcurrentHashMap} 查找与访问标记，不加锁；</li>
+ *   <li>容量淘汰采用 CLOCK（二次机会）近似 LRU：条目按写入顺序排队，超出容量时从队头检查，
+ *       最近被访问过的条目清除标记后重新入队，未被访问的条目被淘汰；</li>
+ *   <li>过期条目在读取时惰性移除，或在淘汰扫描时优先移除；</li>
+ *   <li>{@link #get(Object, Callable)} 合并同一键的并发加载：同一时刻每个键最多一次加载在途，其余调用等待其结果，避免缓存击穿；</li>
+ *   <li>容量为近似上限，高并发写入时可能短暂超出。</li>
+ * </ul>
+ *
+ * @param <K> 键类型
+ * @param <V> 值类型，不允许为 {@code null}
+ */
+public class LocalCache<K, V> {
+
+    private final ConcurrentHashMap<K, Node<K, V>> map = new ConcurrentHashMap<>();
+
+    /**
+     * 淘汰候选队列，可能包含已被移除的失效节点，扫描时跳过。
+     */
+    private final ConcurrentLinkedQueue<Node<K, V>> evictionQueue = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger queueSize = new AtomicInteger();
+
+    private final long maximumSize;
+
+    /**
+     * 写入后存活时间（纳秒），{@code 0} 表示永不过期。
+     */
+    private final long ttlNanos;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder evictionCount = new LongAdder();
+
+    private final LongAdder expirationCount = new LongAdder();
+
+    /**
+     * 正在加载的键及其结果，加载完成后移除。
+     */
+    private final ConcurrentHashMap<K, Loading<V>> loading = new ConcurrentHashMap<>();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    /**
+     * 创建缓存。
+     *
+     * @param maximumSize 最大条目数，必须大于 0
+     * @param ttl         写入后存活时间，{@code <= 0} 表示永不过期
+     * @param unit        时间单位
+     */
+    public LocalCache(long maximumSize, long ttl, TimeUnit unit) {
+        if (maximumSize <= 0) throw new IllegalArgumentException("maximumSize must be positive");
+        this.maximumSize = maximumSize;
+        this.ttlNanos = ttl > 0 ? unit.toNanos(ttl) : 0L;
+    }
+
+    /**
+     * 读取缓存。
+     *
+     * @param key 键
+     * @return 缓存的值；不存在或已过期返回 {@code null}
+     */
+    public V get(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null) {
+            missCount.increment();
+            return null;
+        }
+        if (ttlNanos != 0 && node.isExpired(System.nanoTime())) {
+            if (map.remove(key, node)) expirationCount.increment();
+            missCount.increment();
+            return null;
+        }
+        // 仅在标记变化时写入，避免读多的条目产生缓存行争用
+        if (!node.accessed) node.accessed = true;
+        hitCount.increment();
+        return node.value;
+    }
+
+    /**
+     * 读取缓存，未命中时加载并写入；同一键的并发调用只加载一次，其余调用等待并共享结果。
+     *
+     * <p>加载在首个未命中的调用线程上执行。加载失败时等待中的调用收到同一异常，结果不缓存，之后的调用重新加载。</p>
+     *
+     * @param key    键
+     * @param loader 加载值，返回 {@code null} 时不缓存
+     * @return 缓存或加载的值
+     * @throws Exception             加载过程中的异常；等待期间被中断时抛出 {@link InterruptedException}
+     * @throws IllegalStateException 加载过程中在同一线程上再次加载同一键时抛出，避免等待自身而死锁
+     */
+    public V get(K key, Callable<? extends V> loader) throws Exception {
+        V value = get(key);
+        if (value != null) return value;
+
+        Loading<V> created = new Loading<>();
+        Loading<V> inFlight = loading.putIfAbsent(key, created);
+        if (inFlight != null) {
+            if (inFlight.owner == Thread.currentThread()) {
+                throw new IllegalStateException("同一线程重复加载同一键，key=" + key);
+            }
+            coalescedCount.increment();
+            try {
+                return inFlight.get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) throw (Exception) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw e;
+            }
+        }
+        try {
+            // 未命中之后、登记加载之前，其他线程可能刚好完成了加载
+            value = getIfFresh(key);
+            if (value == null) {
+                value = loader.call();
+                if (value != null) put(key, value);
+            }
+            created.complete(value);
+            return value;
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(key, created);
+        }
+    }
+
+    /**
+     * 写入缓存，已存在时覆盖值并重新计算过期时间。
+     *
+     * @param key   键
+     * @param value 值，不允许为 {@code null}
+     */
+    public void put(K key, V value) {
+        Objects.requireNonNull(value, "value must not be null");
+        long expireAt = ttlNanos == 0 ? 0L : System.nanoTime() + ttlNanos;
+        Node<K, V> node = new Node<>(key, value, expireAt);
+        // 已存在时整体替换节点而不是原地修改：持有旧节点的读者或淘汰扫描只能移除旧节点，不会误删新写入的值
+        Node<K, V> existing = map.put(key, node);
+        if (existing != null && existing.accessed) node.accessed = true;
+        evictionQueue.add(node);
+        queueSize.incrementAndGet();
+        cleanUp();
+    }
+
+    /**
+     * 移除指定键。
+     *
+     * @param key 键
+     */
+    public void invalidate(K key) {
+        map.remove(key);
+    }
+
+    /**
+     * 清空缓存。
+     */
+    public void invalidateAll() {
+        map.clear();
+        evictionQueue.clear();
+        queueSize.set(0);
+    }
+
+    /**
+     * 获取当前条目数（可能包含尚未惰性移除的过期条目）。
+     *
+     * @return 条目数
+     */
+    public long size() {
+        return map.mappingCount();
+    }
+
+    /**
+     * 获取最大条目数。
+     *
+     * @return 最大条目数
+     */
+    public long getMaximumSize() {
+        return maximumSize;
+    }
+
+    /**
+     * 获取统计快照。
+     *
+     * @return 统计快照
+     */
+    public CacheStats stats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), evictionCount.sum(), expirationCount.sum());
+    }
+
+    /**
+     * 获取因同一键已有加载在途而等待其结果的调用次数。
+     *
+     * @return 合并的加载次数
+     */
+    public long getCoalescedCount() {
+        return coalescedCount.sum();
+    }
+
+    /**
+     * 读取未过期的值，不计入统计。
+     */
+    private V getIfFresh(K key) {
+        Node<K, V> node = map.get(key);
+        if (node == null || (ttlNanos != 0 && node.isExpired(System.nanoTime()))) return null;
+        return node.value;
+    }
+
+    /**
+     * 超出容量时淘汰条目；同时清理队列中的失效节点，避免只写入不淘汰时队列无限增长。
+     */
+    private void cleanUp() {
+        int budget = queueSize.get();
+        long now = ttlNanos == 0 ? 0L : System.nanoTime();
+        while (budget-- > 0) {
+            boolean overCapacity = map.mappingCount() > maximumSize;
+            if (!overCapacity && queueSize.get() <= maximumSize << 1) return;
+            Node<K, V> node = evictionQueue.poll();
+            if (node == null) return;
+            queueSize.decrementAndGet();
+            // 已被覆盖为其他节点或已移除的失效节点
+            if (map.get(node.key) != node) continue;
+            boolean expired = ttlNanos != 0 && node.isExpired(now);
+            if (overCapacity && (expired || !node.accessed)) {
+                if (map.remove(node.key, node)) {
+                    if (expired) expirationCount.increment();
+                    else evictionCount.increment();
+                }
+                continue;
+            }
+            if (overCapacity) node.accessed = false;
+            evictionQueue.add(node);
+            queueSize.incrementAndGet();
+        }
+    }
+
+    /**
+     * 在途的加载，记录执行加载的线程以识别重入。
+     */
+    private static final class Loading<V> extends CompletableFuture<V> {
+
+        final Thread owner = Thread.currentThread();
+
+    }
+
+    /**
+     * 缓存节点。
+     */
+    private static final class Node<K, V> {
+
+        final K key;
+
+        final V value;
+
+        final long expireAt;
+
+        volatile boolean accessed;
+
+        Node(K key, V value, long expireAt) {
+            this.key = key;
+            this.value = value;
+            this.expireAt = expireAt;
+        }
+
+        boolean isExpired(long now) {
+            return now - expireAt >= 0;
+        }
+
+    }
+
+}
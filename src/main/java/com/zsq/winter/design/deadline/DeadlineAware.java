@@ -0,0 +1,44 @@
+package com.zsq.winter.design.deadline;
+
+/**
+ * 携带请求截止时间的上下文。
+ *
+ * <p>截止时间以 {@link System#nanoTime()} 为基准，随上下文在责任链与规则树的各节点间传递；
+ * 节点执行前检查剩余预算，已超时的节点被跳过并转到降级处理器。{@code DynamicContext} 已实现本接口，
+ * 规则树使用自定义上下文类型时也可实现本接口以获得同样的检查。</p>
+ */
+public interface DeadlineAware {
+
+    /**
+     * 是否设置了截止时间。
+     *
+     * @return {@code true} 已设置
+     */
+    boolean hasDeadline();
+
+    /**
+     * 获取截止时刻，仅在 {@link #hasDeadline()} 为 {@code true} 时有意义。
+     *
+     * @return 以 {@link System#nanoTime()} 为基准的截止时刻
+     */
+    long getDeadlineNanos();
+
+    /**
+     * 获取剩余的时间预算。
+     *
+     * @return 剩余纳秒数，已超时为非正数；未设置截止时间时为 {@link Long#MAX_VALUE}
+     */
+    default long remainingNanos() {
+        return hasDeadline() ? getDeadlineNanos() - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 是否已超过截止时间。
+     *
+     * @return {@code true} 已超时；未设置截止时间时总为 {@code false}
+     */
+    default boolean isDeadlineExceeded() {
+        return hasDeadline() && System.nanoTime() - getDeadlineNanos() >= 0;
+    }
+
+}
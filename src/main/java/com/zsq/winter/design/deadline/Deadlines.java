@@ -0,0 +1,69 @@
+package com.zsq.winter.design.deadline;
+
+import com.zsq.winter.design.metrics.Metrics;
+import com.zsq.winter.design.metrics.MetricsRecorder;
+import com.zsq.winter.design.metrics.NodeOutcome;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 截止时间的检查与超时事件计数。
+ *
+ * <p>规则树的上下文类型不受约束，因此以 {@code Object} 接收，只有实现了 {@link DeadlineAware} 的上下文才会被检查。
+ * 每次因超时跳过节点都会计入 {@link #exceededCount()}，开启指标时同时以 {@link NodeOutcome#DEADLINE_EXCEEDED} 记录到被跳过的节点上。</p>
+ */
+public final class Deadlines {
+
+    private Deadlines() {}
+
+    private static final LongAdder EXCEEDED = new LongAdder();
+
+    /**
+     * 上下文是否已超过截止时间。
+     *
+     * @param dynamicContext 上下文
+     * @return {@code true} 上下文携带截止时间且已超时
+     */
+    public static boolean isExceeded(Object dynamicContext) {
+        return dynamicContext instanceof DeadlineAware && ((DeadlineAware) dynamicContext).isDeadlineExceeded();
+    }
+
+    /**
+     * 获取上下文剩余的时间预算。
+     *
+     * @param dynamicContext 上下文
+     * @return 剩余纳秒数，已超时为非正数；上下文未携带截止时间时为 {@link Long#MAX_VALUE}
+     */
+    public static long remainingNanos(Object dynamicContext) {
+        return dynamicContext instanceof DeadlineAware ? ((DeadlineAware) dynamicContext).remainingNanos() : Long.MAX_VALUE;
+    }
+
+    /**
+     * 记录一次因超时跳过节点的事件。
+     *
+     * @param scope 节点所属的范围：规则树为路由节点类名，责任链为链路名称
+     * @param node  被跳过的节点，规则树在映射前即超时时为路由节点自身
+     */
+    public static void recordExceeded(String scope, Object node) {
+        EXCEEDED.increment();
+        MetricsRecorder recorder = Metrics.recorder();
+        if (null != recorder) recorder.record(scope, node, 0L, NodeOutcome.DEADLINE_EXCEEDED);
+    }
+
+    /**
+     * 获取进程内累计的超时事件数。
+     *
+     * @return 超时事件数
+     */
+    public static long exceededCount() {
+        return EXCEEDED.sum();
+    }
+
+    /**
+     * 清零超时事件计数。
+     */
+    public static void resetExceededCount() {
+        EXCEEDED.reset();
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.zsq.winter.design.link.model1;
+
+/**
+ * 逻辑步骤接口：{@link ILogicLink} 的非递归形态。
+ *
+ * <p>步骤只负责自身的处理逻辑，通过返回 {@link LogicDecision} 告诉执行器“继续”还是“终止”，
+ * 不再自行调用下一个节点，由 {@link LogicStepChain} 循环驱动，调用栈深度与链路长度无关。</p>
+ *
+ * <pre>{@code
+ * ILogicStep<Req, Ctx, Res> check = (req, ctx) -> req.isValid()
+ *         ? LogicDecision.next()
+ *         : LogicDecision.stop(Res.fail("参数非法"));
+ * }</pre>
+ */
+@FunctionalInterface
+public interface ILogicStep<T, D, R> {
+
+    /**
+     * 执行业务处理逻辑。
+     *
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 执行决策，不能为 {@code null}
+     * @throws Exception 处理过程中可能抛出的异常
+     */
+    LogicDecision<R> apply(T requestParameter, D dynamicContext) throws Exception;
+
+    /**
+     * 将已有的 {@link ILogicLink} 适配为逻辑步骤。
+     *
+     * <p>适配时会把该节点的 {@code next} 改接到内部的标记节点：节点调用 {@code next(...)} 视为“继续”，
+     * 直接返回视为携带返回值“终止”。因此被适配的节点不能再用于递归链路，
+     * 且调用 {@code next(...)} 后再加工下游结果的节点不适合适配（下游结果恒为 {@code null}）。</p>
+     *
+     * @param link 已有节点
+     * @param <T>  请求参数类型
+     * @param <D>  动态上下文类型
+     * @param <R>  结果类型
+     * @return 逻辑步骤
+     */
+    static <T, D, R> ILogicStep<T, D, R> adapt(ILogicLink<T, D, R> link) {
+        return new LinkStep<>(link);
+    }
+
+}
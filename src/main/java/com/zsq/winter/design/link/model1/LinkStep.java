@@ -0,0 +1,61 @@
+package com.zsq.winter.design.link.model1;
+
+import java.util.Objects;
+
+/**
+ * 将递归形态的 {@link ILogicLink} 适配为 {@link ILogicStep}。
+ *
+ * <p>节点的 {@code next} 被改接到共享的标记节点，标记节点只在当前线程记下“已放行”。
+ * 执行前保存、执行后恢复标记位，嵌套执行其他适配链路时互不干扰。</p>
+ */
+final class LinkStep<T, D, R> implements ILogicStep<T, D, R> {
+
+    /**
+     * 当前线程最近一次被适配节点是否调用了 {@code next(...)}。
+     */
+    private static final ThreadLocal<boolean[]> PROCEEDED = ThreadLocal.withInitial(() -> new boolean[1]);
+
+    private final ILogicLink<T, D, R> link;
+
+    LinkStep(ILogicLink<T, D, R> link) {
+        this.link = Objects.requireNonNull(link, "link must not be null");
+        link.appendNext(new ProceedMarker<>());
+    }
+
+    @Override
+    public LogicDecision<R> apply(T requestParameter, D dynamicContext) throws Exception {
+        boolean[] proceeded = PROCEEDED.get();
+        boolean outer = proceeded[0];
+        proceeded[0] = false;
+        try {
+            R result = link.apply(requestParameter, dynamicContext);
+            return proceeded[0] ? LogicDecision.next() : LogicDecision.stop(result);
+        } finally {
+            proceeded[0] = outer;
+        }
+    }
+
+    /**
+     * 标记节点：被调用即表示上游节点选择继续传递。
+     */
+    private static final class ProceedMarker<T, D, R> implements ILogicLink<T, D, R> {
+
+        @Override
+        public R apply(T requestParameter, D dynamicContext) {
+            PROCEEDED.get()[0] = true;
+            return null;
+        }
+
+        @Override
+        public ILogicLink<T, D, R> next() {
+            return null;
+        }
+
+        @Override
+        public ILogicLink<T, D, R> appendNext(ILogicLink<T, D, R> next) {
+            throw new UnsupportedOperationException("适配标记节点不能追加后续节点");
+        }
+
+    }
+
+}
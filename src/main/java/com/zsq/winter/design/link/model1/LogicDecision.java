@@ -0,0 +1,63 @@
+package com.zsq.winter.design.link.model1;
+
+/**
+ * 逻辑步骤的执行决策：继续执行下一步，或携带结果终止链路。
+ *
+ * <p>“继续”为全局共享的单例，不产生对象分配；“终止”每次执行链路最多出现一次。</p>
+ *
+ * @param <R> 结果类型
+ */
+public final class LogicDecision<R> {
+
+    private static final LogicDecision<?> NEXT = new LogicDecision<>(false, null);
+
+    private final boolean stop;
+
+    private final R result;
+
+    private LogicDecision(boolean stop, R result) {
+        this.stop = stop;
+        this.result = result;
+    }
+
+    /**
+     * 继续执行下一步。
+     *
+     * @param <R> 结果类型
+     * @return 共享的“继续”决策
+     */
+    @SuppressWarnings("unchecked")
+    public static <R> LogicDecision<R> next() {
+        return (LogicDecision<R>) NEXT;
+    }
+
+    /**
+     * 终止链路并返回结果。
+     *
+     * @param result 链路结果
+     * @param <R>    结果类型
+     * @return “终止”决策
+     */
+    public static <R> LogicDecision<R> stop(R result) {
+        return new LogicDecision<>(true, result);
+    }
+
+    /**
+     * 是否终止链路。
+     *
+     * @return {@code true} 终止
+     */
+    public boolean isStop() {
+        return stop;
+    }
+
+    /**
+     * 获取终止时的结果。
+     *
+     * @return 结果；“继续”决策恒为 {@code null}
+     */
+    public R getResult() {
+        return result;
+    }
+
+}
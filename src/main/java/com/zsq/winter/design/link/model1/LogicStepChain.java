@@ -0,0 +1,99 @@
+package com.zsq.winter.design.link.model1;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 非递归的逻辑链执行器：以循环依次执行 {@link ILogicStep}，调用栈深度恒定，
+ * 链路长达数百甚至更多节点也不会出现 {@link StackOverflowError}。
+ *
+ * <p>执行规则：</p>
+ * <ol>
+ *   <li>按顺序执行步骤，某一步返回 {@link LogicDecision#stop(Object)} 时立即返回其结果；</li>
+ *   <li>全部步骤都选择继续时，若通过 {@link #appendNext(ILogicLink)} 接了后续节点则交给它处理，否则返回 {@code null}。</li>
+ * </ol>
+ *
+ * <p>执行器本身也是一个 {@link ILogicLink}，可以作为已有递归链路中的一个节点使用。
+ * 步骤数组在构造后不再变化，实例可被多线程共享。</p>
+ */
+public class LogicStepChain<T, D, R> extends AbstractLogicLink<T, D, R> {
+
+    private final ILogicStep<T, D, R>[] steps;
+
+    /**
+     * 使用步骤构造执行器。
+     *
+     * @param steps 按执行顺序排列的步骤，只保存其副本
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public LogicStepChain(ILogicStep<T, D, R>... steps) {
+        this.steps = steps.clone();
+        for (ILogicStep<T, D, R> step : this.steps) {
+            Objects.requireNonNull(step, "step must not be null");
+        }
+    }
+
+    /**
+     * 将一条已装配的递归链路转换为非递归执行器。
+     *
+     * <p>从 {@code head} 沿 {@link ILogicLink#next()} 收集全部节点并逐个通过 {@link ILogicStep#adapt(ILogicLink)} 适配，
+     * 转换后原链路的 {@code next} 指针被改写，不能再按递归方式执行。</p>
+     *
+     * @param head 链路头节点
+     * @param <T>  请求参数类型
+     * @param <D>  动态上下文类型
+     * @param <R>  结果类型
+     * @return 非递归执行器
+     * @throws IllegalArgumentException 链路存在环时抛出
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static <T, D, R> LogicStepChain<T, D, R> fromLinks(ILogicLink<T, D, R> head) {
+        Objects.requireNonNull(head, "head must not be null");
+        List<ILogicLink<T, D, R>> links = new ArrayList<>();
+        Set<ILogicLink<T, D, R>> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (ILogicLink<T, D, R> link = head; link != null; link = link.next()) {
+            if (!visited.add(link)) {
+                throw new IllegalArgumentException("逻辑链存在环，link=" + link.getClass().getName());
+            }
+            links.add(link);
+        }
+        ILogicStep<T, D, R>[] steps = new ILogicStep[links.size()];
+        for (int i = 0; i < steps.length; i++) {
+            steps[i] = ILogicStep.adapt(links.get(i));
+        }
+        return new LogicStepChain<>(steps);
+    }
+
+    /**
+     * 依次执行步骤，直到某一步终止或全部执行完毕。
+     *
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 终止步骤的结果；全部继续时返回后续节点的结果，无后续节点返回 {@code null}
+     * @throws Exception 处理过程中可能抛出的异常
+     */
+    @Override
+    public R apply(T requestParameter, D dynamicContext) throws Exception {
+        final ILogicStep<T, D, R>[] steps = this.steps;
+        for (ILogicStep<T, D, R> step : steps) {
+            LogicDecision<R> decision = step.apply(requestParameter, dynamicContext);
+            if (decision.isStop()) return decision.getResult();
+        }
+        return null == next() ? null : next(requestParameter, dynamicContext);
+    }
+
+    /**
+     * 获取步骤数量。
+     *
+     * @return 步骤数量
+     */
+    public int size() {
+        return steps.length;
+    }
+
+}
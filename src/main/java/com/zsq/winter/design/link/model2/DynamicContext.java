@@ -1,14 +1,22 @@
 package com.zsq.winter.design.link.model2;
 
+import com.zsq.winter.design.deadline.DeadlineAware;
+
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 链式处理的动态上下文对象。
  *
  * <p>用于在链路节点之间传递临时数据与状态，例如中间计算结果、控制是否继续向后处理等。</p>
+ *
+ * <p>可通过 {@link #setDeadline(long, TimeUnit)} 设置请求级的截止时间，责任链与规则树在执行每个节点前检查剩余预算。</p>
  */
-public class DynamicContext {
+public class DynamicContext implements DeadlineAware {
 
     /**
      * 控制链路是否继续向后执行。
@@ -16,6 +24,16 @@ public class DynamicContext {
      */
     private boolean proceed;
 
+    /**
+     * 是否设置了截止时间。
+     */
+    private boolean deadlineSet;
+
+    /**
+     * 截止时刻，以 {@link System#nanoTime()} 为基准。
+     */
+    private long deadlineNanos;
+
     /**
      * 构造方法，默认允许继续执行。
      */
@@ -23,21 +41,41 @@ public class DynamicContext {
         this.proceed = true;
     }
 
+    /**
+     * 使用指定的存储创建上下文，供需要其他存储实现（如线程安全的 {@code Map}）的子类使用。
+     *
+     * @param dataObjects 动态数据的存储，应为空且不为 {@code null}
+     */
+    protected DynamicContext(Map<String, Object> dataObjects) {
+        this.proceed = true;
+        this.dataObjects = Objects.requireNonNull(dataObjects, "dataObjects must not be null");
+    }
+
     /**
      * 存放在链路中共享的动态数据。
-     * <p>通过 {@link #setValue(String, Object)} 与 {@link #getValue(String)} 读写。</p>
+     * <p>通过 {@link #setValue(String, Object)} 与 {@link #getValue(String)} 读写；未在构造时指定时首次写入才创建。</p>
      */
-    private Map<String, Object> dataObjects = new HashMap<>();
+    private Map<String, Object> dataObjects;
+
+    /**
+     * 由 {@link #fork()} 创建的副本中被写入过的键，非副本为 {@code null}。
+     */
+    private Set<String> writtenKeys;
 
     /**
      * 设置上下文中的数据。
      *
      * @param key   键，建议使用常量或枚举保证一致性
-     * @param value 值，任意类型
+     * @param value 值，任意类型，{@code null} 等同于删除该键
      * @param <T>   值的泛型类型
      */
     public <T> void setValue(String key, T value) {
-        dataObjects.put(key, value);
+        if (value == null) {
+            if (dataObjects != null) dataObjects.remove(key);
+        } else {
+            dataMap().put(key, value);
+        }
+        markWritten(key);
     }
 
     /**
@@ -49,7 +87,7 @@ public class DynamicContext {
      */
     @SuppressWarnings("unchecked")
     public <T> T getValue(String key) {
-        return (T) dataObjects.get(key);
+        return dataObjects == null ? null : (T) dataObjects.get(key);
     }
 
     /**
@@ -69,4 +107,131 @@ public class DynamicContext {
     public void setProceed(boolean proceed) {
         this.proceed = proceed;
     }
+
+    /**
+     * 设置从当前时刻起算的截止时间。
+     *
+     * @param timeout 时间预算，{@code <= 0} 表示已超时
+     * @param unit    时间单位
+     */
+    public void setDeadline(long timeout, TimeUnit unit) {
+        long now = System.nanoTime();
+        long nanos = unit.toNanos(timeout);
+        long deadline = now + nanos;
+        // 预算过大导致溢出时视为不限时
+        if (nanos > 0 && deadline < now) {
+            clearDeadline();
+        } else {
+            setDeadlineNanos(deadline);
+        }
+    }
+
+    /**
+     * 直接设置截止时刻，用于把上游请求的截止时间传递到新的上下文。
+     *
+     * @param deadlineNanos 以 {@link System#nanoTime()} 为基准的截止时刻
+     */
+    public void setDeadlineNanos(long deadlineNanos) {
+        this.deadlineNanos = deadlineNanos;
+        this.deadlineSet = true;
+    }
+
+    /**
+     * 清除截止时间。
+     */
+    public void clearDeadline() {
+        this.deadlineSet = false;
+        this.deadlineNanos = 0L;
+    }
+
+    @Override
+    public boolean hasDeadline() {
+        return deadlineSet;
+    }
+
+    @Override
+    public long getDeadlineNanos() {
+        return deadlineNanos;
+    }
+
+    /**
+     * 创建副本，用于在其他线程上隔离执行（推测执行、并行处理器组）：复制动态数据（浅拷贝）、是否继续执行与截止时间，并记录副本上写入的键。
+     *
+     * <p>子类扩展了状态时应覆写以返回同类型的副本。</p>
+     *
+     * @return 副本
+     */
+    public DynamicContext fork() {
+        DynamicContext fork = new DynamicContext();
+        copyStateTo(fork);
+        return fork;
+    }
+
+    /**
+     * 把 {@link #fork()} 创建的副本上的变更合并回本上下文：只合并副本上写入过的键，以及是否继续执行。
+     *
+     * @param fork 副本
+     */
+    public void merge(DynamicContext fork) {
+        if (fork.writtenKeys != null) {
+            for (String key : fork.writtenKeys) {
+                setValue(key, fork.getValue(key));
+            }
+        }
+        setProceed(fork.isProceed());
+    }
+
+    /**
+     * 把本上下文的基础状态复制到副本，并使副本开始记录写入的键，供子类实现 {@link #fork()}。
+     *
+     * @param fork 新建的副本，动态数据复制到其自身的存储中
+     */
+    protected void copyStateTo(DynamicContext fork) {
+        fork.setProceed(isProceed());
+        fork.deadlineSet = deadlineSet;
+        fork.deadlineNanos = deadlineNanos;
+        if (dataObjects != null && !dataObjects.isEmpty()) fork.dataMap().putAll(dataObjects);
+        fork.writtenKeys = fork.newWrittenKeys();
+    }
+
+    /**
+     * 获取动态数据的存储，尚未创建时创建 {@link HashMap}，供子类实现原子读写等扩展操作。
+     *
+     * @return 动态数据的存储
+     */
+    protected final Map<String, Object> dataMap() {
+        if (dataObjects == null) dataObjects = new HashMap<>();
+        return dataObjects;
+    }
+
+    /**
+     * 创建副本用于记录写入键的集合，子类允许多线程写入同一副本时应覆写并返回线程安全的集合。
+     *
+     * @return 空集合
+     */
+    protected Set<String> newWrittenKeys() {
+        return new HashSet<>();
+    }
+
+    /**
+     * 记录副本上写入过的键，非副本时为空操作；子类绕过 {@link #setValue(String, Object)} 写入存储时调用。
+     *
+     * @param key 写入的键
+     */
+    protected final void markWritten(String key) {
+        Set<String> written = writtenKeys;
+        if (written != null) written.add(key);
+    }
+
+    /**
+     * 重置上下文以便复用：清空动态数据与截止时间，并恢复为允许继续执行。
+     *
+     * <p>用于对象池等跨请求复用上下文的场景，子类扩展了状态时应覆写并调用 {@code super.reset()}。</p>
+     */
+    public void reset() {
+        setProceed(true);
+        clearDeadline();
+        if (dataObjects != null) dataObjects.clear();
+        writtenKeys = null;
+    }
 }
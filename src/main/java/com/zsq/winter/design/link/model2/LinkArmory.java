@@ -2,6 +2,7 @@ package com.zsq.winter.design.link.model2;
 
 
 import com.zsq.winter.design.link.model2.chain.BusinessLinkedList;
+import com.zsq.winter.design.link.model2.chain.CompiledLogicChain;
 import com.zsq.winter.design.link.model2.handler.ILogicHandler;
 
 /**
@@ -40,4 +41,14 @@ public class LinkArmory<T, D extends DynamicContext, R> {
         return logicLink;
     }
 
+    /**
+     * 将拼装完成的逻辑链表编译为不可变的数组执行器。
+     *
+     * @return 编译后的链路执行器
+     * @see BusinessLinkedList#compile()
+     */
+    public CompiledLogicChain<T, D, R> compile() {
+        return logicLink.compile();
+    }
+
 }
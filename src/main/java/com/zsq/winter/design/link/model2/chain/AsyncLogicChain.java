@@ -0,0 +1,141 @@
+package com.zsq.winter.design.link.model2.chain;
+
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.handler.IAsyncLogicHandler;
+import com.zsq.winter.design.metrics.Metrics;
+import com.zsq.winter.design.metrics.MetricsRecorder;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 异步业务链路执行器：依次组合 {@link IAsyncLogicHandler}，全程不阻塞调用线程。
+ *
+ * <p>执行规则与 {@link BusinessLinkedList} 一致：某个处理器完成后上下文为停止状态时，以该处理器的结果结束链路；
+ * 全部执行完且未中断时以 {@code null} 完成。</p>
+ *
+ * <ul>
+ *   <li>处理器返回已完成的 {@link CompletableFuture} 时直接在当前线程继续循环，不创建回调（同步快路径）；</li>
+ *   <li>遇到未完成的阶段时才通过 {@code thenCompose} 挂接剩余节点，后续节点在该阶段完成的线程上执行；</li>
+ *   <li>任一处理器异常完成（或直接抛出异常）时，链路以该异常完成，后续节点不再执行；</li>
+ *   <li>上下文设置了截止时间时，每个处理器执行前检查剩余预算；已超时则跳过剩余处理器，
+ *   以 {@link #setDeadlineFallback(IAsyncLogicHandler) 降级处理器} 的结果完成并中断链路。</li>
+ * </ul>
+ *
+ * <p>处理器数组在构造后不再变化（降级处理器除外），实例可被多线程共享。</p>
+ */
+public final class AsyncLogicChain<T, D extends DynamicContext, R> implements IAsyncLogicHandler<T, D, R> {
+
+    /**
+     * 链路名称。
+     */
+    private final String name;
+
+    /**
+     * 按执行顺序排列的处理器。
+     */
+    private final IAsyncLogicHandler<T, D, R>[] handlers;
+
+    /**
+     * 请求超过截止时间时执行的降级处理器。
+     */
+    private volatile IAsyncLogicHandler<T, D, R> deadlineFallback;
+
+    /**
+     * 使用链路名称与处理器构造。
+     *
+     * @param name     链路名称
+     * @param handlers 按执行顺序排列的处理器，只保存其副本
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public AsyncLogicChain(String name, IAsyncLogicHandler<T, D, R>... handlers) {
+        this.name = name;
+        this.handlers = handlers.clone();
+        for (IAsyncLogicHandler<T, D, R> handler : this.handlers) {
+            Objects.requireNonNull(handler, "handler must not be null");
+        }
+    }
+
+    /**
+     * 依次执行处理器，直到执行完毕、上下文要求停止或出现异常。
+     *
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 若中途停止，以停止时的结果完成；若全部处理完且未中断，以 {@code null} 完成
+     */
+    @Override
+    public CompletionStage<R> apply(T requestParameter, D dynamicContext) {
+        return applyFrom(0, requestParameter, dynamicContext);
+    }
+
+    @SuppressWarnings("unchecked")
+    private CompletionStage<R> applyFrom(int from, T requestParameter, D dynamicContext) {
+        final IAsyncLogicHandler<T, D, R>[] handlers = this.handlers;
+        final MetricsRecorder recorder = Metrics.recorder();
+        for (int i = from; i < handlers.length; i++) {
+            if (dynamicContext.isDeadlineExceeded()) {
+                return ChainDeadline.exceededAsync(name, handlers[i], deadlineFallback, requestParameter, dynamicContext);
+            }
+            CompletionStage<R> stage;
+            try {
+                stage = null == recorder
+                        ? handlers[i].apply(requestParameter, dynamicContext)
+                        : ChainMetrics.applyAsync(recorder, name, handlers[i], requestParameter, dynamicContext);
+            } catch (Throwable e) {
+                CompletableFuture<R> failed = new CompletableFuture<>();
+                failed.completeExceptionally(e);
+                return failed;
+            }
+            if (stage instanceof CompletableFuture && ((CompletableFuture<R>) stage).isDone()) {
+                // 同步快路径：已完成的阶段直接判断，无需挂接回调
+                if (((CompletableFuture<R>) stage).isCompletedExceptionally() || !dynamicContext.isProceed()) return stage;
+                continue;
+            }
+            final int next = i + 1;
+            return stage.thenCompose(apply -> dynamicContext.isProceed()
+                    ? applyFrom(next, requestParameter, dynamicContext)
+                    : CompletableFuture.completedFuture(apply));
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 获取请求超过截止时间时执行的降级处理器。
+     *
+     * @return 降级处理器，可能为 {@code null}
+     */
+    public IAsyncLogicHandler<T, D, R> getDeadlineFallback() {
+        return deadlineFallback;
+    }
+
+    /**
+     * 设置请求超过截止时间时执行的降级处理器，执行后链路中断。
+     *
+     * @param deadlineFallback 降级处理器，为 {@code null} 时超时直接以 {@code null} 完成
+     */
+    public void setDeadlineFallback(IAsyncLogicHandler<T, D, R> deadlineFallback) {
+        this.deadlineFallback = deadlineFallback;
+    }
+
+    /**
+     * 获取链路名称。
+     *
+     * @return 链路名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取链路中的处理器数量。
+     *
+     * @return 处理器数量
+     */
+    public int size() {
+        return handlers.length;
+    }
+
+}
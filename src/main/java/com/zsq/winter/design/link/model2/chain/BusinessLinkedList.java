@@ -3,6 +3,11 @@ package com.zsq.winter.design.link.model2.chain;
 
 import com.zsq.winter.design.link.model2.DynamicContext;
 import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+import com.zsq.winter.design.metrics.Metrics;
+import com.zsq.winter.design.metrics.MetricsRecorder;
+
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * 面向业务的链表结构，节点类型为 {@link ILogicHandler}，并可作为一个整体参与链式处理。
@@ -12,6 +17,11 @@ import com.zsq.winter.design.link.model2.handler.ILogicHandler;
  */
 public class BusinessLinkedList<T, D extends DynamicContext, R> extends LinkedList<ILogicHandler<T, D, R>> implements ILogicHandler<T, D, R>{
 
+    /**
+     * 请求超过截止时间时执行的降级处理器，为 {@code null} 时直接返回 {@code null}。
+     */
+    private ILogicHandler<T, D, R> deadlineFallback;
+
     /**
      * 使用链路名称进行构造。
      *
@@ -32,25 +42,134 @@ public class BusinessLinkedList<T, D extends DynamicContext, R> extends LinkedLi
      *   <li>否则继续遍历下一个节点，直到遍历完成</li>
      * </ol>
      *
+     * <p>上下文设置了截止时间时，每个处理器执行前检查剩余预算；已超时则跳过剩余处理器，
+     * 返回 {@link #setDeadlineFallback(ILogicHandler) 降级处理器} 的结果并中断链路。</p>
+     *
+     * <p>开启指标（{@link Metrics}）时，每个处理器的耗时及放行/中断/异常次数都会被记录。</p>
+     *
      * @param requestParameter 请求参数
      * @param dynamicContext   动态上下文
-     * @return 若中途停止，返回停止时的结果；若全部处理完且未中断，返回 {@code null}
+     * @return 若中途停止，返回停止时的结果；若全部处理完且未中断（或链表为空），返回 {@code null}
      * @throws Exception 处理过程中可能抛出的异常
      */
     @Override
     public R apply(T requestParameter, D dynamicContext) throws Exception {
+        MetricsRecorder recorder = Metrics.recorder();
+        if (null != recorder) return applyRecorded(recorder, requestParameter, dynamicContext);
+
         Node<ILogicHandler<T, D, R>> current = this.first;
-        do {
+        while (null != current) {
             ILogicHandler<T, D, R> item = current.item;
+            if (dynamicContext.isDeadlineExceeded()) {
+                return ChainDeadline.exceeded(getName(), item, deadlineFallback, requestParameter, dynamicContext);
+            }
             R apply = item.apply(requestParameter, dynamicContext);
             // 上下文控制：若要求停止继续处理，则返回当前结果
             if (!dynamicContext.isProceed()) return apply;
 
             current = current.next;
-        } while (null != current);
+        }
 
         // 全部节点执行完成且未中断，返回空结果（根据业务自行约定）
         return null;
     }
 
+    /**
+     * 开启指标时的执行路径：链路整体与每个节点分别回调记录器。
+     */
+    private R applyRecorded(MetricsRecorder recorder, T requestParameter, D dynamicContext) throws Exception {
+        long start = ChainMetrics.enterChain(recorder, getName(), this);
+        try {
+            Node<ILogicHandler<T, D, R>> current = this.first;
+            R apply = null;
+            while (null != current) {
+                ILogicHandler<T, D, R> item = current.item;
+                if (dynamicContext.isDeadlineExceeded()) {
+                    apply = ChainDeadline.exceeded(getName(), item, deadlineFallback, requestParameter, dynamicContext);
+                    break;
+                }
+                apply = ChainMetrics.apply(recorder, getName(), item, requestParameter, dynamicContext);
+                if (!dynamicContext.isProceed()) break;
+                current = current.next;
+            }
+            ChainMetrics.exitChain(recorder, getName(), this, start, dynamicContext);
+            return dynamicContext.isProceed() ? null : apply;
+        } catch (Throwable e) {
+            ChainMetrics.exitChain(recorder, getName(), this, start, null);
+            throw e;
+        }
+    }
+
+    /**
+     * 把一组互不依赖的处理器作为一个 {@link ParallelLogicGroup} 加入链表尾部：组内并发执行，结束后链路继续顺序执行。
+     *
+     * @param logicHandlers 组内处理器，按参数顺序决定停止时的结果；组只保存其副本
+     * @return 加入的并行处理器组，可用于设置线程池
+     */
+    @SafeVarargs
+    @SuppressWarnings("varargs")
+    public final ParallelLogicGroup<T, D, R> addParallel(ILogicHandler<T, D, R>... logicHandlers) {
+        ParallelLogicGroup<T, D, R> group = new ParallelLogicGroup<>(getName() + "#parallel", Arrays.asList(logicHandlers));
+        add(group);
+        return group;
+    }
+
+    /**
+     * 批量执行链路：逐个处理器推进，每个阶段只处理仍在执行的元素。
+     *
+     * <ul>
+     *   <li>实现了 {@link com.zsq.winter.design.link.model2.handler.IBatchLogicHandler} 的处理器一次接收整批元素，其余处理器逐个调用；</li>
+     *   <li>元素的上下文在某个阶段后变为停止状态时，记录该阶段的结果并在后续阶段剔除；</li>
+     *   <li>上下文设置了截止时间时，每个阶段执行前检查剩余预算，已超时的元素以降级处理器的结果结束并在后续阶段剔除；</li>
+     *   <li>任一处理器抛出异常时整批失败；批量路径不采集节点指标。</li>
+     * </ul>
+     *
+     * @param requestParameters 请求参数列表，建议使用支持随机访问的列表
+     * @param dynamicContexts   与请求一一对应的动态上下文列表
+     * @return 与请求一一对应的结果：中途停止的元素为停止时的结果，执行到底的元素为 {@code null}
+     * @throws Exception 处理过程中可能抛出的异常
+     */
+    public List<R> applyBatch(List<T> requestParameters, List<D> dynamicContexts) throws Exception {
+        ChainBatch<T, D, R> batch = new ChainBatch<>(getName(), deadlineFallback, requestParameters, dynamicContexts);
+        for (Node<ILogicHandler<T, D, R>> current = this.first; null != current && batch.hasActive(); current = current.next) {
+            batch.stage(current.item, true);
+        }
+        return batch.results();
+    }
+
+    /**
+     * 将当前链表冻结为不可变、基于数组的执行器。
+     *
+     * <p>适用于链路装配完成后不再变更、且对吞吐敏感的场景。编译结果是当前时刻的快照，
+     * 之后对本链表的增删不会反映到已编译的执行器中，需要时重新编译即可。</p>
+     *
+     * @return 编译后的链路执行器
+     */
+    public CompiledLogicChain<T, D, R> compile() {
+        ILogicHandler<T, D, R>[] handlers = CompiledLogicChain.newArray(size);
+        int i = 0;
+        for (Node<ILogicHandler<T, D, R>> x = first; x != null; x = x.next) {
+            handlers[i++] = x.item;
+        }
+        return new CompiledLogicChain<>(getName(), handlers, deadlineFallback);
+    }
+
+    /**
+     * 获取请求超过截止时间时执行的降级处理器。
+     *
+     * @return 降级处理器，可能为 {@code null}
+     */
+    public ILogicHandler<T, D, R> getDeadlineFallback() {
+        return deadlineFallback;
+    }
+
+    /**
+     * 设置请求超过截止时间时执行的降级处理器；编译后的执行器沿用编译时的设置。
+     *
+     * @param deadlineFallback 降级处理器，为 {@code null} 时超时直接返回 {@code null}
+     */
+    public void setDeadlineFallback(ILogicHandler<T, D, R> deadlineFallback) {
+        this.deadlineFallback = deadlineFallback;
+    }
+
 }
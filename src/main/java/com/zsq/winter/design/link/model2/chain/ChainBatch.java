@@ -0,0 +1,160 @@
+package com.zsq.winter.design.link.model2.chain;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.handler.IBatchLogicHandler;
+import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 链路批量执行的状态：记录仍在执行的元素下标，逐阶段推进，已停止或已超时的元素在后续阶段被剔除。
+ */
+final class ChainBatch<T, D extends DynamicContext, R> {
+
+    private final String chainName;
+
+    private final ILogicHandler<T, D, R> deadlineFallback;
+
+    private final List<T> requestParameters;
+
+    private final List<D> dynamicContexts;
+
+    private final Object[] results;
+
+    /**
+     * 仍在执行的元素下标，前 {@link #active} 个有效。
+     */
+    private final int[] indexes;
+
+    private int active;
+
+    ChainBatch(String chainName, ILogicHandler<T, D, R> deadlineFallback, List<T> requestParameters, List<D> dynamicContexts) {
+        if (requestParameters.size() != dynamicContexts.size()) {
+            throw new IllegalArgumentException("请求与上下文数量不一致，requests=" + requestParameters.size() + ", contexts=" + dynamicContexts.size());
+        }
+        this.chainName = chainName;
+        this.deadlineFallback = deadlineFallback;
+        this.requestParameters = requestParameters;
+        this.dynamicContexts = dynamicContexts;
+        this.results = new Object[requestParameters.size()];
+        this.indexes = new int[requestParameters.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = i;
+        }
+        this.active = indexes.length;
+    }
+
+    /**
+     * 是否还有仍在执行的元素。
+     */
+    boolean hasActive() {
+        return active > 0;
+    }
+
+    /**
+     * 以一个处理器执行当前阶段，执行前先剔除已超时的元素。
+     *
+     * @param handler      处理器
+     * @param proceedCheck 是否在执行后按上下文剔除已停止的元素
+     * @throws Exception 处理器或降级处理器抛出的异常
+     */
+    void stage(ILogicHandler<T, D, R> handler, boolean proceedCheck) throws Exception {
+        expire(handler);
+        if (active == 0) return;
+        if (handler instanceof IBatchLogicHandler) {
+            List<R> batchResults = ((IBatchLogicHandler<T, D, R>) handler).applyBatch(view(requestParameters), view(dynamicContexts));
+            if (null == batchResults || batchResults.size() != active) {
+                throw new IllegalStateException("批量处理结果数量与请求不一致，handler=" + handler.getClass().getName());
+            }
+            if (!proceedCheck) return;
+            int kept = 0;
+            for (int k = 0; k < active; k++) {
+                int index = indexes[k];
+                if (dynamicContexts.get(index).isProceed()) {
+                    indexes[kept++] = index;
+                } else {
+                    results[index] = batchResults.get(k);
+                }
+            }
+            active = kept;
+            return;
+        }
+        int kept = 0;
+        for (int k = 0; k < active; k++) {
+            int index = indexes[k];
+            D dynamicContext = dynamicContexts.get(index);
+            R apply = handler.apply(requestParameters.get(index), dynamicContext);
+            if (!proceedCheck || dynamicContext.isProceed()) {
+                indexes[kept++] = index;
+            } else {
+                results[index] = apply;
+            }
+        }
+        active = kept;
+    }
+
+    /**
+     * 剔除上下文已超时的元素：记录超时事件，以降级处理器的结果结束该元素。
+     *
+     * @param skipped 因超时被跳过的处理器
+     */
+    private void expire(ILogicHandler<T, D, R> skipped) throws Exception {
+        int kept = 0;
+        for (int k = 0; k < active; k++) {
+            int index = indexes[k];
+            D dynamicContext = dynamicContexts.get(index);
+            if (dynamicContext.isDeadlineExceeded()) {
+                results[index] = ChainDeadline.exceeded(chainName, skipped, deadlineFallback, requestParameters.get(index), dynamicContext);
+            } else {
+                indexes[kept++] = index;
+            }
+        }
+        active = kept;
+    }
+
+    /**
+     * 获取全部元素的结果：已停止的元素为停止时的结果，执行到底的元素为 {@code null}。
+     */
+    @SuppressWarnings("unchecked")
+    List<R> results() {
+        return (List<R>) Arrays.asList(results);
+    }
+
+    private <E> List<E> view(List<E> source) {
+        return active == indexes.length ? source : new ActiveView<>(source, indexes, active);
+    }
+
+    /**
+     * 仍在执行的元素组成的只读视图，避免每个阶段复制列表。
+     */
+    private static final class ActiveView<E> extends AbstractList<E> implements RandomAccess {
+
+        private final List<E> source;
+
+        private final int[] indexes;
+
+        private final int size;
+
+        ActiveView(List<E> source, int[] indexes, int size) {
+            this.source = source;
+            this.indexes = indexes;
+            this.size = size;
+        }
+
+        @Override
+        public E get(int index) {
+            if (index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            return source.get(indexes[index]);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+    }
+
+}
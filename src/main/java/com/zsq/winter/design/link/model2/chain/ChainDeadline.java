@@ -0,0 +1,62 @@
+package com.zsq.winter.design.link.model2.chain;
+
+import com.zsq.winter.design.deadline.Deadlines;
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.handler.IAsyncLogicHandler;
+import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 链路执行器的截止时间处理，仅在请求已超时时进入。
+ */
+final class ChainDeadline {
+
+    private ChainDeadline() {}
+
+    /**
+     * 请求已超时：记录超时事件，执行降级处理器并中断链路。
+     *
+     * @param chainName        链路名称
+     * @param skipped          因超时被跳过的处理器
+     * @param fallback         降级处理器，为 {@code null} 时直接返回 {@code null}
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文，返回时处于停止状态
+     * @return 降级处理器的结果
+     * @throws Exception 降级处理器抛出的异常
+     */
+    static <T, D extends DynamicContext, R> R exceeded(String chainName, ILogicHandler<T, D, R> skipped, ILogicHandler<T, D, R> fallback,
+                                                       T requestParameter, D dynamicContext) throws Exception {
+        Deadlines.recordExceeded(chainName, skipped);
+        R result = null == fallback ? null : fallback.apply(requestParameter, dynamicContext);
+        dynamicContext.setProceed(false);
+        return result;
+    }
+
+    /**
+     * 异步链路的请求已超时：记录超时事件，执行降级处理器，并在其完成后中断链路。
+     *
+     * @param chainName        链路名称
+     * @param skipped          因超时被跳过的处理器
+     * @param fallback         降级处理器，为 {@code null} 时直接以 {@code null} 完成
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文，完成时处于停止状态
+     * @return 降级处理器的结果；降级处理器抛出异常时以该异常完成
+     */
+    static <T, D extends DynamicContext, R> CompletionStage<R> exceededAsync(String chainName, IAsyncLogicHandler<T, D, R> skipped,
+                                                                            IAsyncLogicHandler<T, D, R> fallback,
+                                                                            T requestParameter, D dynamicContext) {
+        Deadlines.recordExceeded(chainName, skipped);
+        CompletionStage<R> stage;
+        try {
+            stage = null == fallback ? CompletableFuture.completedFuture(null) : fallback.apply(requestParameter, dynamicContext);
+        } catch (Throwable e) {
+            CompletableFuture<R> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            stage = failed;
+        }
+        return stage.whenComplete((result, e) -> dynamicContext.setProceed(false));
+    }
+
+}
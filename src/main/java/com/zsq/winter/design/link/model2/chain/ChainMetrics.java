@@ -0,0 +1,94 @@
+package com.zsq.winter.design.link.model2.chain;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.handler.IAsyncLogicHandler;
+import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+import com.zsq.winter.design.metrics.MetricsRecorder;
+import com.zsq.winter.design.metrics.NodeOutcome;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 链路执行器的指标采集辅助方法，仅在指标开启时进入。
+ */
+final class ChainMetrics {
+
+    private ChainMetrics() {}
+
+    /**
+     * 执行单个处理器并记录耗时与结果：执行后上下文仍为放行状态记为 {@code NEXT}，否则记为 {@code STOP}。
+     *
+     * @param recorder         指标记录器
+     * @param chainName        链路名称
+     * @param handler          处理器
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 处理器的执行结果
+     * @throws Exception 处理器抛出的异常，记录后原样抛出
+     */
+    static <T, D extends DynamicContext, R> R apply(MetricsRecorder recorder, String chainName, ILogicHandler<T, D, R> handler,
+                                                    T requestParameter, D dynamicContext) throws Exception {
+        recorder.enter(chainName, handler);
+        long start = System.nanoTime();
+        try {
+            R apply = handler.apply(requestParameter, dynamicContext);
+            recorder.record(chainName, handler, System.nanoTime() - start, dynamicContext.isProceed() ? NodeOutcome.NEXT : NodeOutcome.STOP);
+            return apply;
+        } catch (Throwable e) {
+            recorder.record(chainName, handler, System.nanoTime() - start, NodeOutcome.ERROR);
+            throw e;
+        }
+    }
+
+    /**
+     * 链路整体开始执行。
+     *
+     * @param recorder  指标记录器
+     * @param chainName 链路名称
+     * @param chain     链路实例
+     * @return 开始时刻（纳秒），传给 {@link #exitChain}
+     */
+    static long enterChain(MetricsRecorder recorder, String chainName, Object chain) {
+        recorder.enter(chainName, chain);
+        return System.nanoTime();
+    }
+
+    /**
+     * 链路整体执行结束：上下文仍为放行状态记为 {@code NEXT}，否则记为 {@code STOP}；异常时记为 {@code ERROR}。
+     *
+     * @param recorder       指标记录器
+     * @param chainName      链路名称
+     * @param chain          链路实例
+     * @param start          {@link #enterChain} 返回的开始时刻
+     * @param dynamicContext 动态上下文，异常时传 {@code null}
+     */
+    static void exitChain(MetricsRecorder recorder, String chainName, Object chain, long start, DynamicContext dynamicContext) {
+        NodeOutcome outcome = null == dynamicContext ? NodeOutcome.ERROR : dynamicContext.isProceed() ? NodeOutcome.NEXT : NodeOutcome.STOP;
+        recorder.exit(chainName, chain, System.nanoTime() - start, outcome);
+    }
+
+    /**
+     * 执行单个异步处理器，在阶段完成时记录耗时与结果；已完成的阶段包装后仍为已完成状态。
+     *
+     * @param recorder         指标记录器
+     * @param chainName        链路名称
+     * @param handler          异步处理器
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 记录指标后的异步阶段
+     */
+    static <T, D extends DynamicContext, R> CompletionStage<R> applyAsync(MetricsRecorder recorder, String chainName, IAsyncLogicHandler<T, D, R> handler,
+                                                                        T requestParameter, D dynamicContext) {
+        long start = System.nanoTime();
+        CompletionStage<R> stage;
+        try {
+            stage = handler.apply(requestParameter, dynamicContext);
+        } catch (Throwable e) {
+            recorder.record(chainName, handler, System.nanoTime() - start, NodeOutcome.ERROR);
+            throw e;
+        }
+        return stage.whenComplete((apply, e) -> recorder.record(chainName, handler, System.nanoTime() - start,
+                null != e ? NodeOutcome.ERROR : dynamicContext.isProceed() ? NodeOutcome.NEXT : NodeOutcome.STOP));
+    }
+
+}
@@ -0,0 +1,176 @@
+package com.zsq.winter.design.link.model2.chain;
+
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+import com.zsq.winter.design.link.model2.handler.IProceedLogicHandler;
+import com.zsq.winter.design.metrics.Metrics;
+import com.zsq.winter.design.metrics.MetricsRecorder;
+
+import java.util.List;
+
+/**
+ * 编译（冻结）后的业务链路：不可变、基于数组的链路执行器。
+ *
+ * <p>由 {@link BusinessLinkedList#compile()} 或 {@link com.zsq.winter.design.link.model2.LinkArmory#compile()} 生成。
+ * 与逐个节点遍历的 {@link BusinessLinkedList} 相比：</p>
+ * <ul>
+ *   <li>处理器保存在定长数组中，以下标循环执行，无节点指针跳转；</li>
+ *   <li>实现了 {@link IProceedLogicHandler} 的节点之后不再检查 {@code isProceed()}，连续的放行节点被融合为一段；</li>
+ *   <li>空链路直接返回 {@code null}，不会出现空指针。</li>
+ * </ul>
+ *
+ * <p>上下文设置了截止时间时，每个处理器执行前检查剩余预算，已超时则返回降级处理器的结果并中断链路。</p>
+ *
+ * <p>编译结果与源链表相互独立，源链表后续的增删不会影响已编译的执行器；实例不可变，可被多线程共享。</p>
+ */
+public final class CompiledLogicChain<T, D extends DynamicContext, R> implements ILogicHandler<T, D, R> {
+
+    /**
+     * 链路名称，沿用源链表名称。
+     */
+    private final String name;
+
+    /**
+     * 按执行顺序排列的处理器。
+     */
+    final ILogicHandler<T, D, R>[] handlers;
+
+    /**
+     * 与 {@link #handlers} 一一对应：执行完该下标节点后是否需要检查 {@code isProceed()}。
+     */
+    private final boolean[] proceedChecks;
+
+    /**
+     * 请求超过截止时间时执行的降级处理器，可能为 {@code null}。
+     */
+    final ILogicHandler<T, D, R> deadlineFallback;
+
+    /**
+     * 使用处理器数组构造；数组由调用方移交，不再修改。
+     *
+     * @param name             链路名称
+     * @param handlers         处理器数组
+     * @param deadlineFallback 超时降级处理器，可为 {@code null}
+     */
+    CompiledLogicChain(String name, ILogicHandler<T, D, R>[] handlers, ILogicHandler<T, D, R> deadlineFallback) {
+        this.name = name;
+        this.handlers = handlers;
+        this.deadlineFallback = deadlineFallback;
+        this.proceedChecks = new boolean[handlers.length];
+        for (int i = 0; i < handlers.length; i++) {
+            proceedChecks[i] = !(handlers[i] instanceof IProceedLogicHandler);
+        }
+    }
+
+    /**
+     * 依次执行数组中的处理器，直到执行完毕或上下文要求停止。
+     *
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 若中途停止，返回停止时的结果；若全部处理完且未中断，返回 {@code null}
+     * @throws Exception 处理过程中可能抛出的异常
+     */
+    @Override
+    public R apply(T requestParameter, D dynamicContext) throws Exception {
+        MetricsRecorder recorder = Metrics.recorder();
+        if (null != recorder) return applyRecorded(recorder, requestParameter, dynamicContext);
+
+        final ILogicHandler<T, D, R>[] handlers = this.handlers;
+        final boolean[] proceedChecks = this.proceedChecks;
+        for (int i = 0; i < handlers.length; i++) {
+            if (dynamicContext.isDeadlineExceeded()) {
+                return ChainDeadline.exceeded(name, handlers[i], deadlineFallback, requestParameter, dynamicContext);
+            }
+            R apply = handlers[i].apply(requestParameter, dynamicContext);
+            // 放行节点已融合，仅在需要的位置检查上下文
+            if (proceedChecks[i] && !dynamicContext.isProceed()) return apply;
+        }
+        return null;
+    }
+
+    /**
+     * 开启指标时的执行路径：链路整体与每个节点分别回调记录器，逐个节点记录耗时与放行/中断/异常结果。
+     */
+    private R applyRecorded(MetricsRecorder recorder, T requestParameter, D dynamicContext) throws Exception {
+        final ILogicHandler<T, D, R>[] handlers = this.handlers;
+        long start = ChainMetrics.enterChain(recorder, name, this);
+        try {
+            R apply = null;
+            for (int i = 0; i < handlers.length; i++) {
+                if (dynamicContext.isDeadlineExceeded()) {
+                    apply = ChainDeadline.exceeded(name, handlers[i], deadlineFallback, requestParameter, dynamicContext);
+                    break;
+                }
+                apply = ChainMetrics.apply(recorder, name, handlers[i], requestParameter, dynamicContext);
+                if (proceedChecks[i] && !dynamicContext.isProceed()) break;
+            }
+            ChainMetrics.exitChain(recorder, name, this, start, dynamicContext);
+            return dynamicContext.isProceed() ? null : apply;
+        } catch (Throwable e) {
+            ChainMetrics.exitChain(recorder, name, this, start, null);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量执行链路：逐个处理器推进，放行节点之后不检查上下文，每个阶段只处理仍在执行的元素。
+     *
+     * <ul>
+     *   <li>实现了 {@link com.zsq.winter.design.link.model2.handler.IBatchLogicHandler} 的处理器一次接收整批元素，其余处理器逐个调用；</li>
+     *   <li>元素的上下文在某个阶段后变为停止状态时，记录该阶段的结果并在后续阶段剔除；</li>
+     *   <li>上下文设置了截止时间时，每个阶段执行前检查剩余预算，已超时的元素以降级处理器的结果结束并在后续阶段剔除；</li>
+     *   <li>任一处理器抛出异常时整批失败；批量路径不采集节点指标。</li>
+     * </ul>
+     *
+     * @param requestParameters 请求参数列表，建议使用支持随机访问的列表
+     * @param dynamicContexts   与请求一一对应的动态上下文列表
+     * @return 与请求一一对应的结果：中途停止的元素为停止时的结果，执行到底的元素为 {@code null}
+     * @throws Exception 处理过程中可能抛出的异常
+     */
+    public List<R> applyBatch(List<T> requestParameters, List<D> dynamicContexts) throws Exception {
+        final ILogicHandler<T, D, R>[] handlers = this.handlers;
+        ChainBatch<T, D, R> batch = new ChainBatch<>(name, deadlineFallback, requestParameters, dynamicContexts);
+        for (int i = 0; i < handlers.length && batch.hasActive(); i++) {
+            batch.stage(handlers[i], proceedChecks[i]);
+        }
+        return batch.results();
+    }
+
+    /**
+     * 获取链路名称。
+     *
+     * @return 链路名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取链路中的处理器数量。
+     *
+     * @return 处理器数量
+     */
+    public int size() {
+        return handlers.length;
+    }
+
+    /**
+     * 按索引获取处理器。
+     *
+     * @param index 索引（0 基）
+     * @return 对应位置的处理器
+     */
+    public ILogicHandler<T, D, R> get(int index) {
+        return handlers[index];
+    }
+
+    /**
+     * 创建指定长度的处理器数组。
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T, D extends DynamicContext, R> ILogicHandler<T, D, R>[] newArray(int length) {
+        return new ILogicHandler[length];
+    }
+
+}
@@ -0,0 +1,260 @@
+package com.zsq.winter.design.link.model2.chain;
+
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * 线程安全、支持热更新的业务链表（写时复制）。
+ *
+ * <p>与 {@link BusinessLinkedList} 的区别：</p>
+ * <ul>
+ *   <li>链路内容保存在一个不可变的 {@link CompiledLogicChain} 快照中，读者通过一次 volatile 读获取快照后执行，全程无锁、不阻塞；</li>
+ *   <li>写者基于当前快照复制出新版本，并通过 CAS 原子发布，写者之间也不使用锁，冲突时重试；</li>
+ *   <li>已开始执行的请求始终使用开始时的快照，不会因并发增删而丢失处理器或提前结束。</li>
+ * </ul>
+ *
+ * <p>适用于生产环境中需要在满负载下替换规则处理器的场景；写操作的开销与链路长度成正比，应远少于读操作。</p>
+ */
+public class ConcurrentBusinessLinkedList<T, D extends DynamicContext, R> implements ILink<ILogicHandler<T, D, R>>, ILogicHandler<T, D, R> {
+
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<ConcurrentBusinessLinkedList, CompiledLogicChain> SNAPSHOT =
+            AtomicReferenceFieldUpdater.newUpdater(ConcurrentBusinessLinkedList.class, CompiledLogicChain.class, "snapshot");
+
+    /**
+     * 责任链名称
+     */
+    private final String name;
+
+    /**
+     * 当前生效的链路快照，只会整体替换，不会原地修改。
+     */
+    private volatile CompiledLogicChain<T, D, R> snapshot;
+
+    /**
+     * 使用链路名称与初始处理器进行构造。
+     *
+     * @param name          链表名称，用于标识与日志等
+     * @param logicHandlers 初始处理器，按参数顺序加入链表
+     */
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public ConcurrentBusinessLinkedList(String name, ILogicHandler<T, D, R>... logicHandlers) {
+        this.name = name;
+        this.snapshot = new CompiledLogicChain<>(name, Arrays.copyOf(logicHandlers, logicHandlers.length, ILogicHandler[].class), null);
+    }
+
+    /**
+     * 使用当前快照执行链路。
+     *
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 若中途停止，返回停止时的结果；若全部处理完且未中断，返回 {@code null}
+     * @throws Exception 处理过程中可能抛出的异常
+     */
+    @Override
+    public R apply(T requestParameter, D dynamicContext) throws Exception {
+        return snapshot.apply(requestParameter, dynamicContext);
+    }
+
+    /**
+     * 使用当前快照批量执行链路。
+     *
+     * @param requestParameters 请求参数列表
+     * @param dynamicContexts   与请求一一对应的动态上下文列表
+     * @return 与请求一一对应的结果
+     * @throws Exception 处理过程中可能抛出的异常
+     * @see CompiledLogicChain#applyBatch(List, List)
+     */
+    public List<R> applyBatch(List<T> requestParameters, List<D> dynamicContexts) throws Exception {
+        return snapshot.applyBatch(requestParameters, dynamicContexts);
+    }
+
+    /**
+     * 获取当前生效的不可变快照，可在同一请求内多次使用以保证一致性。
+     *
+     * @return 当前链路快照
+     */
+    public CompiledLogicChain<T, D, R> snapshot() {
+        return snapshot;
+    }
+
+    /**
+     * 在尾部添加处理器。
+     */
+    @Override
+    public boolean add(ILogicHandler<T, D, R> e) {
+        return addLast(e);
+    }
+
+    /**
+     * 在头部添加处理器。
+     */
+    @Override
+    public boolean addFirst(ILogicHandler<T, D, R> e) {
+        CompiledLogicChain<T, D, R> current;
+        ILogicHandler<T, D, R>[] updated;
+        do {
+            current = snapshot;
+            ILogicHandler<T, D, R>[] handlers = current.handlers;
+            updated = CompiledLogicChain.newArray(handlers.length + 1);
+            updated[0] = e;
+            System.arraycopy(handlers, 0, updated, 1, handlers.length);
+        } while (!publish(current, updated));
+        return true;
+    }
+
+    /**
+     * 在尾部添加处理器。
+     */
+    @Override
+    public boolean addLast(ILogicHandler<T, D, R> e) {
+        CompiledLogicChain<T, D, R> current;
+        ILogicHandler<T, D, R>[] updated;
+        do {
+            current = snapshot;
+            ILogicHandler<T, D, R>[] handlers = current.handlers;
+            updated = Arrays.copyOf(handlers, handlers.length + 1);
+            updated[handlers.length] = e;
+        } while (!publish(current, updated));
+        return true;
+    }
+
+    /**
+     * 移除链表中的指定处理器（匹配到第一个即移除）。
+     */
+    @Override
+    public boolean remove(Object o) {
+        CompiledLogicChain<T, D, R> current;
+        ILogicHandler<T, D, R>[] updated;
+        do {
+            current = snapshot;
+            ILogicHandler<T, D, R>[] handlers = current.handlers;
+            int index = indexOf(handlers, o);
+            if (index < 0) return false;
+            updated = CompiledLogicChain.newArray(handlers.length - 1);
+            System.arraycopy(handlers, 0, updated, 0, index);
+            System.arraycopy(handlers, index + 1, updated, index, handlers.length - index - 1);
+        } while (!publish(current, updated));
+        return true;
+    }
+
+    /**
+     * 原子地将指定处理器替换为新的处理器，位置保持不变。
+     *
+     * @param oldHandler 被替换的处理器（按 {@code equals} 匹配第一个）
+     * @param newHandler 新处理器
+     * @return 是否找到并替换成功
+     */
+    public boolean replace(ILogicHandler<T, D, R> oldHandler, ILogicHandler<T, D, R> newHandler) {
+        CompiledLogicChain<T, D, R> current;
+        ILogicHandler<T, D, R>[] updated;
+        do {
+            current = snapshot;
+            ILogicHandler<T, D, R>[] handlers = current.handlers;
+            int index = indexOf(handlers, oldHandler);
+            if (index < 0) return false;
+            updated = handlers.clone();
+            updated[index] = newHandler;
+        } while (!publish(current, updated));
+        return true;
+    }
+
+    /**
+     * 原子地以一组新的处理器整体替换当前链路。
+     *
+     * @param logicHandlers 新的处理器集合，集合顺序即执行顺序
+     */
+    public void replaceAll(Collection<? extends ILogicHandler<T, D, R>> logicHandlers) {
+        ILogicHandler<T, D, R>[] updated = logicHandlers.toArray(CompiledLogicChain.newArray(0));
+        CompiledLogicChain<T, D, R> current;
+        do {
+            current = snapshot;
+        } while (!publish(current, updated));
+    }
+
+    /**
+     * 原子地替换请求超过截止时间时执行的降级处理器，处理器列表保持不变。
+     *
+     * @param deadlineFallback 降级处理器，为 {@code null} 时超时直接返回 {@code null}
+     */
+    public void setDeadlineFallback(ILogicHandler<T, D, R> deadlineFallback) {
+        CompiledLogicChain<T, D, R> current;
+        do {
+            current = snapshot;
+        } while (!SNAPSHOT.compareAndSet(this, current, new CompiledLogicChain<>(name, current.handlers, deadlineFallback)));
+    }
+
+    /**
+     * 获取请求超过截止时间时执行的降级处理器。
+     *
+     * @return 降级处理器，可能为 {@code null}
+     */
+    public ILogicHandler<T, D, R> getDeadlineFallback() {
+        return snapshot.deadlineFallback;
+    }
+
+    /**
+     * 按索引获取当前快照中的处理器。
+     */
+    @Override
+    public ILogicHandler<T, D, R> get(int index) {
+        return snapshot.get(index);
+    }
+
+    /**
+     * 获取当前快照中的处理器数量。
+     *
+     * @return 处理器数量
+     */
+    public int size() {
+        return snapshot.size();
+    }
+
+    /**
+     * 打印当前快照的头尾节点与整体元素顺序。
+     */
+    @Override
+    public void printLinkList() {
+        ILogicHandler<T, D, R>[] handlers = snapshot.handlers;
+        if (handlers.length == 0) {
+            System.out.println("链表为空");
+        } else {
+            System.out.print("目前的列表，头节点：" + handlers[0] + " 尾节点：" + handlers[handlers.length - 1] + " 整体：");
+            for (ILogicHandler<T, D, R> handler : handlers) {
+                System.out.print(handler + "，");
+            }
+            System.out.println();
+        }
+    }
+
+    /**
+     * 获取链表名称。
+     *
+     * @return 链表名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 以 CAS 发布新版本，沿用当前的降级处理器；期间若有其他写者先行发布则返回 {@code false} 由调用方重试。
+     */
+    private boolean publish(CompiledLogicChain<T, D, R> expect, ILogicHandler<T, D, R>[] handlers) {
+        return SNAPSHOT.compareAndSet(this, expect, new CompiledLogicChain<>(name, handlers, expect.deadlineFallback));
+    }
+
+    private static int indexOf(Object[] handlers, Object o) {
+        for (int i = 0; i < handlers.length; i++) {
+            if (o == null ? handlers[i] == null : o.equals(handlers[i])) return i;
+        }
+        return -1;
+    }
+
+}
@@ -6,6 +6,9 @@ package com.zsq.winter.design.link.model2.chain;
  *
  * <p>提供基本的插入、删除、查询以及打印操作，
  * 并维护头尾节点与大小等状态。</p>
+ *
+ * <p>线程安全：本类未做任何并发保护，链路应在启动阶段装配完成；
+ * 如需在请求执行期间增删处理器，请使用 {@link ConcurrentBusinessLinkedList}。</p>
  */
 public class LinkedList<E> implements ILink<E> {
 
@@ -0,0 +1,217 @@
+package com.zsq.winter.design.link.model2.chain;
+
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+import com.zsq.winter.design.tree.AsyncExecutors;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * 并行处理器组：链路中一段互不依赖的连续处理器并发执行，全部结束后链路继续顺序向后执行。
+ *
+ * <p>组本身是一个 {@link ILogicHandler}，可通过 {@link BusinessLinkedList#addParallel(ILogicHandler[])} 加入链路，
+ * 也可直接放入 {@link ConcurrentBusinessLinkedList} 或编译后的链路。</p>
+ *
+ * <ul>
+ *   <li>每个成员在自己的上下文副本（{@link DynamicContext#fork()}）上执行，成员之间互相看不到对方的写入，执行期间不共享可变状态；</li>
+ *   <li>调用线程按成员顺序等待结果，尚未被线程池取走的成员直接在调用线程上执行；</li>
+ *   <li>结果按成员顺序决定，与完成先后无关：排在最前的停止（{@code stop}）或抛出异常的成员决定组的结果，
+ *   它之前的成员的写入按顺序合并回原上下文，之后的成员被取消，尚未开始的不再执行；</li>
+ *   <li>没有成员停止时，全部成员的写入按顺序合并回原上下文，组返回 {@code null}，链路继续。</li>
+ * </ul>
+ *
+ * <p>因此在成员互不依赖的前提下，组的效果与按顺序执行这些成员相同；排在停止成员之后、已开始执行的成员可能已部分执行，其副作用须可安全放弃。
+ * 开启指标时组作为一个节点记录，成员不单独记录。实例不可变（线程池除外），可被多线程共享。</p>
+ *
+ * <pre>{@code
+ * BusinessLinkedList<Req, DynamicContext, Res> chain = new BusinessLinkedList<>("下单校验");
+ * chain.add(paramCheckHandler);
+ * chain.addParallel(blacklistHandler, quotaHandler, riskHandler);   // 只读取请求、互不依赖
+ * chain.add(createOrderHandler);
+ * }</pre>
+ */
+public final class ParallelLogicGroup<T, D extends DynamicContext, R> implements ILogicHandler<T, D, R> {
+
+    /**
+     * 组名称。
+     */
+    private final String name;
+
+    /**
+     * 按顺序排列的成员。
+     */
+    private final ILogicHandler<T, D, R>[] handlers;
+
+    private final UnaryOperator<D> forker;
+
+    private final BiConsumer<D, D> merger;
+
+    /**
+     * 执行成员的线程池。
+     */
+    private volatile Executor executor = AsyncExecutors.defaultExecutor();
+
+    /**
+     * 使用 {@link DynamicContext#fork()} 与 {@link DynamicContext#merge(DynamicContext)} 隔离成员的上下文。
+     *
+     * <p>{@link DynamicContext}、{@link com.zsq.winter.design.link.model2.context.SlotDynamicContext} 与
+     * {@link com.zsq.winter.design.link.model2.context.ConcurrentDynamicContext} 均可直接使用；
+     * 自定义的上下文子类未覆写 {@code fork()} 时执行会抛出 {@link IllegalStateException}，此时应覆写或使用
+     * {@link #ParallelLogicGroup(String, List, UnaryOperator, BiConsumer)} 指定复制与合并方式。</p>
+     *
+     * @param name     组名称
+     * @param handlers 成员，按顺序决定结果
+     */
+    public ParallelLogicGroup(String name, List<? extends ILogicHandler<T, D, R>> handlers) {
+        this(name, handlers, ParallelLogicGroup::forkOf, DynamicContext::merge);
+    }
+
+    /**
+     * 使用指定的复制与合并方式构造。
+     *
+     * @param name     组名称
+     * @param handlers 成员，按顺序决定结果
+     * @param forker   为成员复制上下文
+     * @param merger   把成员的上下文副本（第二个参数）合并回原上下文（第一个参数），需同时合并是否继续执行
+     */
+    public ParallelLogicGroup(String name, List<? extends ILogicHandler<T, D, R>> handlers, UnaryOperator<D> forker, BiConsumer<D, D> merger) {
+        if (handlers.isEmpty()) throw new IllegalArgumentException("并行处理器组至少需要一个处理器，name=" + name);
+        this.name = name;
+        this.handlers = handlers.toArray(CompiledLogicChain.newArray(0));
+        this.forker = Objects.requireNonNull(forker, "forker must not be null");
+        this.merger = Objects.requireNonNull(merger, "merger must not be null");
+    }
+
+    /**
+     * 并发执行全部成员，按成员顺序决定结果并合并上下文。
+     *
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 排在最前的停止成员的结果；没有成员停止时返回 {@code null}
+     * @throws Exception 排在最前的失败成员抛出的异常
+     */
+    @Override
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public R apply(T requestParameter, D dynamicContext) throws Exception {
+        final int size = handlers.length;
+        // 已停止或失败的成员中最靠前的下标，之后的成员不必再开始
+        final AtomicInteger stopAt = new AtomicInteger(size);
+        Object[] forks = new Object[size];
+        FutureTask<R>[] tasks = new FutureTask[size];
+        for (int i = 0; i < size; i++) {
+            final int index = i;
+            final ILogicHandler<T, D, R> handler = handlers[i];
+            final D fork = forker.apply(dynamicContext);
+            forks[i] = fork;
+            tasks[i] = new FutureTask<>(() -> {
+                if (index > stopAt.get()) return null;
+                boolean stopped = true;
+                try {
+                    R result = handler.apply(requestParameter, fork);
+                    stopped = !fork.isProceed();
+                    return result;
+                } finally {
+                    if (stopped) lowerTo(stopAt, index);
+                }
+            });
+        }
+        // 第一个成员留给调用线程；线程池拒绝的成员在等待时由调用线程执行
+        Executor executor = this.executor;
+        for (int i = 1; i < size; i++) {
+            try {
+                executor.execute(tasks[i]);
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+
+        for (int i = 0; i < size; i++) {
+            FutureTask<R> task = tasks[i];
+            task.run();
+            R result;
+            try {
+                result = task.get();
+            } catch (InterruptedException e) {
+                cancelFrom(tasks, i);
+                throw e;
+            } catch (ExecutionException e) {
+                cancelFrom(tasks, i + 1);
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) throw (Exception) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw e;
+            }
+            D fork = (D) forks[i];
+            merger.accept(dynamicContext, fork);
+            if (!fork.isProceed()) {
+                cancelFrom(tasks, i + 1);
+                return result;
+            }
+        }
+        return null;
+    }
+
+    private static void lowerTo(AtomicInteger stopAt, int index) {
+        int current;
+        while (index < (current = stopAt.get())) {
+            if (stopAt.compareAndSet(current, index)) return;
+        }
+    }
+
+    private static void cancelFrom(FutureTask<?>[] tasks, int from) {
+        for (int i = from; i < tasks.length; i++) {
+            tasks[i].cancel(true);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <D extends DynamicContext> D forkOf(D dynamicContext) {
+        DynamicContext fork = dynamicContext.fork();
+        if (!dynamicContext.getClass().isInstance(fork)) {
+            throw new IllegalStateException("上下文类型未覆写 fork()，请指定复制与合并方式，type=" + dynamicContext.getClass().getName());
+        }
+        return (D) fork;
+    }
+
+    /**
+     * 设置执行成员的线程池，默认为 {@link AsyncExecutors#defaultExecutor()}。
+     *
+     * @param executor 线程池
+     */
+    public void setExecutor(Executor executor) {
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+    }
+
+    /**
+     * 获取组名称。
+     *
+     * @return 组名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取成员数量。
+     *
+     * @return 成员数量
+     */
+    public int size() {
+        return handlers.length;
+    }
+
+    @Override
+    public String toString() {
+        return "ParallelLogicGroup{name=" + name + ", size=" + handlers.length + "}";
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.zsq.winter.design.link.model2.context;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * 线程安全的动态上下文：允许多个线程同时读写同一请求的上下文，例如在
+ * {@link com.zsq.winter.design.tree.AbstractMultiThreadStrategyRouter#multiThread(Object, Object) multiThread} 的工作线程中写入加载结果。
+ *
+ * <ul>
+ *   <li>动态数据保存在 {@link ConcurrentHashMap} 中：读不加锁，写只锁定键所在的桶，不同键的写入互不阻塞；</li>
+ *   <li>是否继续执行为 {@code volatile} 字段，任一线程的 {@code stop} 对之后读取它的线程立即可见；</li>
+ *   <li>安全发布：某个线程写入的值（及写入前对该值所做的修改）对读到该值的线程可见，读取方无需额外同步；</li>
+ *   <li>写入 {@code null} 等同于删除该键，与 {@link DynamicContext} 一致；可与任意 {@link DynamicContext} 互相 {@code fork}/{@code merge}。</li>
+ * </ul>
+ *
+ * <p>可见性只针对单个键：要保证全部工作线程都已写完再执行 {@code doApply}，仍需等待它们结束（如 {@code Future.get}、{@code CompletableFuture.join}）。
+ * 截止时间应在请求开始、派发工作线程之前设置。单线程使用时读写开销高于 {@link DynamicContext}，只在确有并发写入时使用。</p>
+ *
+ * <pre>{@code
+ * protected void multiThread(Req req, ConcurrentDynamicContext ctx) throws ... {
+ *     CompletableFuture<Void> account = CompletableFuture.runAsync(() -> ctx.setValue("account", accountService.query(req)), executor);
+ *     CompletableFuture<Void> level = CompletableFuture.runAsync(() -> ctx.setValue("level", levelService.query(req)), executor);
+ *     CompletableFuture.allOf(account, level).get(500, TimeUnit.MILLISECONDS);
+ * }
+ * }</pre>
+ */
+public class ConcurrentDynamicContext extends DynamicContext {
+
+    /**
+     * 是否继续向后执行链路，以 {@code volatile} 保证跨线程可见。
+     */
+    private volatile boolean proceedVisible = true;
+
+    /**
+     * 创建默认容量的上下文。
+     */
+    public ConcurrentDynamicContext() {
+        this(16);
+    }
+
+    /**
+     * 按预计的条目数创建上下文，避免写入过程中扩容。
+     *
+     * @param expectedSize 预计的条目数
+     */
+    public ConcurrentDynamicContext(int expectedSize) {
+        super(new ConcurrentHashMap<>(checkSize(expectedSize)));
+    }
+
+    /**
+     * 键不存在时原子地计算并写入值，同一键的计算最多执行一次，适用于多个线程共享同一份加载结果。
+     *
+     * @param key    键
+     * @param loader 计算值，返回 {@code null} 时不写入；计算期间同一桶上的写入会被阻塞，不应执行耗时操作或写入其他键
+     * @param <T>    值的类型
+     * @return 已存在或新计算的值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computeValueIfAbsent(String key, Function<String, ? extends T> loader) {
+        Object[] computed = new Object[1];
+        T value = (T) dataMap().computeIfAbsent(key, k -> computed[0] = loader.apply(k));
+        if (computed[0] != null) markWritten(key);
+        return value;
+    }
+
+    @Override
+    public boolean isProceed() {
+        return proceedVisible;
+    }
+
+    @Override
+    public void setProceed(boolean proceed) {
+        this.proceedVisible = proceed;
+    }
+
+    /**
+     * 创建同类型的副本：复制动态数据（浅拷贝）、是否继续执行与截止时间，副本同样线程安全，可由多个线程同时写入。
+     *
+     * @return 副本
+     */
+    @Override
+    public ConcurrentDynamicContext fork() {
+        ConcurrentDynamicContext fork = new ConcurrentDynamicContext(dataMap().size());
+        copyStateTo(fork);
+        return fork;
+    }
+
+    @Override
+    protected Set<String> newWrittenKeys() {
+        return ConcurrentHashMap.newKeySet();
+    }
+
+    private static int checkSize(int expectedSize) {
+        if (expectedSize < 0) throw new IllegalArgumentException("expectedSize must not be negative, expectedSize=" + expectedSize);
+        return expectedSize;
+    }
+
+}
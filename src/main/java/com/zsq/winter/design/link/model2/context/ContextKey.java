@@ -0,0 +1,63 @@
+package com.zsq.winter.design.link.model2.context;
+
+/**
+ * 引用类型的上下文键，由 {@link ContextSchema#register(String, Class)} 预先注册得到。
+ *
+ * <p>每个键在注册时即被分配固定的数组槽位，{@link SlotDynamicContext} 读写时直接按下标访问，
+ * 无需字符串哈希。键实例应作为常量保存并在各处理器之间共享。</p>
+ *
+ * @param <V> 值类型
+ */
+public final class ContextKey<V> {
+
+    /**
+     * 注册该键的模式。
+     */
+    final ContextSchema schema;
+
+    /**
+     * 键名称，同时可用于 {@link SlotDynamicContext#getValue(String)} 的兼容读写。
+     */
+    private final String name;
+
+    /**
+     * 值类型。
+     */
+    private final Class<V> type;
+
+    /**
+     * 引用槽位下标。
+     */
+    final int index;
+
+    ContextKey(ContextSchema schema, String name, Class<V> type, int index) {
+        this.schema = schema;
+        this.name = name;
+        this.type = type;
+        this.index = index;
+    }
+
+    /**
+     * 获取键名称。
+     *
+     * @return 键名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取值类型。
+     *
+     * @return 值类型
+     */
+    public Class<V> getType() {
+        return type;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
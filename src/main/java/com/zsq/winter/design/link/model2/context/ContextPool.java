@@ -0,0 +1,274 @@
+package com.zsq.winter.design.link.model2.context;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+import com.zsq.winter.design.link.model2.handler.ILogicHandler;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 动态上下文对象池：跨请求复用 {@link DynamicContext}，避免每个请求新建上下文及其内部的 {@code HashMap}。
+ *
+ * <p>池为有界的分段结构：各线程按线程号从不同的起点探测少量槽位，借出与归还都是一次 CAS，不加锁，也不依赖 {@code ThreadLocal}，
+ * 因此同样适用于虚拟线程。探测范围内没有可用对象时新建（未命中），没有空槽时丢弃归还的对象，池的容量不会超过构造时的上限。</p>
+ *
+ * <ul>
+ *   <li>归还时调用 {@link DynamicContext#reset()} 清空数据并恢复为允许继续执行，扩展了状态的子类应覆写 {@code reset}；</li>
+ *   <li>上下文归还后不得再使用，也不得重复归还；</li>
+ *   <li>开启泄漏检测时记录借出位置，借出后未归还即被回收的上下文会计入 {@link ContextPoolStats#getLeakCount()} 并通知监听器。
+ *   检测有额外开销，建议仅在测试或排查问题时开启。</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * ContextPool<DynamicContext> pool = new ContextPool<>(DynamicContext::new, 256);
+ * Res res = pool.apply(chain, req);   // 借出上下文，执行链路后归还
+ * }</pre>
+ */
+public class ContextPool<D extends DynamicContext> {
+
+    /**
+     * 每次借出或归还最多探测的槽位数。
+     */
+    private static final int PROBES = 8;
+
+    private final Supplier<D> factory;
+
+    private final AtomicReferenceArray<D> slots;
+
+    private final int mask;
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder releaseCount = new LongAdder();
+
+    private final LongAdder discardCount = new LongAdder();
+
+    private final LongAdder leakCount = new LongAdder();
+
+    /**
+     * 泄漏检测状态，未开启时为 {@code null}。
+     */
+    private final LeakDetector<D> leakDetector;
+
+    /**
+     * 发现泄漏时的监听器，入参记录了泄漏上下文的借出位置。
+     */
+    private volatile Consumer<Throwable> leakListener;
+
+    /**
+     * 创建不开启泄漏检测的上下文池。
+     *
+     * @param factory  新建上下文
+     * @param capacity 池中最多保留的上下文数，向上取整为 2 的幂
+     */
+    public ContextPool(Supplier<D> factory, int capacity) {
+        this(factory, capacity, false);
+    }
+
+    /**
+     * 创建上下文池。
+     *
+     * @param factory       新建上下文
+     * @param capacity      池中最多保留的上下文数，向上取整为 2 的幂
+     * @param leakDetection 是否开启泄漏检测
+     */
+    public ContextPool(Supplier<D> factory, int capacity, boolean leakDetection) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive, capacity=" + capacity);
+        this.factory = Objects.requireNonNull(factory, "factory must not be null");
+        int size = 1;
+        while (size < capacity && size < (1 << 30)) size <<= 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.leakDetector = leakDetection ? new LeakDetector<>() : null;
+    }
+
+    /**
+     * 借出上下文：优先复用池中的对象，没有时新建。
+     *
+     * @return 处于初始状态的上下文
+     */
+    public D acquire() {
+        if (null != leakDetector) drainLeaks();
+        D dynamicContext = poll();
+        if (null == dynamicContext) {
+            missCount.increment();
+            dynamicContext = factory.get();
+        } else {
+            hitCount.increment();
+        }
+        if (null != leakDetector) leakDetector.track(dynamicContext);
+        return dynamicContext;
+    }
+
+    /**
+     * 归还上下文：重置后放回池中，池已满时丢弃。
+     *
+     * @param dynamicContext 借出的上下文，为 {@code null} 时忽略
+     */
+    public void release(D dynamicContext) {
+        if (null == dynamicContext) return;
+        if (null != leakDetector) leakDetector.untrack(dynamicContext);
+        releaseCount.increment();
+        dynamicContext.reset();
+        if (!offer(dynamicContext)) discardCount.increment();
+    }
+
+    /**
+     * 借出上下文执行处理器（链路），结束后归还上下文。
+     *
+     * @param logicHandler     处理器或链路，如 {@code BusinessLinkedList}、{@code CompiledLogicChain}
+     * @param requestParameter 入参
+     * @param <T>              入参类型
+     * @param <R>              返参类型
+     * @return 执行结果
+     * @throws Exception 执行过程中可能的异常
+     */
+    public <T, R> R apply(ILogicHandler<T, D, R> logicHandler, T requestParameter) throws Exception {
+        D dynamicContext = acquire();
+        try {
+            return logicHandler.apply(requestParameter, dynamicContext);
+        } finally {
+            release(dynamicContext);
+        }
+    }
+
+    /**
+     * 设置发现泄漏时的监听器，入参的堆栈为泄漏上下文的借出位置；仅在开启泄漏检测时生效。
+     *
+     * @param leakListener 监听器，为 {@code null} 表示只计数
+     */
+    public void setLeakListener(Consumer<Throwable> leakListener) {
+        this.leakListener = leakListener;
+    }
+
+    /**
+     * 获取统计快照；开启泄漏检测时会先处理已被回收的未归还上下文。
+     *
+     * @return 统计快照
+     */
+    public ContextPoolStats stats() {
+        if (null != leakDetector) drainLeaks();
+        long hits = hitCount.sum();
+        long misses = missCount.sum();
+        return new ContextPoolStats(hits, misses, discardCount.sum(), leakCount.sum(), hits + misses - releaseCount.sum());
+    }
+
+    private D poll() {
+        int start = start();
+        for (int i = 0; i < PROBES && i <= mask; i++) {
+            int index = (start + i) & mask;
+            D dynamicContext = slots.get(index);
+            if (null != dynamicContext && slots.compareAndSet(index, dynamicContext, null)) return dynamicContext;
+        }
+        return null;
+    }
+
+    private boolean offer(D dynamicContext) {
+        int start = start();
+        for (int i = 0; i < PROBES && i <= mask; i++) {
+            int index = (start + i) & mask;
+            if (null == slots.get(index) && slots.compareAndSet(index, null, dynamicContext)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 按线程号散列出探测起点，使不同线程大多落在不同的分段上。
+     */
+    private int start() {
+        long id = Thread.currentThread().getId();
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 32) & mask;
+    }
+
+    private void drainLeaks() {
+        Throwable leak;
+        while (null != (leak = leakDetector.pollLeak())) {
+            leakCount.increment();
+            Consumer<Throwable> listener = leakListener;
+            if (null != listener) listener.accept(leak);
+        }
+    }
+
+    /**
+     * 泄漏检测：以弱引用跟踪借出的上下文，归还时清除引用；未归还的上下文被回收后其引用进入队列，即为泄漏。
+     */
+    private static final class LeakDetector<D> {
+
+        private final ReferenceQueue<D> queue = new ReferenceQueue<>();
+
+        /**
+         * 身份哈希 → 跟踪记录，不持有上下文的强引用。
+         */
+        private final Map<Integer, List<Tracker<D>>> trackers = new HashMap<>();
+
+        void track(D dynamicContext) {
+            Tracker<D> tracker = new Tracker<>(dynamicContext, queue);
+            synchronized (trackers) {
+                trackers.computeIfAbsent(tracker.hash, hash -> new ArrayList<>(1)).add(tracker);
+            }
+        }
+
+        void untrack(D dynamicContext) {
+            int hash = System.identityHashCode(dynamicContext);
+            synchronized (trackers) {
+                List<Tracker<D>> list = trackers.get(hash);
+                if (null != list) {
+                    for (int i = 0; i < list.size(); i++) {
+                        Tracker<D> tracker = list.get(i);
+                        if (tracker.get() == dynamicContext) {
+                            tracker.clear();
+                            list.remove(i);
+                            if (list.isEmpty()) trackers.remove(hash);
+                            return;
+                        }
+                    }
+                }
+            }
+            throw new IllegalStateException("归还的上下文不是从本池借出的，或已重复归还");
+        }
+
+        Throwable pollLeak() {
+            @SuppressWarnings("unchecked")
+            Tracker<D> tracker = (Tracker<D>) queue.poll();
+            if (null == tracker) return null;
+            synchronized (trackers) {
+                List<Tracker<D>> list = trackers.get(tracker.hash);
+                if (null != list) {
+                    list.remove(tracker);
+                    if (list.isEmpty()) trackers.remove(tracker.hash);
+                }
+            }
+            return tracker.site;
+        }
+
+    }
+
+    /**
+     * 单个借出上下文的跟踪记录。
+     */
+    private static final class Tracker<D> extends WeakReference<D> {
+
+        final int hash;
+
+        final Throwable site;
+
+        Tracker(D dynamicContext, ReferenceQueue<D> queue) {
+            super(dynamicContext, queue);
+            this.hash = System.identityHashCode(dynamicContext);
+            this.site = new Throwable("上下文借出后未归还，借出位置如下");
+        }
+
+    }
+
+}
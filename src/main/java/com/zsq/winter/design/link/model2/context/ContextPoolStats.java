@@ -0,0 +1,87 @@
+package com.zsq.winter.design.link.model2.context;
+
+/**
+ * 上下文池统计快照，不可变。
+ */
+public final class ContextPoolStats {
+
+    private final long hitCount;
+
+    private final long missCount;
+
+    private final long discardCount;
+
+    private final long leakCount;
+
+    private final long outstanding;
+
+    ContextPoolStats(long hitCount, long missCount, long discardCount, long leakCount, long outstanding) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.discardCount = discardCount;
+        this.leakCount = leakCount;
+        this.outstanding = outstanding;
+    }
+
+    /**
+     * 获取从池中取到上下文的次数。
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 获取池中无可用上下文、新建上下文的次数。
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 获取归还时池已满而被丢弃的上下文数。
+     *
+     * @return 丢弃数
+     */
+    public long getDiscardCount() {
+        return discardCount;
+    }
+
+    /**
+     * 获取未归还即被回收的上下文数，仅在开启泄漏检测时统计。
+     *
+     * @return 泄漏数
+     */
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    /**
+     * 获取已借出尚未归还的上下文数（含已泄漏的）。
+     *
+     * @return 借出数
+     */
+    public long getOutstanding() {
+        return outstanding;
+    }
+
+    /**
+     * 计算命中率。
+     *
+     * @return 命中率，无请求时为 {@code 1.0}
+     */
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 1.0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "ContextPoolStats{hit=" + hitCount + ", miss=" + missCount + ", discard=" + discardCount
+                + ", leak=" + leakCount + ", outstanding=" + outstanding + ", hitRate=" + getHitRate() + "}";
+    }
+
+}
@@ -0,0 +1,175 @@
+package com.zsq.winter.design.link.model2.context;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 上下文模式：预先注册上下文键，并为每个键分配固定的槽位。
+ *
+ * <p>使用方式：在类加载或应用启动阶段注册所有键并保存为常量，随后通过 {@link #newContext()}
+ * 创建 {@link SlotDynamicContext}。首次创建上下文后模式即被冻结，不再允许注册新键，
+ * 以保证同一模式下所有上下文的槽位布局一致。</p>
+ *
+ * <pre>{@code
+ * public final class OrderKeys {
+ *     public static final ContextSchema SCHEMA = new ContextSchema();
+ *     public static final ContextKey<String> USER_ID = SCHEMA.register("userId", String.class);
+ *     public static final IntContextKey RETRY = SCHEMA.registerInt("retry");
+ *     public static final DoubleContextKey AMOUNT = SCHEMA.registerDouble("amount");
+ * }
+ *
+ * SlotDynamicContext context = OrderKeys.SCHEMA.newContext();
+ * context.set(OrderKeys.USER_ID, "u001");
+ * context.setInt(OrderKeys.RETRY, 3);
+ * }</pre>
+ */
+public class ContextSchema {
+
+    /**
+     * 引用类型键，按名称索引，用于兼容 {@code getValue(String)} / {@code setValue(String, Object)}。
+     */
+    private final Map<String, ContextKey<?>> refKeys = new HashMap<>();
+
+    /**
+     * 已注册的全部键名称，防止不同类型的键重名。
+     */
+    private final Map<String, Object> names = new HashMap<>();
+
+    /**
+     * 引用槽位数量。
+     */
+    private int refSlots;
+
+    /**
+     * 原始类型槽位数量（int/long/double 共用）。
+     */
+    private int primitiveSlots;
+
+    /**
+     * 是否已冻结。
+     */
+    private volatile boolean frozen;
+
+    /**
+     * 注册引用类型的键。
+     *
+     * @param name 键名称，在模式内唯一
+     * @param type 值类型
+     * @param <V>  值的泛型类型
+     * @return 上下文键
+     * @throws IllegalStateException 当模式已冻结或名称重复时抛出
+     */
+    public synchronized <V> ContextKey<V> register(String name, Class<V> type) {
+        Objects.requireNonNull(type, "type must not be null");
+        ContextKey<V> key = new ContextKey<>(this, checkName(name), type, refSlots++);
+        refKeys.put(name, key);
+        names.put(name, key);
+        return key;
+    }
+
+    /**
+     * 注册 {@code int} 类型的键。
+     *
+     * @param name 键名称，在模式内唯一
+     * @return 上下文键
+     * @throws IllegalStateException 当模式已冻结或名称重复时抛出
+     */
+    public synchronized IntContextKey registerInt(String name) {
+        IntContextKey key = new IntContextKey(this, checkName(name), primitiveSlots++);
+        names.put(name, key);
+        return key;
+    }
+
+    /**
+     * 注册 {@code long} 类型的键。
+     *
+     * @param name 键名称，在模式内唯一
+     * @return 上下文键
+     * @throws IllegalStateException 当模式已冻结或名称重复时抛出
+     */
+    public synchronized LongContextKey registerLong(String name) {
+        LongContextKey key = new LongContextKey(this, checkName(name), primitiveSlots++);
+        names.put(name, key);
+        return key;
+    }
+
+    /**
+     * 注册 {@code double} 类型的键。
+     *
+     * @param name 键名称，在模式内唯一
+     * @return 上下文键
+     * @throws IllegalStateException 当模式已冻结或名称重复时抛出
+     */
+    public synchronized DoubleContextKey registerDouble(String name) {
+        DoubleContextKey key = new DoubleContextKey(this, checkName(name), primitiveSlots++);
+        names.put(name, key);
+        return key;
+    }
+
+    /**
+     * 创建一个按本模式布局的上下文，首次调用后模式被冻结。
+     *
+     * @return 新的上下文
+     */
+    public SlotDynamicContext newContext() {
+        if (!frozen) freeze();
+        return new SlotDynamicContext(this);
+    }
+
+    /**
+     * 冻结模式，之后不再允许注册新键。
+     */
+    public synchronized void freeze() {
+        frozen = true;
+    }
+
+    /**
+     * 是否已冻结。
+     *
+     * @return {@code true} 已冻结
+     */
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * 按名称查找引用类型的键，仅在模式冻结后使用（此时映射不再变化）。
+     *
+     * @param name 键名称
+     * @return 对应的键；不存在返回 {@code null}
+     */
+    ContextKey<?> refKey(String name) {
+        return refKeys.get(name);
+    }
+
+    /**
+     * 查看已注册的引用类型键。
+     *
+     * @return {@code name -> key} 的不可变映射
+     */
+    public synchronized Map<String, ContextKey<?>> getRefKeys() {
+        return Collections.unmodifiableMap(new HashMap<>(refKeys));
+    }
+
+    int refSlots() {
+        return refSlots;
+    }
+
+    int primitiveSlots() {
+        return primitiveSlots;
+    }
+
+    private String checkName(String name) {
+        Objects.requireNonNull(name, "name must not be null");
+        if (frozen) {
+            throw new IllegalStateException("上下文模式已冻结，无法注册新键：" + name);
+        }
+        if (names.containsKey(name)) {
+            throw new IllegalStateException("重复注册上下文键，name=" + name);
+        }
+        return name;
+    }
+
+}
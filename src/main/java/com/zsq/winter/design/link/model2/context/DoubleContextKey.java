@@ -0,0 +1,45 @@
+package com.zsq.winter.design.link.model2.context;
+
+/**
+ * {@code double} 类型的上下文键，由 {@link ContextSchema#registerDouble(String)} 预先注册得到。
+ *
+ * <p>对应的值保存在 {@link SlotDynamicContext} 的原始类型槽位中，读写不产生装箱对象。</p>
+ */
+public final class DoubleContextKey {
+
+    /**
+     * 注册该键的模式。
+     */
+    final ContextSchema schema;
+
+    /**
+     * 键名称。
+     */
+    private final String name;
+
+    /**
+     * 原始类型槽位下标。
+     */
+    final int index;
+
+    DoubleContextKey(ContextSchema schema, String name, int index) {
+        this.schema = schema;
+        this.name = name;
+        this.index = index;
+    }
+
+    /**
+     * 获取键名称。
+     *
+     * @return 键名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+
+}
@@ -0,0 +1,250 @@
+package com.zsq.winter.design.link.model2.context;
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+
+import java.util.Arrays;
+
+/**
+ * 基于槽位的动态上下文：按预注册的键直接访问定长数组，读写无哈希、原始类型无装箱。
+ *
+ * <p>由 {@link ContextSchema#newContext()} 创建。引用类型值保存在 {@code Object[]} 中，
+ * {@code int}/{@code long}/{@code double} 值保存在同一个 {@code long[]} 中（{@code double} 以位模式存储）。</p>
+ *
+ * <p>兼容性：</p>
+ * <ul>
+ *   <li>作为 {@link DynamicContext} 的子类，可直接用于 {@code ILogicHandler} 的 {@code next}/{@code stop} 约定；</li>
+ *   <li>{@link #getValue(String)} / {@link #setValue(String, Object)} 对已注册的引用类型键按名称映射到槽位，
+ *       未注册的名称回退到父类的 {@code HashMap} 存储；</li>
+ *   <li>{@link #reset()} 清空所有槽位，配合对象池可跨请求复用，稳态下不产生额外分配。</li>
+ * </ul>
+ *
+ * <p>线程安全：与 {@link DynamicContext} 一致，单个实例只应在一个请求内使用；需要在其他线程上隔离执行时，
+ * 通过 {@link #fork()} / {@link #merge(DynamicContext)} 复制与合并，副本只记录并合并自己写入过的槽位。</p>
+ */
+public class SlotDynamicContext extends DynamicContext {
+
+    /**
+     * 创建本上下文的模式。
+     */
+    private final ContextSchema schema;
+
+    /**
+     * 引用类型槽位。
+     */
+    private final Object[] refs;
+
+    /**
+     * 原始类型槽位。
+     */
+    private final long[] primitives;
+
+    /**
+     * 由 {@link #fork()} 创建的副本中被写入过的引用类型槽位，非副本为 {@code null}。
+     */
+    private boolean[] dirtyRefs;
+
+    /**
+     * 由 {@link #fork()} 创建的副本中被写入过的原始类型槽位，非副本为 {@code null}。
+     */
+    private boolean[] dirtyPrimitives;
+
+    /**
+     * 按模式布局创建上下文，模式应已冻结。
+     *
+     * @param schema 上下文模式
+     */
+    protected SlotDynamicContext(ContextSchema schema) {
+        this.schema = schema;
+        this.refs = new Object[schema.refSlots()];
+        this.primitives = new long[schema.primitiveSlots()];
+    }
+
+    /**
+     * 读取引用类型的值。
+     *
+     * @param key 上下文键
+     * @param <V> 值类型
+     * @return 存储的值；未设置返回 {@code null}
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V get(ContextKey<V> key) {
+        return (V) refs[check(key.schema, key.index)];
+    }
+
+    /**
+     * 写入引用类型的值。
+     *
+     * @param key   上下文键
+     * @param value 值
+     * @param <V>   值类型
+     */
+    public <V> void set(ContextKey<V> key, V value) {
+        setRef(check(key.schema, key.index), value);
+    }
+
+    /**
+     * 读取 {@code int} 值。
+     *
+     * @param key 上下文键
+     * @return 存储的值；未设置返回 {@code 0}
+     */
+    public int getInt(IntContextKey key) {
+        return (int) primitives[check(key.schema, key.index)];
+    }
+
+    /**
+     * 写入 {@code int} 值。
+     *
+     * @param key   上下文键
+     * @param value 值
+     */
+    public void setInt(IntContextKey key, int value) {
+        setPrimitive(check(key.schema, key.index), value);
+    }
+
+    /**
+     * 读取 {@code long} 值。
+     *
+     * @param key 上下文键
+     * @return 存储的值；未设置返回 {@code 0}
+     */
+    public long getLong(LongContextKey key) {
+        return primitives[check(key.schema, key.index)];
+    }
+
+    /**
+     * 写入 {@code long} 值。
+     *
+     * @param key   上下文键
+     * @param value 值
+     */
+    public void setLong(LongContextKey key, long value) {
+        setPrimitive(check(key.schema, key.index), value);
+    }
+
+    /**
+     * 读取 {@code double} 值。
+     *
+     * @param key 上下文键
+     * @return 存储的值；未设置返回 {@code 0.0}
+     */
+    public double getDouble(DoubleContextKey key) {
+        return Double.longBitsToDouble(primitives[check(key.schema, key.index)]);
+    }
+
+    /**
+     * 写入 {@code double} 值。
+     *
+     * @param key   上下文键
+     * @param value 值
+     */
+    public void setDouble(DoubleContextKey key, double value) {
+        setPrimitive(check(key.schema, key.index), Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * 按名称写入数据：已注册的引用类型键写入槽位，否则回退到父类存储。
+     *
+     * @throws IllegalArgumentException 当值与已注册键的类型不匹配时抛出
+     */
+    @Override
+    public <T> void setValue(String key, T value) {
+        ContextKey<?> slotKey = schema.refKey(key);
+        if (slotKey == null) {
+            super.setValue(key, value);
+            return;
+        }
+        if (value != null && !slotKey.getType().isInstance(value)) {
+            throw new IllegalArgumentException("上下文键类型不匹配，key=" + key + " type=" + slotKey.getType().getName());
+        }
+        setRef(slotKey.index, value);
+    }
+
+    /**
+     * 按名称读取数据：已注册的引用类型键读取槽位，否则回退到父类存储。
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getValue(String key) {
+        ContextKey<?> slotKey = schema.refKey(key);
+        if (slotKey == null) return super.getValue(key);
+        return (T) refs[slotKey.index];
+    }
+
+    /**
+     * 创建同一模式的副本：复制全部槽位与父类存储、是否继续执行与截止时间，并记录副本上写入的槽位与键。
+     *
+     * @return 副本
+     */
+    @Override
+    public SlotDynamicContext fork() {
+        SlotDynamicContext fork = new SlotDynamicContext(schema);
+        copyStateTo(fork);
+        System.arraycopy(refs, 0, fork.refs, 0, refs.length);
+        System.arraycopy(primitives, 0, fork.primitives, 0, primitives.length);
+        fork.dirtyRefs = new boolean[refs.length];
+        fork.dirtyPrimitives = new boolean[primitives.length];
+        return fork;
+    }
+
+    /**
+     * 合并副本的变更：父类存储中写入过的键、副本上写入过的槽位，以及是否继续执行。
+     *
+     * @param fork 副本
+     * @throws IllegalArgumentException 副本属于其他上下文模式时抛出
+     */
+    @Override
+    public void merge(DynamicContext fork) {
+        SlotDynamicContext slots = fork instanceof SlotDynamicContext ? (SlotDynamicContext) fork : null;
+        if (slots != null && slots.schema != schema) {
+            throw new IllegalArgumentException("上下文副本不属于当前上下文模式");
+        }
+        super.merge(fork);
+        if (slots == null || slots.dirtyRefs == null) return;
+        for (int i = 0; i < refs.length; i++) {
+            if (slots.dirtyRefs[i]) setRef(i, slots.refs[i]);
+        }
+        for (int i = 0; i < primitives.length; i++) {
+            if (slots.dirtyPrimitives[i]) setPrimitive(i, slots.primitives[i]);
+        }
+    }
+
+    /**
+     * 清空所有槽位与父类存储，并恢复为允许继续执行。
+     */
+    @Override
+    public void reset() {
+        super.reset();
+        Arrays.fill(refs, null);
+        Arrays.fill(primitives, 0L);
+        dirtyRefs = null;
+        dirtyPrimitives = null;
+    }
+
+    /**
+     * 获取创建本上下文的模式。
+     *
+     * @return 上下文模式
+     */
+    public ContextSchema getSchema() {
+        return schema;
+    }
+
+    private void setRef(int index, Object value) {
+        refs[index] = value;
+        if (dirtyRefs != null) dirtyRefs[index] = true;
+    }
+
+    private void setPrimitive(int index, long value) {
+        primitives[index] = value;
+        if (dirtyPrimitives != null) dirtyPrimitives[index] = true;
+    }
+
+    private int check(ContextSchema keySchema, int index) {
+        if (keySchema != schema) {
+            throw new IllegalArgumentException("上下文键不属于当前上下文模式");
+        }
+        return index;
+    }
+
+}
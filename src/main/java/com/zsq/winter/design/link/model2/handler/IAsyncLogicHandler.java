@@ -0,0 +1,103 @@
+package com.zsq.winter.design.link.model2.handler;
+
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * 异步业务逻辑处理器接口：{@link ILogicHandler} 的非阻塞形态。
+ *
+ * <p>处理器返回 {@link CompletionStage}，链路是否继续仍由 {@link DynamicContext#isProceed()} 决定，
+ * 且以阶段完成时的状态为准。由 {@link com.zsq.winter.design.link.model2.chain.AsyncLogicChain} 组合执行。</p>
+ *
+ * <p>同步与异步处理器可混合使用：{@link #of(ILogicHandler)} 将同步处理器放入异步链路，
+ * {@link #blocking(IAsyncLogicHandler)} 将异步处理器放入同步链路（会阻塞等待结果）。</p>
+ */
+public interface IAsyncLogicHandler<T, D extends DynamicContext, R> {
+
+    /**
+     * 标记允许继续向后执行，并返回已完成的 {@code null} 结果。
+     *
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 已完成的 {@code null} 结果
+     */
+    default CompletionStage<R> next(T requestParameter, D dynamicContext) {
+        dynamicContext.setProceed(true);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    /**
+     * 标记停止向后执行，并返回以给定结果完成的阶段。
+     *
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @param result           希望停止时返回的结果
+     * @return 已完成的结果
+     */
+    default CompletionStage<R> stop(T requestParameter, D dynamicContext, R result) {
+        dynamicContext.setProceed(false);
+        return CompletableFuture.completedFuture(result);
+    }
+
+    /**
+     * 执行业务处理逻辑。
+     *
+     * <p>实现应通过返回异常完成的阶段来表达失败；直接抛出的运行时异常会被链路执行器转换为异常完成的阶段。</p>
+     *
+     * @param requestParameter 请求参数
+     * @param dynamicContext   动态上下文
+     * @return 处理结果的异步阶段，不能为 {@code null}
+     */
+    CompletionStage<R> apply(T requestParameter, D dynamicContext);
+
+    /**
+     * 将同步处理器适配为异步处理器，在调用线程上执行并返回已完成的阶段。
+     *
+     * @param handler 同步处理器
+     * @param <T>     请求参数类型
+     * @param <D>     动态上下文类型
+     * @param <R>     结果类型
+     * @return 异步处理器
+     */
+    static <T, D extends DynamicContext, R> IAsyncLogicHandler<T, D, R> of(ILogicHandler<T, D, R> handler) {
+        Objects.requireNonNull(handler, "handler must not be null");
+        return (requestParameter, dynamicContext) -> {
+            CompletableFuture<R> future = new CompletableFuture<>();
+            try {
+                future.complete(handler.apply(requestParameter, dynamicContext));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        };
+    }
+
+    /**
+     * 将异步处理器适配为同步处理器：阻塞等待结果，异常完成时抛出原始异常。
+     *
+     * @param handler 异步处理器
+     * @param <T>     请求参数类型
+     * @param <D>     动态上下文类型
+     * @param <R>     结果类型
+     * @return 同步处理器
+     */
+    static <T, D extends DynamicContext, R> ILogicHandler<T, D, R> blocking(IAsyncLogicHandler<T, D, R> handler) {
+        Objects.requireNonNull(handler, "handler must not be null");
+        return (requestParameter, dynamicContext) -> {
+            try {
+                return handler.apply(requestParameter, dynamicContext).toCompletableFuture().get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) throw (Exception) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw e;
+            }
+        };
+    }
+
+}
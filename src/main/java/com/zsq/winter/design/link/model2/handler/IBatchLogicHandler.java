@@ -0,0 +1,31 @@
+package com.zsq.winter.design.link.model2.handler;
+
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+
+import java.util.List;
+
+/**
+ * 支持批量处理的业务逻辑处理器。
+ *
+ * <p>链路以批量方式执行（{@code applyBatch}）时，实现了本接口的处理器一次性接收当前阶段仍在执行的全部元素，
+ * 可借此合并远程调用、批量查库等；未实现本接口的处理器由链路逐个调用 {@link #apply(Object, DynamicContext)}。
+ * 单条执行时仍走 {@code apply}，两者的业务语义应保持一致。</p>
+ *
+ * <p>是否继续仍按元素各自的上下文判断：处理器对某个元素调用 {@code stop} 后，该元素在后续阶段被剔除。</p>
+ */
+public interface IBatchLogicHandler<T, D extends DynamicContext, R> extends ILogicHandler<T, D, R> {
+
+    /**
+     * 批量执行业务处理逻辑。
+     *
+     * <p>两个列表一一对应、只读，且仅在本次调用期间有效，不应被保存。</p>
+     *
+     * @param requestParameters 请求参数列表
+     * @param dynamicContexts   与请求一一对应的动态上下文列表
+     * @return 与请求一一对应的处理结果，大小必须与请求列表一致
+     * @throws Exception 处理过程中可能抛出的异常
+     */
+    List<R> applyBatch(List<T> requestParameters, List<D> dynamicContexts) throws Exception;
+
+}
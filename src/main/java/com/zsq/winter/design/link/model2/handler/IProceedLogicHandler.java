@@ -0,0 +1,19 @@
+package com.zsq.winter.design.link.model2.handler;
+
+
+import com.zsq.winter.design.link.model2.DynamicContext;
+
+/**
+ * “恒定放行”的业务逻辑处理器标记接口。
+ *
+ * <p>实现该接口即向框架承诺：{@link #apply(Object, DynamicContext)} 正常返回后，
+ * {@code dynamicContext.isProceed()} 一定为 {@code true}（通常以 {@link #next(Object, DynamicContext)} 结束，
+ * 且从不调用 {@link #stop(Object, DynamicContext, Object)}）。</p>
+ *
+ * <p>{@link com.zsq.winter.design.link.model2.chain.BusinessLinkedList#compile()} 编译链路时，
+ * 会跳过此类节点之后的 {@code isProceed()} 检查，将连续的放行节点融合为一段无分支的顺序调用。
+ * 若实现违背上述约定，编译后的链路行为与未编译链路将不一致。</p>
+ */
+public interface IProceedLogicHandler<T, D extends DynamicContext, R> extends ILogicHandler<T, D, R> {
+
+}
@@ -0,0 +1,134 @@
+package com.zsq.winter.design.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 对数-线性分桶的延迟直方图（HdrHistogram 风格）。
+ *
+ * <p>小于 {@code 32} 的值逐一计数；更大的值按 2 的幂分段，每段再线性切分为 16 个子桶，
+ * 相对误差不超过约 6%。桶数组在构造时一次性分配，{@link #record(long)} 只做定长计算与原子自增，不分配对象。</p>
+ */
+public final class LatencyHistogram {
+
+    /**
+     * 子桶位数：{@code [0, 2^SUB_BUCKET_BITS)} 内的值精确计数。
+     */
+    private static final int SUB_BUCKET_BITS = 5;
+
+    private static final int SUB_BUCKET_HALF_BITS = SUB_BUCKET_BITS - 1;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * 覆盖 {@code [0, Long.MAX_VALUE]} 所需的桶数。
+     */
+    private static final int BUCKET_COUNT = index(Long.MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder totalCount = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一个值，负数按 0 处理。
+     *
+     * @param value 值（纳秒）
+     */
+    public void record(long value) {
+        if (value < 0) value = 0;
+        counts.incrementAndGet(index(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            // 仅在出现更大的值时竞争
+        }
+    }
+
+    /**
+     * 获取记录总数。
+     *
+     * @return 记录总数
+     */
+    public long getTotalCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * 获取记录的最大值。
+     *
+     * @return 最大值
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * 获取平均值。
+     *
+     * @return 平均值；无记录时为 0
+     */
+    public double getMean() {
+        long count = totalCount.sum();
+        return count == 0 ? 0D : (double) totalNanos.sum() / count;
+    }
+
+    /**
+     * 获取指定百分位的值，返回所在桶的上界（不超过最大值）。
+     *
+     * @param percentile 百分位，取值 {@code [0, 100]}
+     * @return 百分位值；无记录时为 0
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("百分位必须在 [0, 100] 内，percentile=" + percentile);
+        }
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            total += counts.get(i);
+        }
+        if (total == 0) return 0L;
+        long target = Math.max(1L, (long) Math.ceil(percentile / 100D * total));
+        long cumulative = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            cumulative += counts.get(i);
+            if (cumulative >= target) {
+                return Math.min(highestEquivalentValue(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * 清空所有记录。与并发的 {@link #record(long)} 之间不保证原子性。
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts.set(i, 0L);
+        }
+        totalCount.reset();
+        totalNanos.reset();
+        max.set(0L);
+    }
+
+    static int index(long value) {
+        if (value < SUB_BUCKET_COUNT) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS + 1;
+        int mantissa = (int) (value >>> exponent);
+        return (exponent << SUB_BUCKET_HALF_BITS) + mantissa;
+    }
+
+    static long highestEquivalentValue(int index) {
+        if (index < SUB_BUCKET_COUNT) return index;
+        int exponent = (index >>> SUB_BUCKET_HALF_BITS) - 1;
+        long mantissa = index - ((long) exponent << SUB_BUCKET_HALF_BITS);
+        long lowest = mantissa << exponent;
+        return lowest + ((1L << exponent) - 1);
+    }
+
+}
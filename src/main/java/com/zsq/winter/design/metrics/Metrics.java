@@ -0,0 +1,63 @@
+package com.zsq.winter.design.metrics;
+
+import java.util.Iterator;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * 全局指标记录器的持有者。
+ *
+ * <p>类加载时通过 SPI 查找第一个 {@link MetricsRecorder} 实现；未找到时指标关闭，
+ * 此时执行路径上的额外开销仅为一次 volatile 读与判空。</p>
+ */
+public final class Metrics {
+
+    private Metrics() {}
+
+    private static volatile MetricsRecorder recorder = loadBySpi();
+
+    /**
+     * 获取当前记录器。
+     *
+     * @return 当前记录器；指标关闭时返回 {@code null}
+     */
+    public static MetricsRecorder recorder() {
+        return recorder;
+    }
+
+    /**
+     * 指标是否开启。
+     *
+     * @return {@code true} 已安装记录器
+     */
+    public static boolean isEnabled() {
+        return recorder != null;
+    }
+
+    /**
+     * 安装记录器，传入 {@code null} 等同于关闭指标。
+     *
+     * @param metricsRecorder 记录器
+     */
+    public static void setRecorder(MetricsRecorder metricsRecorder) {
+        recorder = metricsRecorder;
+    }
+
+    /**
+     * 关闭指标。
+     */
+    public static void disable() {
+        recorder = null;
+    }
+
+    private static MetricsRecorder loadBySpi() {
+        try {
+            Iterator<MetricsRecorder> iterator = ServiceLoader.load(MetricsRecorder.class).iterator();
+            return iterator.hasNext() ? iterator.next() : null;
+        } catch (ServiceConfigurationError e) {
+            // SPI 配置错误时保持关闭，不影响业务执行
+            return null;
+        }
+    }
+
+}
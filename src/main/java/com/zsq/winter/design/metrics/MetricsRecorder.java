@@ -0,0 +1,49 @@
+package com.zsq.winter.design.metrics;
+
+/**
+ * 节点指标记录器（SPI）。
+ *
+ * <p>框架在 {@code AbstractStrategyRouter.router} 与 {@code BusinessLinkedList.apply} 等执行路径上，
+ * 每调用一个 {@code StrategyHandler} / {@code ILogicHandler} 就回调一次 {@link #record}。
+ * 实现可通过 {@code META-INF/services/com.zsq.winter.design.metrics.MetricsRecorder} 声明，由 {@link Metrics} 自动加载，
+ * 也可调用 {@link Metrics#setRecorder(MetricsRecorder)} 手动安装；内置实现见 {@link NodeMetricsRegistry}。</p>
+ *
+ * <p>同步执行路径在调用节点前还会回调 {@link #enter}，同步链路整体以 {@link #enter} / {@link #exit} 包围，
+ * 供需要还原调用路径的实现使用（如 {@link com.zsq.winter.design.trace.FlightRecorder}）；两者默认不做处理。</p>
+ *
+ * <p>实现要求：调用发生在业务线程的热路径上，必须线程安全、不阻塞，且尽量不分配对象。</p>
+ */
+public interface MetricsRecorder {
+
+    /**
+     * 记录一次节点调用。
+     *
+     * @param scope        节点所属的范围：规则树为路由节点类名，责任链为链路名称
+     * @param node         被调用的处理器实例
+     * @param latencyNanos 调用耗时（纳秒）；规则树节点的耗时包含其下游子树
+     * @param outcome      调用结果
+     */
+    void record(String scope, Object node, long latencyNanos, NodeOutcome outcome);
+
+    /**
+     * 同步执行的节点或链路开始执行，随后在同一线程上以 {@link #record}（节点）或 {@link #exit}（链路）结束。
+     * 异步节点与未执行的节点（超时、拒绝）只有 {@link #record}。
+     *
+     * @param scope 节点所属的范围，链路为链路名称
+     * @param node  即将执行的处理器或链路实例
+     */
+    default void enter(String scope, Object node) {
+    }
+
+    /**
+     * 同步链路整体执行结束，不属于节点调用，不应计入节点指标。
+     *
+     * @param scope        链路名称
+     * @param chain        链路实例
+     * @param latencyNanos 链路整体耗时（纳秒）
+     * @param outcome      {@link NodeOutcome#NEXT} 执行到底，{@link NodeOutcome#STOP} 中途停止，{@link NodeOutcome#ERROR} 抛出异常
+     */
+    default void exit(String scope, Object chain, long latencyNanos, NodeOutcome outcome) {
+    }
+
+}
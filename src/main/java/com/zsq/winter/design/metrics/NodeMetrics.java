@@ -0,0 +1,181 @@
+package com.zsq.winter.design.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个节点的调用指标。
+ */
+public final class NodeMetrics {
+
+    private final String scope;
+
+    private final String node;
+
+    private final LongAdder invocations = new LongAdder();
+
+    private final LongAdder completions = new LongAdder();
+
+    private final LongAdder nexts = new LongAdder();
+
+    private final LongAdder stops = new LongAdder();
+
+    private final LongAdder errors = new LongAdder();
+
+    private final LongAdder deadlineExceeded = new LongAdder();
+
+    private final LongAdder rejections = new LongAdder();
+
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    NodeMetrics(String scope, String node) {
+        this.scope = scope;
+        this.node = node;
+    }
+
+    void record(long latencyNanos, NodeOutcome outcome) {
+        // 超时与拒绝时节点未执行，不计入调用次数与延迟
+        if (outcome == NodeOutcome.DEADLINE_EXCEEDED) {
+            deadlineExceeded.increment();
+            return;
+        }
+        if (outcome == NodeOutcome.REJECTED) {
+            rejections.increment();
+            return;
+        }
+        invocations.increment();
+        switch (outcome) {
+            case COMPLETED:
+                completions.increment();
+                break;
+            case NEXT:
+                nexts.increment();
+                break;
+            case STOP:
+                stops.increment();
+                break;
+            default:
+                errors.increment();
+                break;
+        }
+        latency.record(latencyNanos);
+    }
+
+    /**
+     * 获取节点所属范围（路由节点类名或链路名称）。
+     *
+     * @return 范围
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * 获取节点名称（处理器类名）。
+     *
+     * @return 节点名称
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * 获取调用次数。
+     *
+     * @return 调用次数
+     */
+    public long getInvocations() {
+        return invocations.sum();
+    }
+
+    /**
+     * 获取规则树节点正常返回次数。
+     *
+     * @return 正常返回次数
+     */
+    public long getCompletions() {
+        return completions.sum();
+    }
+
+    /**
+     * 获取责任链节点放行次数。
+     *
+     * @return 放行次数
+     */
+    public long getNexts() {
+        return nexts.sum();
+    }
+
+    /**
+     * 获取责任链节点中断次数。
+     *
+     * @return 中断次数
+     */
+    public long getStops() {
+        return stops.sum();
+    }
+
+    /**
+     * 获取异常次数。
+     *
+     * @return 异常次数
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * 获取因请求超过截止时间而被跳过的次数。
+     *
+     * @return 跳过次数
+     */
+    public long getDeadlineExceeded() {
+        return deadlineExceeded.sum();
+    }
+
+    /**
+     * 获取被熔断器或隔离舱拒绝的次数。
+     *
+     * @return 拒绝次数
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * 获取延迟直方图。
+     *
+     * @return 延迟直方图（纳秒）
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * 清空指标。
+     */
+    public void reset() {
+        invocations.reset();
+        completions.reset();
+        nexts.reset();
+        stops.reset();
+        errors.reset();
+        deadlineExceeded.reset();
+        rejections.reset();
+        latency.reset();
+    }
+
+    @Override
+    public String toString() {
+        return scope + " / " + node
+                + " invocations=" + getInvocations()
+                + ", next=" + getNexts()
+                + ", stop=" + getStops()
+                + ", errors=" + getErrors()
+                + ", deadlineExceeded=" + getDeadlineExceeded()
+                + ", rejections=" + getRejections()
+                + ", p50=" + latency.getValueAtPercentile(50) + "ns"
+                + ", p99=" + latency.getValueAtPercentile(99) + "ns"
+                + ", max=" + latency.getMax() + "ns";
+    }
+
+}
@@ -0,0 +1,80 @@
+package com.zsq.winter.design.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 内置的内存指标记录器，按“范围 + 处理器类型”聚合 {@link NodeMetrics}。
+ *
+ * <p>使用方式：</p>
+ * <pre>{@code
+ * NodeMetricsRegistry registry = new NodeMetricsRegistry();
+ * Metrics.setRecorder(registry);
+ * ...
+ * registry.getNodeMetrics().forEach(System.out::println);
+ * }</pre>
+ *
+ * <p>节点首次出现时创建指标对象，之后的记录只做两次 Map 查找与计数，不分配对象。</p>
+ */
+public class NodeMetricsRegistry implements MetricsRecorder {
+
+    private static final String UNNAMED_SCOPE = "unnamed";
+
+    private final ConcurrentMap<String, ConcurrentMap<Class<?>, NodeMetrics>> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public void record(String scope, Object node, long latencyNanos, NodeOutcome outcome) {
+        nodeMetrics(null == scope ? UNNAMED_SCOPE : scope, node.getClass()).record(latencyNanos, outcome);
+    }
+
+    /**
+     * 获取指定节点的指标。
+     *
+     * @param scope    范围
+     * @param nodeType 处理器类型
+     * @return 指标；未记录过返回 {@code null}
+     */
+    public NodeMetrics getNodeMetrics(String scope, Class<?> nodeType) {
+        ConcurrentMap<Class<?>, NodeMetrics> nodes = metrics.get(null == scope ? UNNAMED_SCOPE : scope);
+        return null == nodes ? null : nodes.get(nodeType);
+    }
+
+    /**
+     * 获取全部节点的指标。
+     *
+     * @return 指标列表
+     */
+    public List<NodeMetrics> getNodeMetrics() {
+        List<NodeMetrics> result = new ArrayList<>();
+        for (ConcurrentMap<Class<?>, NodeMetrics> nodes : metrics.values()) {
+            result.addAll(nodes.values());
+        }
+        return result;
+    }
+
+    /**
+     * 清空全部节点的指标。
+     */
+    public void reset() {
+        for (ConcurrentMap<Class<?>, NodeMetrics> nodes : metrics.values()) {
+            for (NodeMetrics nodeMetrics : nodes.values()) {
+                nodeMetrics.reset();
+            }
+        }
+    }
+
+    private NodeMetrics nodeMetrics(String scope, Class<?> nodeType) {
+        ConcurrentMap<Class<?>, NodeMetrics> nodes = metrics.get(scope);
+        if (null == nodes) {
+            nodes = metrics.computeIfAbsent(scope, key -> new ConcurrentHashMap<>());
+        }
+        NodeMetrics nodeMetrics = nodes.get(nodeType);
+        if (null == nodeMetrics) {
+            nodeMetrics = nodes.computeIfAbsent(nodeType, type -> new NodeMetrics(scope, type.getName()));
+        }
+        return nodeMetrics;
+    }
+
+}
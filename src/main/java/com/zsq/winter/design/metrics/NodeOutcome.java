@@ -0,0 +1,38 @@
+package com.zsq.winter.design.metrics;
+
+/**
+ * 节点一次调用的结果类型。
+ */
+public enum NodeOutcome {
+
+    /**
+     * 规则树节点正常返回。
+     */
+    COMPLETED,
+
+    /**
+     * 责任链节点放行，链路继续向后执行（{@code next}）。
+     */
+    NEXT,
+
+    /**
+     * 责任链节点中断链路（{@code stop}）。
+     */
+    STOP,
+
+    /**
+     * 节点抛出异常。
+     */
+    ERROR,
+
+    /**
+     * 请求已超过截止时间，节点被跳过、未执行。
+     */
+    DEADLINE_EXCEEDED,
+
+    /**
+     * 熔断器打开或隔离舱已满，节点被拒绝、未执行。
+     */
+    REJECTED
+
+}
@@ -0,0 +1,124 @@
+package com.zsq.winter.design.resilience;
+
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 信号量隔离舱：限制同时执行某个策略的调用数，下游变慢时只占满自己的配额，不会拖住全部调用线程。
+ *
+ * <p>默认不等待，配额用尽时立即拒绝；也可设置最长等待时间。信号量为非公平模式，未争用时获取与释放各是一次 CAS。</p>
+ */
+public final class Bulkhead {
+
+    private final String name;
+
+    private final int maxConcurrentCalls;
+
+    private final long maxWaitNanos;
+
+    private final Semaphore semaphore;
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * 创建不等待的隔离舱。
+     *
+     * @param name               隔离舱名称
+     * @param maxConcurrentCalls 最大并发调用数
+     */
+    public Bulkhead(String name, int maxConcurrentCalls) {
+        this(name, maxConcurrentCalls, 0, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 创建隔离舱。
+     *
+     * @param name               隔离舱名称
+     * @param maxConcurrentCalls 最大并发调用数
+     * @param maxWait            配额用尽时的最长等待时间，{@code 0} 表示不等待
+     * @param unit               时间单位
+     */
+    public Bulkhead(String name, int maxConcurrentCalls, long maxWait, TimeUnit unit) {
+        if (maxConcurrentCalls <= 0) {
+            throw new IllegalArgumentException("maxConcurrentCalls must be positive, maxConcurrentCalls=" + maxConcurrentCalls);
+        }
+        if (maxWait < 0) throw new IllegalArgumentException("maxWait must not be negative, maxWait=" + maxWait);
+        this.name = Objects.requireNonNull(name, "name must not be null");
+        this.maxConcurrentCalls = maxConcurrentCalls;
+        this.maxWaitNanos = unit.toNanos(maxWait);
+        this.semaphore = new Semaphore(maxConcurrentCalls, false);
+    }
+
+    /**
+     * 尝试占用一个配额；等待期间线程被中断时恢复中断标记并返回 {@code false}。
+     *
+     * @return 是否占用成功，成功后须调用 {@link #release()}
+     */
+    public boolean tryAcquire() {
+        boolean acquired;
+        if (maxWaitNanos == 0) {
+            acquired = semaphore.tryAcquire();
+        } else {
+            try {
+                acquired = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                acquired = false;
+            }
+        }
+        if (!acquired) rejectedCount.increment();
+        return acquired;
+    }
+
+    /**
+     * 归还配额。
+     */
+    public void release() {
+        semaphore.release();
+    }
+
+    /**
+     * 获取当前可用的配额数。
+     *
+     * @return 可用配额数
+     */
+    public int getAvailableCalls() {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     * 获取最大并发调用数。
+     *
+     * @return 最大并发调用数
+     */
+    public int getMaxConcurrentCalls() {
+        return maxConcurrentCalls;
+    }
+
+    /**
+     * 获取被拒绝的调用次数。
+     *
+     * @return 拒绝次数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    /**
+     * 获取隔离舱名称。
+     *
+     * @return 名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "Bulkhead{name=" + name + ", available=" + getAvailableCalls() + "/" + maxConcurrentCalls
+                + ", rejected=" + getRejectedCount() + "}";
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.zsq.winter.design.resilience;
+
+/**
+ * 调用被熔断器或隔离舱拒绝且没有降级处理时抛出。
+ *
+ * <p>拒绝发生在下游故障期间，频率可能很高，因此不填充堆栈。</p>
+ */
+public class CallNotPermittedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CallNotPermittedException(String message) {
+        super(message, null, false, false);
+    }
+
+}
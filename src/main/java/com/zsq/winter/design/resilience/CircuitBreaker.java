@@ -0,0 +1,394 @@
+package com.zsq.winter.design.resilience;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁熔断器：以最近 {@code windowSize} 次调用的失败率与慢调用率决定是否放行。
+ *
+ * <ul>
+ *   <li>关闭（{@link State#CLOSED}）：全部放行，调用结果写入环形滑动窗口；窗口内调用数达到 {@code minimumCalls}
+ *   且失败率或慢调用率达到阈值时转为打开；</li>
+ *   <li>打开（{@link State#OPEN}）：全部拒绝，持续 {@code openDuration} 后第一个到达的调用将其转为半开；</li>
+ *   <li>半开（{@link State#HALF_OPEN}）：只放行 {@code halfOpenCalls} 个探测调用，全部完成后按同样的阈值决定关闭或重新打开。</li>
+ * </ul>
+ *
+ * <p>每个状态对应一个不可变的阶段对象，状态切换是对阶段引用的一次 CAS；{@link #tryAcquire()} 返回的许可绑定到发放时的阶段，
+ * 阶段切换后才完成的调用不会影响新阶段的统计。整个过程不加锁，窗口统计为近似值，足以用于熔断判断。</p>
+ *
+ * <pre>{@code
+ * CircuitBreaker breaker = CircuitBreaker.builder("risk")
+ *         .failureRateThreshold(50)
+ *         .slowCall(200, TimeUnit.MILLISECONDS, 80)
+ *         .openDuration(10, TimeUnit.SECONDS)
+ *         .build();
+ * }</pre>
+ */
+public final class CircuitBreaker {
+
+    /**
+     * 熔断器状态。
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private static final int RECORDED = 1;
+
+    private static final int FAILED = 2;
+
+    private static final int SLOW = 4;
+
+    private final String name;
+
+    private final int windowSize;
+
+    private final int minimumCalls;
+
+    private final int halfOpenCalls;
+
+    private final double failureRateThreshold;
+
+    private final double slowCallRateThreshold;
+
+    /**
+     * 慢调用阈值（纳秒），{@code 0} 表示不统计慢调用。
+     */
+    private final long slowCallNanos;
+
+    private final long openNanos;
+
+    private final AtomicReference<Permit> phase;
+
+    private final LongAdder notPermittedCount = new LongAdder();
+
+    private CircuitBreaker(Builder builder) {
+        this.name = builder.name;
+        this.windowSize = builder.windowSize;
+        this.minimumCalls = Math.min(builder.minimumCalls, builder.windowSize);
+        this.halfOpenCalls = builder.halfOpenCalls;
+        this.failureRateThreshold = builder.failureRateThreshold;
+        this.slowCallRateThreshold = builder.slowCallRateThreshold;
+        this.slowCallNanos = builder.slowCallNanos;
+        this.openNanos = builder.openNanos;
+        this.phase = new AtomicReference<>(closed());
+    }
+
+    /**
+     * 创建熔断器构建器。
+     *
+     * @param name 熔断器名称，用于日志与异常信息
+     * @return 构建器
+     */
+    public static Builder builder(String name) {
+        return new Builder(name);
+    }
+
+    /**
+     * 尝试获取调用许可。
+     *
+     * @return 许可，调用结束后须传给 {@link #onComplete(Permit, long, boolean)}；熔断器拒绝时返回 {@code null}
+     */
+    public Permit tryAcquire() {
+        for (;;) {
+            Permit current = phase.get();
+            switch (current.state) {
+                case CLOSED:
+                    return current;
+                case HALF_OPEN:
+                    if (current.permits.decrementAndGet() >= 0) return current;
+                    notPermittedCount.increment();
+                    return null;
+                default:
+                    if (System.nanoTime() - current.openUntil < 0) {
+                        notPermittedCount.increment();
+                        return null;
+                    }
+                    phase.compareAndSet(current, halfOpen());
+            }
+        }
+    }
+
+    /**
+     * 记录一次调用的结果。
+     *
+     * @param permit       {@link #tryAcquire()} 返回的许可
+     * @param elapsedNanos 调用耗时（纳秒）
+     * @param failed       调用是否失败
+     */
+    public void onComplete(Permit permit, long elapsedNanos, boolean failed) {
+        int outcome = RECORDED | (failed ? FAILED : 0) | (slowCallNanos > 0 && elapsedNanos >= slowCallNanos ? SLOW : 0);
+        if (permit.state == State.CLOSED) {
+            recordClosed(permit, outcome);
+        } else if (permit.state == State.HALF_OPEN) {
+            recordHalfOpen(permit, outcome);
+        }
+    }
+
+    /**
+     * 获取当前状态。
+     *
+     * @return 当前状态
+     */
+    public State getState() {
+        return phase.get().state;
+    }
+
+    /**
+     * 获取当前阶段的失败率。
+     *
+     * @return 失败率（百分比）；调用数不足 {@code minimumCalls}（半开时为探测调用未全部完成）或处于打开状态时返回 {@code -1}
+     */
+    public double getFailureRate() {
+        Permit current = phase.get();
+        int calls = current.calls.get();
+        int required = current.state == State.HALF_OPEN ? halfOpenCalls : minimumCalls;
+        if (current.state == State.OPEN || calls < required) return -1;
+        return current.failures.get() * 100.0 / calls;
+    }
+
+    /**
+     * 获取被拒绝的调用次数。
+     *
+     * @return 拒绝次数
+     */
+    public long getNotPermittedCount() {
+        return notPermittedCount.sum();
+    }
+
+    /**
+     * 获取熔断器名称。
+     *
+     * @return 名称
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 强制转为关闭状态并清空窗口。
+     */
+    public void reset() {
+        phase.set(closed());
+    }
+
+    /**
+     * 强制转为打开状态，持续 {@code openDuration}。
+     */
+    public void forceOpen() {
+        phase.set(open());
+    }
+
+    @Override
+    public String toString() {
+        return "CircuitBreaker{name=" + name + ", state=" + getState() + ", failureRate=" + getFailureRate()
+                + ", notPermitted=" + getNotPermittedCount() + "}";
+    }
+
+    private void recordClosed(Permit permit, int outcome) {
+        int index = (int) (permit.cursor.getAndIncrement() % windowSize);
+        int previous = permit.outcomes.getAndSet(index, outcome);
+        int calls = (previous & RECORDED) == 0 ? permit.calls.incrementAndGet() : permit.calls.get();
+        int failures = adjust(permit.failures, previous, outcome, FAILED);
+        int slows = adjust(permit.slows, previous, outcome, SLOW);
+        if (calls >= minimumCalls && exceeded(calls, failures, slows)) {
+            phase.compareAndSet(permit, open());
+        }
+    }
+
+    private void recordHalfOpen(Permit permit, int outcome) {
+        int failures = (outcome & FAILED) != 0 ? permit.failures.incrementAndGet() : permit.failures.get();
+        int slows = (outcome & SLOW) != 0 ? permit.slows.incrementAndGet() : permit.slows.get();
+        int calls = permit.calls.incrementAndGet();
+        if (calls < halfOpenCalls) return;
+        // 并发完成时计数可能互相滞后，以最后一个完成者为准重新读取
+        failures = Math.max(failures, permit.failures.get());
+        slows = Math.max(slows, permit.slows.get());
+        phase.compareAndSet(permit, exceeded(calls, failures, slows) ? open() : closed());
+    }
+
+    private boolean exceeded(int calls, int failures, int slows) {
+        return failures * 100.0 >= failureRateThreshold * calls
+                || (slowCallNanos > 0 && slows * 100.0 >= slowCallRateThreshold * calls);
+    }
+
+    private static int adjust(AtomicInteger counter, int previous, int outcome, int flag) {
+        int delta = ((outcome & flag) != 0 ? 1 : 0) - ((previous & flag) != 0 ? 1 : 0);
+        return delta == 0 ? counter.get() : counter.addAndGet(delta);
+    }
+
+    private Permit closed() {
+        return new Permit(State.CLOSED, 0L, new AtomicIntegerArray(windowSize), 0);
+    }
+
+    private Permit open() {
+        return new Permit(State.OPEN, System.nanoTime() + openNanos, null, 0);
+    }
+
+    private Permit halfOpen() {
+        return new Permit(State.HALF_OPEN, 0L, null, halfOpenCalls);
+    }
+
+    /**
+     * 调用许可，同时也是熔断器某一阶段的状态；对调用方不透明，也用作 {@link Guard} 的执行许可。
+     */
+    public static final class Permit {
+
+        final State state;
+
+        /**
+         * 打开状态的结束时刻。
+         */
+        final long openUntil;
+
+        /**
+         * 关闭状态的环形窗口，每个元素为一次调用的结果标记。
+         */
+        final AtomicIntegerArray outcomes;
+
+        final AtomicLong cursor = new AtomicLong();
+
+        /**
+         * 半开状态剩余的探测许可。
+         */
+        final AtomicInteger permits;
+
+        final AtomicInteger calls = new AtomicInteger();
+
+        final AtomicInteger failures = new AtomicInteger();
+
+        final AtomicInteger slows = new AtomicInteger();
+
+        Permit(State state, long openUntil, AtomicIntegerArray outcomes, int permits) {
+            this.state = state;
+            this.openUntil = openUntil;
+            this.outcomes = outcomes;
+            this.permits = new AtomicInteger(permits);
+        }
+
+    }
+
+    /**
+     * 熔断器构建器。
+     */
+    public static final class Builder {
+
+        private final String name;
+
+        private int windowSize = 100;
+
+        private int minimumCalls = 20;
+
+        private int halfOpenCalls = 10;
+
+        private double failureRateThreshold = 50;
+
+        private double slowCallRateThreshold = 100;
+
+        private long slowCallNanos;
+
+        private long openNanos = TimeUnit.SECONDS.toNanos(30);
+
+        private Builder(String name) {
+            this.name = Objects.requireNonNull(name, "name must not be null");
+        }
+
+        /**
+         * 设置滑动窗口大小（最近多少次调用），默认 100。
+         *
+         * @param windowSize 窗口大小
+         * @return 当前构建器
+         */
+        public Builder windowSize(int windowSize) {
+            this.windowSize = positive(windowSize, "windowSize");
+            return this;
+        }
+
+        /**
+         * 设置计算失败率所需的最少调用数，默认 20。
+         *
+         * @param minimumCalls 最少调用数
+         * @return 当前构建器
+         */
+        public Builder minimumCalls(int minimumCalls) {
+            this.minimumCalls = positive(minimumCalls, "minimumCalls");
+            return this;
+        }
+
+        /**
+         * 设置半开状态放行的探测调用数，默认 10。
+         *
+         * @param halfOpenCalls 探测调用数
+         * @return 当前构建器
+         */
+        public Builder halfOpenCalls(int halfOpenCalls) {
+            this.halfOpenCalls = positive(halfOpenCalls, "halfOpenCalls");
+            return this;
+        }
+
+        /**
+         * 设置失败率阈值，默认 50。
+         *
+         * @param percent 百分比，取值 (0, 100]
+         * @return 当前构建器
+         */
+        public Builder failureRateThreshold(double percent) {
+            this.failureRateThreshold = percent(percent, "failureRateThreshold");
+            return this;
+        }
+
+        /**
+         * 开启慢调用统计，默认不统计。
+         *
+         * @param duration 耗时达到该值即为慢调用
+         * @param unit     时间单位
+         * @param percent  慢调用率阈值，取值 (0, 100]
+         * @return 当前构建器
+         */
+        public Builder slowCall(long duration, TimeUnit unit, double percent) {
+            if (duration <= 0) throw new IllegalArgumentException("slow call duration must be positive, duration=" + duration);
+            this.slowCallNanos = unit.toNanos(duration);
+            this.slowCallRateThreshold = percent(percent, "slowCallRateThreshold");
+            return this;
+        }
+
+        /**
+         * 设置打开状态的持续时间，默认 30 秒。
+         *
+         * @param duration 持续时间
+         * @param unit     时间单位
+         * @return 当前构建器
+         */
+        public Builder openDuration(long duration, TimeUnit unit) {
+            if (duration < 0) throw new IllegalArgumentException("open duration must not be negative, duration=" + duration);
+            this.openNanos = unit.toNanos(duration);
+            return this;
+        }
+
+        /**
+         * 创建熔断器，初始为关闭状态。
+         *
+         * @return 熔断器
+         */
+        public CircuitBreaker build() {
+            return new CircuitBreaker(this);
+        }
+
+        private static int positive(int value, String name) {
+            if (value <= 0) throw new IllegalArgumentException(name + " must be positive, " + name + "=" + value);
+            return value;
+        }
+
+        private static double percent(double value, String name) {
+            if (value <= 0 || value > 100) throw new IllegalArgumentException(name + " must be in (0, 100], " + name + "=" + value);
+            return value;
+        }
+
+    }
+
+}
@@ -0,0 +1,173 @@
+package com.zsq.winter.design.resilience;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 熔断器与隔离舱的组合，包裹单个策略或规则树节点的调用。
+ *
+ * <p>先占用隔离舱配额再向熔断器申请许可，熔断器拒绝时立即归还配额；被拒绝的调用不执行目标，直接走降级处理，
+ * 因此下游故障期间调用方只付出一次 CAS 的代价，不会等待超时。目标抛出的任何异常都计为失败。</p>
+ *
+ * <pre>{@code
+ * Guard guard = Guard.of(CircuitBreaker.builder("risk").build(), new Bulkhead("risk", 32));
+ * Res res = guard.call(() -> riskClient.check(req), () -> Res.degraded());
+ * }</pre>
+ */
+public final class Guard {
+
+    /**
+     * 仅有隔离舱时使用的许可。
+     */
+    private static final CircuitBreaker.Permit BULKHEAD_ONLY = new CircuitBreaker.Permit(CircuitBreaker.State.CLOSED, 0L, null, 0);
+
+    private final CircuitBreaker circuitBreaker;
+
+    private final Bulkhead bulkhead;
+
+    private Guard(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        if (null == circuitBreaker && null == bulkhead) {
+            throw new IllegalArgumentException("circuitBreaker 与 bulkhead 至少指定一个");
+        }
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    /**
+     * 只使用熔断器。
+     *
+     * @param circuitBreaker 熔断器
+     * @return 组合
+     */
+    public static Guard of(CircuitBreaker circuitBreaker) {
+        return new Guard(circuitBreaker, null);
+    }
+
+    /**
+     * 只使用隔离舱。
+     *
+     * @param bulkhead 隔离舱
+     * @return 组合
+     */
+    public static Guard of(Bulkhead bulkhead) {
+        return new Guard(null, bulkhead);
+    }
+
+    /**
+     * 同时使用熔断器与隔离舱，任一为 {@code null} 表示不使用。
+     *
+     * @param circuitBreaker 熔断器
+     * @param bulkhead       隔离舱
+     * @return 组合
+     */
+    public static Guard of(CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        return new Guard(circuitBreaker, bulkhead);
+    }
+
+    /**
+     * 申请执行许可。
+     *
+     * @return 许可，调用结束后须传给 {@link #exit(CircuitBreaker.Permit, long, boolean)}；被拒绝时返回 {@code null}
+     */
+    public CircuitBreaker.Permit tryEnter() {
+        if (null != bulkhead && !bulkhead.tryAcquire()) return null;
+        if (null == circuitBreaker) return BULKHEAD_ONLY;
+        CircuitBreaker.Permit permit = circuitBreaker.tryAcquire();
+        if (null == permit) {
+            if (null != bulkhead) bulkhead.release();
+            return null;
+        }
+        return permit;
+    }
+
+    /**
+     * 归还许可并记录调用结果。
+     *
+     * @param permit       {@link #tryEnter()} 返回的许可
+     * @param elapsedNanos 调用耗时（纳秒）
+     * @param failed       调用是否失败
+     */
+    public void exit(CircuitBreaker.Permit permit, long elapsedNanos, boolean failed) {
+        if (null != bulkhead) bulkhead.release();
+        if (null != circuitBreaker) circuitBreaker.onComplete(permit, elapsedNanos, failed);
+    }
+
+    /**
+     * 在保护下执行调用。
+     *
+     * @param action   目标调用
+     * @param fallback 被拒绝时的降级调用，为 {@code null} 时抛出 {@link CallNotPermittedException}
+     * @param <V>      返回值类型
+     * @return 目标或降级调用的结果
+     * @throws Exception 目标或降级调用抛出的异常
+     */
+    public <V> V call(Callable<V> action, Callable<V> fallback) throws Exception {
+        CircuitBreaker.Permit permit = tryEnter();
+        if (null == permit) {
+            if (null == fallback) throw notPermitted();
+            return fallback.call();
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            V result = action.call();
+            failed = false;
+            return result;
+        } finally {
+            exit(permit, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * 在保护下执行无返回值的调用。
+     *
+     * @param action   目标调用
+     * @param fallback 被拒绝时的降级调用，为 {@code null} 时抛出 {@link CallNotPermittedException}
+     */
+    public void run(Runnable action, Runnable fallback) {
+        CircuitBreaker.Permit permit = tryEnter();
+        if (null == permit) {
+            if (null == fallback) throw notPermitted();
+            fallback.run();
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            action.run();
+            failed = false;
+        } finally {
+            exit(permit, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * 创建拒绝异常，说明拒绝来源。
+     *
+     * @return 拒绝异常
+     */
+    public CallNotPermittedException notPermitted() {
+        String source = null == bulkhead || (null != circuitBreaker && circuitBreaker.getState() != CircuitBreaker.State.CLOSED)
+                ? "熔断器 " + circuitBreaker.getName() + " 处于 " + circuitBreaker.getState() + " 状态"
+                : "隔离舱 " + bulkhead.getName() + " 配额已满";
+        return new CallNotPermittedException("调用被拒绝，" + source);
+    }
+
+    /**
+     * 获取熔断器。
+     *
+     * @return 熔断器，未使用时为 {@code null}
+     */
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    /**
+     * 获取隔离舱。
+     *
+     * @return 隔离舱，未使用时为 {@code null}
+     */
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.zsq.winter.design.resilience;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁令牌桶限流器，按固定速率补充令牌，允许积攒不超过 {@code burst} 个令牌应对突发。
+ *
+ * <p>实现为通用信元速率算法（GCRA）：只保存“理论上下一个令牌的到达时刻”，获取令牌是一次读取加一次 CAS，
+ * 不需要后台线程补充令牌，也不加锁。获取失败时立即返回，不等待。</p>
+ */
+public final class RateLimiter {
+
+    /**
+     * 产生一个令牌的间隔（纳秒）。
+     */
+    private final long intervalNanos;
+
+    /**
+     * 可积攒的令牌对应的时长（纳秒）。
+     */
+    private final long burstNanos;
+
+    private final double permitsPerSecond;
+
+    private final AtomicLong theoreticalArrival;
+
+    private final LongAdder rejectedCount = new LongAdder();
+
+    /**
+     * 创建限流器，突发容量为 1 秒的令牌数（至少 1 个）。
+     *
+     * @param permitsPerSecond 每秒令牌数
+     */
+    public RateLimiter(double permitsPerSecond) {
+        this(permitsPerSecond, Math.max(1, (int) permitsPerSecond));
+    }
+
+    /**
+     * 创建限流器。
+     *
+     * @param permitsPerSecond 每秒令牌数
+     * @param burst            可积攒的最大令牌数
+     */
+    public RateLimiter(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("permitsPerSecond must be positive, permitsPerSecond=" + permitsPerSecond);
+        }
+        if (burst <= 0) throw new IllegalArgumentException("burst must be positive, burst=" + burst);
+        this.permitsPerSecond = permitsPerSecond;
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * burst;
+        // 初始即拥有满桶令牌
+        this.theoreticalArrival = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    /**
+     * 尝试获取一个令牌。
+     *
+     * @return 是否获取成功
+     */
+    public boolean tryAcquire() {
+        long now = System.nanoTime();
+        for (;;) {
+            long arrival = theoreticalArrival.get();
+            long next = (arrival - now < 0 ? now : arrival) + intervalNanos;
+            if (next - now > burstNanos) {
+                rejectedCount.increment();
+                return false;
+            }
+            if (theoreticalArrival.compareAndSet(arrival, next)) return true;
+        }
+    }
+
+    /**
+     * 获取每秒令牌数。
+     *
+     * @return 每秒令牌数
+     */
+    public double getPermitsPerSecond() {
+        return permitsPerSecond;
+    }
+
+    /**
+     * 获取因令牌不足被拒绝的次数。
+     *
+     * @return 拒绝次数
+     */
+    public long getRejectedCount() {
+        return rejectedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RateLimiter{permitsPerSecond=" + permitsPerSecond + ", burst=" + burstNanos / intervalNanos
+                + ", rejected=" + getRejectedCount() + "}";
+    }
+
+}
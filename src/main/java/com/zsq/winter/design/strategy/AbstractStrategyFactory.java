@@ -1,6 +1,14 @@
 package com.zsq.winter.design.strategy;
 
+import com.zsq.winter.design.resilience.CallNotPermittedException;
+import com.zsq.winter.design.resilience.CircuitBreaker;
+import com.zsq.winter.design.resilience.Guard;
+
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 
 /**
  * 通用策略工厂，支持通过 Java SPI 与手动注册两种方式组合加载策略实现。
@@ -28,8 +36,34 @@ import java.util.*;
  * </ul>
  * </p>
  *
+ * <p>启动加速（{@link SpiLoadMode#LAZY}）：
+ * <ul>
+ *   <li>构造时只发现实现类不实例化，标注了 {@link StrategyCode} 的实现在其 {@code code} 首次被查找时才实例化；</li>
+ *   <li>可传入执行器在后台并行预热全部延迟实现，预热进度见 {@link #getSpiWarmUp()}；</li>
+ *   <li>每个实现的发现、实例化耗时与失败原因记录在 {@link #getSpiLoadReport()} 中，失败同时回调 {@link #onSpiLoadFailure(SpiProviderRecord)}，
+ *       单个实现失败不影响其他实现的加载。</li>
+ * </ul>
+ * </p>
+ *
+ * <p>加权选择：
+ * <ul>
+ *   <li>通过 {@link #registerWeightedStrategies(Enum, List)} 为同一 {@code code} 注册多个候选策略，查找时按权重随机选择，用于灰度发布与流量整形；</li>
+ *   <li>候选可配置令牌桶限流，令牌不足时溢出到下一个候选；全部候选饱和时回退到该 {@code code} 的普通注册策略（未注册则为 {@code null}）；</li>
+ *   <li>选择基于别名法，一次随机数加一次比较，不分配对象。</li>
+ * </ul>
+ * </p>
+ *
+ * <p>熔断与隔离：
+ * <ul>
+ *   <li>通过 {@link #guardStrategy(Enum, Guard, Enum)} 为单个策略挂上熔断器与隔离舱，经 {@link #execute(Enum, Object...)} 执行时生效；</li>
+ *   <li>被拒绝的调用不执行该策略，改为执行指定的降级策略，下游故障只影响被保护的策略，调用方无需等待超时。</li>
+ * </ul>
+ * </p>
+ *
  * <p>线程安全：
- * <br>默认实现未做并发保护，建议在应用启动阶段完成策略注册；如需在运行期动态变更，可在外层加同步控制。</p>
+ * <br>注册表采用写时复制：查找路径只读取一个 volatile 引用指向的不可变快照，无锁且始终看到完整一致的策略集合；
+ * 注册、替换、注销与整体切换在内部互斥后基于当前快照生成新版本并原子发布。
+ * 因此可在运行期热部署策略插件而无需重启，写操作开销与策略数量成正比，应远少于查找。</p>
  *
  * <p>支付场景示例（SPI + 手动一起使用）：
  * <pre>{@code
@@ -67,7 +101,32 @@ public abstract class AbstractStrategyFactory<
         T extends Enum<T> & BaseEnum,
         S extends BaseStrategy<T>> {
 
-    private final Map<String, S> strategyMap = new LinkedHashMap<>();
+    /**
+     * 当前生效的 {@code code -> strategy} 不可变快照，只会整体替换。
+     */
+    private volatile Map<String, S> strategyMap = Collections.emptyMap();
+    /**
+     * 当前生效的 {@code code -> 保护配置} 不可变快照，只会整体替换。
+     */
+    private volatile Map<String, GuardBinding> guardMap = Collections.emptyMap();
+    /**
+     * 当前生效的 {@code code -> 加权选择器} 不可变快照，只会整体替换。
+     */
+    private volatile Map<String, WeightedSelector<S>> weightedMap = Collections.emptyMap();
+    /**
+     * 写操作互斥锁，查找路径不使用。
+     */
+    private final Object writeLock = new Object();
+    /**
+     * 已发现、尚未实例化的 SPI 实现（仅 {@link SpiLoadMode#LAZY} 模式）。
+     */
+    private final ConcurrentHashMap<String, SpiProviders.Provider<S>> pendingProviders = new ConcurrentHashMap<>();
+    /**
+     * 是否仍有待实例化的 SPI 实现，未命中时才读取。
+     */
+    private volatile boolean hasPendingProviders;
+    private final SpiLoadReport spiLoadReport = new SpiLoadReport();
+    private final CompletableFuture<Void> spiWarmUp;
     private final Class<S> strategyClass;
 
     /**
@@ -89,9 +148,24 @@ public abstract class AbstractStrategyFactory<
      * @param extraStrategies 需要额外注册的策略列表，可为空
      */
     protected AbstractStrategyFactory(Class<S> strategyClass, List<S> extraStrategies) {
+        this(strategyClass, extraStrategies, SpiLoadMode.EAGER, null);
+    }
+
+    /**
+     * 构造函数：按指定模式通过 SPI 加载 + 手动注册额外策略。
+     *
+     * <p>注意：SPI 加载失败时回调的 {@link #onSpiLoadFailure(SpiProviderRecord)} 在构造期间执行，此时子类字段尚未初始化。</p>
+     *
+     * @param strategyClass 策略接口的 {@link Class}
+     * @param extraStrategies 需要额外注册的策略列表，可为空
+     * @param spiLoadMode SPI 加载模式
+     * @param warmUpExecutor 延迟模式下用于后台并行预热的执行器，为 {@code null} 时不预热
+     */
+    protected AbstractStrategyFactory(Class<S> strategyClass, List<S> extraStrategies, SpiLoadMode spiLoadMode, Executor warmUpExecutor) {
         this.strategyClass = strategyClass;
-        loadBySpi();
+        loadBySpi(Objects.requireNonNull(spiLoadMode, "spiLoadMode must not be null"));
         registerStrategies(extraStrategies);
+        this.spiWarmUp = warmUp(warmUpExecutor);
     }
 
     /**
@@ -101,24 +175,103 @@ public abstract class AbstractStrategyFactory<
      * @throws IllegalStateException 当存在重复 {@code code} 时抛出
      */
     public void registerStrategy(S strategy) {
-        Objects.requireNonNull(strategy, "strategy must not be null");
-        T type = Objects.requireNonNull(strategy.getStrategyType(), "strategyType must not be null");
-        String code = type.getCode();
-        S previous = strategyMap.putIfAbsent(code, strategy);
-        if (previous != null) {
-            throw new IllegalStateException("重复注册策略，code=" + code);
-        }
+        registerStrategies(Collections.singletonList(strategy));
     }
 
     /**
      * 批量注册策略实现。
      *
+     * <p>整批原子生效：只要有一个 {@code code} 重复，整批都不会注册。</p>
+     *
      * @param strategies 策略集合，为空时忽略
+     * @throws IllegalStateException 当存在重复 {@code code} 时抛出
      */
     public void registerStrategies(Collection<S> strategies) {
-        if (strategies == null) return;
-        for (S s : strategies) {
-            registerStrategy(s);
+        if (strategies == null || strategies.isEmpty()) return;
+        synchronized (writeLock) {
+            Map<String, S> updated = new LinkedHashMap<>(strategyMap);
+            for (S strategy : strategies) {
+                String code = codeOf(strategy);
+                if (updated.putIfAbsent(code, strategy) != null || pendingProviders.containsKey(code)) {
+                    throw new IllegalStateException("重复注册策略，code=" + code);
+                }
+            }
+            publish(updated);
+        }
+    }
+
+    /**
+     * 注册或替换策略实现：{@code code} 已存在时以新策略覆盖。
+     *
+     * @param strategy 策略实现实例，需返回非空的枚举类型
+     * @return 被替换的旧策略；此前未注册返回 {@code null}
+     */
+    public S replaceStrategy(S strategy) {
+        String code = codeOf(strategy);
+        synchronized (writeLock) {
+            discardPending(code);
+            Map<String, S> updated = new LinkedHashMap<>(strategyMap);
+            S previous = updated.put(code, strategy);
+            publish(updated);
+            return previous;
+        }
+    }
+
+    /**
+     * 注销策略实现。
+     *
+     * @param type 策略枚举类型
+     * @return 被注销的策略；未注册返回 {@code null}
+     */
+    public S unregisterStrategy(T type) {
+        return unregisterStrategy(type.getCode());
+    }
+
+    /**
+     * 按 {@code code} 注销策略实现，同时移除该 {@code code} 的加权候选、保护配置及以它为降级策略的保护配置。
+     *
+     * @param code 枚举的唯一标识
+     * @return 被注销的策略；未注册返回 {@code null}
+     */
+    public S unregisterStrategy(String code) {
+        synchronized (writeLock) {
+            discardPending(code);
+            S previous = null;
+            if (strategyMap.containsKey(code)) {
+                Map<String, S> updated = new LinkedHashMap<>(strategyMap);
+                previous = updated.remove(code);
+                publish(updated);
+            }
+            pruneWeighted(code::equals);
+            pruneGuards(code::equals);
+            return previous;
+        }
+    }
+
+    /**
+     * 以一组新的策略整体替换当前注册表，查找方要么看到旧的整套策略，要么看到新的整套策略。
+     *
+     * <p>旧的加权候选（引用的是旧策略实例）全部移除；策略或降级策略不在新集合中的保护配置一并移除。</p>
+     *
+     * @param strategies 新的策略集合，为空时清空注册表
+     * @throws IllegalStateException 当集合内存在重复 {@code code} 时抛出，注册表保持不变
+     */
+    public void swapStrategies(Collection<S> strategies) {
+        Map<String, S> updated = new LinkedHashMap<>();
+        if (strategies != null) {
+            for (S strategy : strategies) {
+                String code = codeOf(strategy);
+                if (updated.putIfAbsent(code, strategy) != null) {
+                    throw new IllegalStateException("重复注册策略，code=" + code);
+                }
+            }
+        }
+        synchronized (writeLock) {
+            pendingProviders.clear();
+            hasPendingProviders = false;
+            publish(updated);
+            pruneWeighted(code -> true);
+            pruneGuards(code -> !updated.containsKey(code));
         }
     }
 
@@ -129,42 +282,395 @@ public abstract class AbstractStrategyFactory<
      * @return 匹配的策略实现，若未注册则返回 {@code null}
      */
     public S getStrategy(T type) {
-        return strategyMap.get(type.getCode());
+        return getStrategy(type.getCode());
     }
 
     /**
      * 通过整型 {@code code} 获取策略实现。
      *
+     * <p>先直接按 {@code code} 查找已注册策略，命中时不再经过枚举转换；
+     * 仅在未命中时校验 {@code code} 是否属于该枚举类型。</p>
+     *
      * @param code 枚举的唯一数值标识
      * @param enumClass 枚举的 {@link Class}
      * @return 匹配的策略实现，若未注册则返回 {@code null}
      * @throws IllegalArgumentException 当 {@code code} 不属于该枚举类型时抛出
      */
     public S getStrategy(String code, Class<T> enumClass) {
-        T type = EnumUtils.getByCode(enumClass, code);
-        return strategyMap.get(type.getCode());
+        S strategy = getStrategy(code);
+        if (strategy != null) return strategy;
+        EnumUtils.getByCode(enumClass, code);
+        return null;
+    }
+
+    /**
+     * 直接通过 {@code code} 获取策略实现，不做枚举校验。
+     *
+     * <p>该 {@code code} 注册了加权候选时按权重选择，候选全部被限流时回退到普通注册的策略。</p>
+     *
+     * @param code 枚举的唯一标识
+     * @return 匹配的策略实现，若未注册（或 {@code code} 为 {@code null}）则返回 {@code null}
+     */
+    public S getStrategy(String code) {
+        if (code == null) return null;
+        Map<String, WeightedSelector<S>> weighted = weightedMap;
+        if (!weighted.isEmpty()) {
+            WeightedSelector<S> selector = weighted.get(code);
+            if (selector != null) {
+                S selected = selector.select();
+                if (selected != null) return selected;
+            }
+        }
+        S strategy = strategyMap.get(code);
+        if (strategy == null && hasPendingProviders) strategy = loadDeferred(code);
+        return strategy;
+    }
+
+    /**
+     * 为同一 {@code code} 注册一组加权候选策略，已有的候选整组被替换；查找该 {@code code} 时优先从候选中选择。
+     *
+     * @param type 策略枚举类型
+     * @param candidates 候选策略，策略类型须与 {@code type} 一致
+     * @throws IllegalArgumentException 候选为空或策略类型不一致时抛出
+     */
+    public void registerWeightedStrategies(T type, List<? extends WeightedStrategy<? extends S>> candidates) {
+        String code = type.getCode();
+        if (candidates == null || candidates.isEmpty()) {
+            throw new IllegalArgumentException("加权候选策略不能为空，code=" + code);
+        }
+        for (WeightedStrategy<? extends S> candidate : candidates) {
+            String candidateCode = codeOf(candidate.getStrategy());
+            if (!code.equals(candidateCode)) {
+                throw new IllegalArgumentException("候选策略类型不一致，code=" + code + " candidate=" + candidateCode);
+            }
+        }
+        WeightedSelector<S> selector = new WeightedSelector<>(new ArrayList<>(candidates));
+        synchronized (writeLock) {
+            Map<String, WeightedSelector<S>> updated = new HashMap<>(weightedMap);
+            updated.put(code, selector);
+            weightedMap = Collections.unmodifiableMap(updated);
+        }
+    }
+
+    /**
+     * 移除 {@code code} 的加权候选策略，此后查找只返回普通注册的策略。
+     *
+     * @param type 策略枚举类型
+     * @return 被移除的候选策略；未注册返回空列表
+     */
+    public List<WeightedStrategy<? extends S>> unregisterWeightedStrategies(T type) {
+        String code = type.getCode();
+        synchronized (writeLock) {
+            if (!weightedMap.containsKey(code)) return Collections.emptyList();
+            Map<String, WeightedSelector<S>> updated = new HashMap<>(weightedMap);
+            WeightedSelector<S> previous = updated.remove(code);
+            weightedMap = Collections.unmodifiableMap(updated);
+            return Collections.unmodifiableList(Arrays.asList(previous.candidates()));
+        }
+    }
+
+    /**
+     * 查看 {@code code} 的加权候选策略，可用于查看各候选的选中次数与限流统计。
+     *
+     * @param type 策略枚举类型
+     * @return 候选策略的只读列表；未注册返回空列表
+     */
+    public List<WeightedStrategy<? extends S>> getWeightedStrategies(T type) {
+        WeightedSelector<S> selector = weightedMap.get(type.getCode());
+        return selector == null ? Collections.emptyList() : Collections.unmodifiableList(Arrays.asList(selector.candidates()));
+    }
+
+    /**
+     * 执行策略；策略挂有保护配置时在熔断器与隔离舱保护下执行。
+     *
+     * @param type 策略枚举类型
+     * @param params 传给 {@link BaseStrategy#execute(Object...)} 的参数
+     * @throws IllegalStateException 策略或降级策略未注册时抛出
+     * @throws CallNotPermittedException 调用被拒绝且未指定降级策略时抛出
+     */
+    public void execute(T type, Object... params) {
+        String code = type.getCode();
+        S strategy = getStrategy(code);
+        if (strategy == null) throw new IllegalStateException("策略未注册，code=" + code);
+        GuardBinding binding = guardMap.get(code);
+        if (binding == null) {
+            strategy.execute(params);
+            return;
+        }
+        CircuitBreaker.Permit permit = binding.guard.tryEnter();
+        if (permit == null) {
+            if (binding.fallbackCode == null) throw binding.guard.notPermitted();
+            S fallback = getStrategy(binding.fallbackCode);
+            if (fallback == null) throw new IllegalStateException("降级策略未注册，code=" + binding.fallbackCode);
+            fallback.execute(params);
+            return;
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            strategy.execute(params);
+            failed = false;
+        } finally {
+            binding.guard.exit(permit, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * 为策略挂上熔断器与隔离舱，已有的保护配置被替换。
+     *
+     * <p>降级策略直接执行，不受其自身保护配置的约束，以免降级链路再次被拒绝。</p>
+     *
+     * @param type 被保护的策略枚举类型
+     * @param guard 熔断器与隔离舱
+     * @param fallbackType 被拒绝时执行的降级策略，为 {@code null} 时抛出 {@link CallNotPermittedException}
+     * @throws IllegalArgumentException 降级策略与被保护的策略相同时抛出
+     */
+    public void guardStrategy(T type, Guard guard, T fallbackType) {
+        String code = type.getCode();
+        Objects.requireNonNull(guard, "guard must not be null");
+        String fallbackCode = fallbackType == null ? null : fallbackType.getCode();
+        if (code.equals(fallbackCode)) throw new IllegalArgumentException("降级策略不能是被保护的策略本身，code=" + code);
+        synchronized (writeLock) {
+            Map<String, GuardBinding> updated = new HashMap<>(guardMap);
+            updated.put(code, new GuardBinding(guard, fallbackCode));
+            guardMap = Collections.unmodifiableMap(updated);
+        }
+    }
+
+    /**
+     * 移除策略的保护配置。
+     *
+     * @param type 策略枚举类型
+     * @return 被移除的熔断器与隔离舱；未配置返回 {@code null}
+     */
+    public Guard unguardStrategy(T type) {
+        String code = type.getCode();
+        synchronized (writeLock) {
+            if (!guardMap.containsKey(code)) return null;
+            Map<String, GuardBinding> updated = new HashMap<>(guardMap);
+            GuardBinding previous = updated.remove(code);
+            guardMap = Collections.unmodifiableMap(updated);
+            return previous.guard;
+        }
+    }
+
+    /**
+     * 获取策略的熔断器与隔离舱，用于查看状态与拒绝统计。
+     *
+     * @param type 策略枚举类型
+     * @return 熔断器与隔离舱；未配置返回 {@code null}
+     */
+    public Guard getGuard(T type) {
+        GuardBinding binding = guardMap.get(type.getCode());
+        return binding == null ? null : binding.guard;
     }
 
     /**
      * 查看所有已注册策略的只读映射。
      *
-     * @return {@code code -> strategy} 的不可变映射
+     * <p>延迟模式下会先实例化全部尚未加载的 SPI 实现。</p>
+     *
+     * @return {@code code -> strategy} 的不可变映射（当前时刻的快照，不随后续注册变化）
      */
     public Map<String, S> getAllStrategies() {
-        return Collections.unmodifiableMap(strategyMap);
+        if (hasPendingProviders) {
+            for (String code : pendingProviders.keySet()) {
+                loadDeferred(code);
+            }
+        }
+        return strategyMap;
     }
 
     /**
-     * 通过 SPI 加载并注册策略实现。
+     * 获取 SPI 加载报告。
+     *
+     * @return 加载报告
      */
-    private void loadBySpi() {
-        try {
-            ServiceLoader<S> loader = ServiceLoader.load(strategyClass);
-            for (S strategy : loader) {
-                registerStrategy(strategy);
+    public SpiLoadReport getSpiLoadReport() {
+        return spiLoadReport;
+    }
+
+    /**
+     * 获取后台预热的完成状态；未启用预热时为已完成状态。
+     *
+     * @return 预热全部结束（无论成功与否）时完成的 Future
+     */
+    public CompletableFuture<Void> getSpiWarmUp() {
+        return spiWarmUp;
+    }
+
+    /**
+     * SPI 实现加载失败时的回调，默认不做处理，子类可覆写以接入日志或告警。
+     *
+     * @param record 失败记录
+     */
+    protected void onSpiLoadFailure(SpiProviderRecord record) {
+    }
+
+    /**
+     * 发布新的注册表快照，调用方需持有 {@link #writeLock}。
+     */
+    private void publish(Map<String, S> updated) {
+        strategyMap = Collections.unmodifiableMap(updated);
+    }
+
+    /**
+     * 移除 {@code removed} 命中的 {@code code} 的加权候选，调用方需持有 {@link #writeLock}。
+     *
+     * <p>须在 {@link #publish(Map)} 之后调用：查找先读加权候选再读注册表，看到移除后的加权候选的查找一定也看到新的注册表。</p>
+     */
+    private void pruneWeighted(Predicate<String> removed) {
+        if (weightedMap.isEmpty()) return;
+        Map<String, WeightedSelector<S>> updated = new HashMap<>(weightedMap);
+        if (updated.keySet().removeIf(removed)) weightedMap = Collections.unmodifiableMap(updated);
+    }
+
+    /**
+     * 移除策略或降级策略被 {@code removed} 命中的保护配置，调用方需持有 {@link #writeLock}。
+     */
+    private void pruneGuards(Predicate<String> removed) {
+        if (guardMap.isEmpty()) return;
+        Map<String, GuardBinding> updated = new HashMap<>(guardMap);
+        boolean changed = updated.entrySet().removeIf(entry -> removed.test(entry.getKey())
+                || (entry.getValue().fallbackCode != null && removed.test(entry.getValue().fallbackCode)));
+        if (changed) guardMap = Collections.unmodifiableMap(updated);
+    }
+
+    private String codeOf(S strategy) {
+        Objects.requireNonNull(strategy, "strategy must not be null");
+        T type = Objects.requireNonNull(strategy.getStrategyType(), "strategyType must not be null");
+        return type.getCode();
+    }
+
+    /**
+     * 通过 SPI 发现策略实现，按模式立即注册或登记为延迟加载。
+     */
+    private void loadBySpi(SpiLoadMode spiLoadMode) {
+        List<SpiProviders.Provider<S>> providers = SpiProviders.discover(strategyClass, this::recordFailure);
+        Map<String, S> loaded = new LinkedHashMap<>();
+        for (SpiProviders.Provider<S> provider : providers) {
+            String code = spiLoadMode == SpiLoadMode.LAZY ? provider.declaredCode() : null;
+            if (code == null) {
+                S strategy = instantiate(provider, null);
+                if (strategy != null) {
+                    code = codeOf(strategy);
+                    // 先检查已登记的延迟实现，冲突的实现不进入本批注册，避免整批失败
+                    if (pendingProviders.containsKey(code) || loaded.putIfAbsent(code, strategy) != null) {
+                        recordFailure(new SpiProviderRecord(provider.type.getName(), code, SpiProviderRecord.State.FAILED, 0,
+                                new IllegalStateException("重复注册策略，code=" + code)));
+                    }
+                }
+            } else if (loaded.containsKey(code) || pendingProviders.putIfAbsent(code, provider) != null) {
+                recordFailure(new SpiProviderRecord(provider.type.getName(), code, SpiProviderRecord.State.FAILED, 0,
+                        new IllegalStateException("重复注册策略，code=" + code)));
+            } else {
+                spiLoadReport.add(new SpiProviderRecord(provider.type.getName(), code, SpiProviderRecord.State.DEFERRED, 0, null));
             }
-        } catch (Exception e) {
-            System.err.println("SPI 加载策略失败: " + e.getMessage());
         }
+        hasPendingProviders = !pendingProviders.isEmpty();
+        registerStrategies(loaded.values());
+    }
+
+    /**
+     * 实例化并注册一个延迟加载的 SPI 实现；并发查找同一 {@code code} 时只实例化一次。
+     *
+     * @param code 策略 code
+     * @return 注册后的策略；实现加载失败或不存在时返回 {@code null}
+     */
+    private S loadDeferred(String code) {
+        SpiProviders.Provider<S> provider = pendingProviders.get(code);
+        if (provider == null) return strategyMap.get(code);
+        synchronized (provider) {
+            // 其他线程已完成加载，或期间被替换/注销
+            if (pendingProviders.get(code) != provider) return strategyMap.get(code);
+            S strategy = instantiate(provider, code);
+            synchronized (writeLock) {
+                if (pendingProviders.remove(code, provider)) {
+                    hasPendingProviders = !pendingProviders.isEmpty();
+                    if (strategy != null && !strategyMap.containsKey(code)) {
+                        Map<String, S> updated = new LinkedHashMap<>(strategyMap);
+                        updated.put(code, strategy);
+                        publish(updated);
+                    }
+                }
+            }
+            return strategyMap.get(code);
+        }
+    }
+
+    /**
+     * 实例化 SPI 实现并记录耗时；失败时记录并返回 {@code null}。
+     *
+     * @param provider 待实例化的实现
+     * @param expectedCode 声明的 code，为 {@code null} 时不校验
+     * @return 策略实例；失败返回 {@code null}
+     */
+    private S instantiate(SpiProviders.Provider<S> provider, String expectedCode) {
+        String className = provider.type.getName();
+        long start = System.nanoTime();
+        S strategy;
+        String code;
+        try {
+            strategy = provider.newInstance();
+            code = codeOf(strategy);
+        } catch (Exception | LinkageError | ServiceConfigurationError e) {
+            recordFailure(new SpiProviderRecord(className, expectedCode, SpiProviderRecord.State.FAILED, System.nanoTime() - start, e));
+            return null;
+        }
+        long loadNanos = System.nanoTime() - start;
+        if (expectedCode != null && !expectedCode.equals(code)) {
+            recordFailure(new SpiProviderRecord(className, expectedCode, SpiProviderRecord.State.FAILED, loadNanos,
+                    new IllegalStateException("@StrategyCode 与策略类型不一致，declared=" + expectedCode + " actual=" + code)));
+            return null;
+        }
+        spiLoadReport.add(new SpiProviderRecord(className, code, SpiProviderRecord.State.LOADED, loadNanos, null));
+        return strategy;
+    }
+
+    /**
+     * 在执行器上并行预热全部延迟实现。
+     */
+    private CompletableFuture<Void> warmUp(Executor warmUpExecutor) {
+        if (warmUpExecutor == null || !hasPendingProviders) return CompletableFuture.completedFuture(null);
+        List<String> codes = new ArrayList<>(pendingProviders.keySet());
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[codes.size()];
+        for (int i = 0; i < tasks.length; i++) {
+            String code = codes.get(i);
+            tasks[i] = CompletableFuture.runAsync(() -> loadDeferred(code), warmUpExecutor);
+        }
+        return CompletableFuture.allOf(tasks);
+    }
+
+    /**
+     * 丢弃尚未实例化的延迟实现，调用方需持有 {@link #writeLock}。
+     */
+    private void discardPending(String code) {
+        if (hasPendingProviders && pendingProviders.remove(code) != null) {
+            hasPendingProviders = !pendingProviders.isEmpty();
+        }
+    }
+
+    private void recordFailure(SpiProviderRecord record) {
+        spiLoadReport.add(record);
+        onSpiLoadFailure(record);
+    }
+
+    /**
+     * 单个策略的保护配置。
+     */
+    private static final class GuardBinding {
+
+        final Guard guard;
+
+        /**
+         * 降级策略的 code，为 {@code null} 表示不降级。
+         */
+        final String fallbackCode;
+
+        GuardBinding(Guard guard, String fallbackCode) {
+            this.guard = guard;
+            this.fallbackCode = fallbackCode;
+        }
+
     }
 }
\ No newline at end of file
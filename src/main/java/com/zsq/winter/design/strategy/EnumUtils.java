@@ -1,14 +1,40 @@
 package com.zsq.winter.design.strategy;
 
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 枚举工具类，提供基于 {@link BaseEnum#getCode()} 的枚举查找能力。
  *
  * <p>该工具简化了从整型 code 到具体枚举实例的映射逻辑，
  * 适合与 {@link AbstractStrategyFactory} 的按 code 获取策略功能配合使用。</p>
+ *
+ * <p>每个枚举类型的 {@code code -> 枚举实例} 索引在首次查找时通过 {@link ClassValue} 构建一次并随类缓存，
+ * 之后的查找为一次哈希命中，不再复制枚举常量数组；并发加载时由 {@link ClassValue} 保证只发布同一份索引。</p>
  */
 public final class EnumUtils {
     private EnumUtils() {}
 
+    /**
+     * 按枚举类型缓存的 {@code code -> 枚举实例} 只读索引。
+     */
+    private static final ClassValue<Map<String, Object>> CODE_INDEX = new ClassValue<Map<String, Object>>() {
+        @Override
+        protected Map<String, Object> computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            if (constants == null) return Collections.emptyMap();
+            Map<String, Object> index = new HashMap<>(constants.length * 2);
+            for (Object constant : constants) {
+                if (constant instanceof BaseEnum) {
+                    // 与线性扫描保持一致：重复 code 时以先声明的常量为准
+                    index.putIfAbsent(((BaseEnum) constant).getCode(), constant);
+                }
+            }
+            return index;
+        }
+    };
+
     /**
      * 根据唯一的整型 {@code code} 查找枚举实例。
      * <E extends Enum<E> & BaseEnum> 泛型 E 不仅要是枚举类型，还必须实现接口 BaseEnum
@@ -19,11 +45,23 @@ public final class EnumUtils {
      * @throws IllegalArgumentException 当未找到匹配的枚举项时抛出
      */
     public static <E extends Enum<E> & BaseEnum> E getByCode(Class<E> enumClass, String code) {
-        for (E e : enumClass.getEnumConstants()) {
-            if (e.getCode().equals(code)) {
-                return e;
-            }
+        E e = findByCode(enumClass, code);
+        if (e == null) {
+            throw new IllegalArgumentException("未知类型 code: " + code + " in " + enumClass.getSimpleName());
         }
-        throw new IllegalArgumentException("未知类型 code: " + code + " in " + enumClass.getSimpleName());
+        return e;
+    }
+
+    /**
+     * 根据 {@code code} 查找枚举实例，未找到时返回 {@code null} 而不抛出异常。
+     *
+     * @param enumClass 目标枚举类型，需实现 {@link BaseEnum}
+     * @param code 唯一且稳定的枚举数值标识
+     * @param <E> 枚举泛型参数
+     * @return 与 {@code code} 对应的枚举实例；未找到返回 {@code null}
+     */
+    public static <E extends Enum<E> & BaseEnum> E findByCode(Class<E> enumClass, String code) {
+        if (code == null) return null;
+        return enumClass.cast(CODE_INDEX.get(enumClass).get(code));
     }
-}
\ No newline at end of file
+}
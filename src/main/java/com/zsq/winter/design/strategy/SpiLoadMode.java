@@ -0,0 +1,19 @@
+package com.zsq.winter.design.strategy;
+
+/**
+ * SPI 策略加载模式。
+ */
+public enum SpiLoadMode {
+
+    /**
+     * 构造工厂时立即实例化并注册全部 SPI 策略（默认）。
+     */
+    EAGER,
+
+    /**
+     * 构造工厂时只发现实现类、不实例化；声明了 {@link StrategyCode} 的实现延迟到其 {@code code} 首次被查找时才实例化。
+     * 未声明 {@link StrategyCode} 的实现无法在实例化前得知 {@code code}，仍会在启动时立即加载。
+     */
+    LAZY
+
+}
@@ -0,0 +1,56 @@
+package com.zsq.winter.design.strategy;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * SPI 策略加载报告，按发生顺序汇总每个实现的加载记录。
+ *
+ * <p>延迟加载与后台预热会在工厂构造之后继续追加记录，报告可被并发读取。</p>
+ */
+public final class SpiLoadReport {
+
+    private final ConcurrentLinkedQueue<SpiProviderRecord> records = new ConcurrentLinkedQueue<>();
+
+    void add(SpiProviderRecord record) {
+        records.add(record);
+    }
+
+    /**
+     * 获取全部加载记录。
+     *
+     * @return 当前时刻的记录副本
+     */
+    public List<SpiProviderRecord> getRecords() {
+        return Collections.unmodifiableList(new ArrayList<>(records));
+    }
+
+    /**
+     * 获取失败记录。
+     *
+     * @return 当前时刻的失败记录副本
+     */
+    public List<SpiProviderRecord> getFailures() {
+        List<SpiProviderRecord> failures = new ArrayList<>();
+        for (SpiProviderRecord record : records) {
+            if (record.getState() == SpiProviderRecord.State.FAILED) failures.add(record);
+        }
+        return Collections.unmodifiableList(failures);
+    }
+
+    /**
+     * 统计已实例化实现的累计耗时（纳秒）。
+     *
+     * @return 累计耗时
+     */
+    public long getTotalLoadNanos() {
+        long total = 0;
+        for (SpiProviderRecord record : records) {
+            total += record.getLoadNanos();
+        }
+        return total;
+    }
+
+}
@@ -0,0 +1,91 @@
+package com.zsq.winter.design.strategy;
+
+/**
+ * 单个 SPI 策略实现的加载记录。
+ *
+ * <p>记录不可变；同一实现在延迟加载时会先后产生 {@link State#DEFERRED} 与 {@link State#LOADED}（或 {@link State#FAILED}）两条记录。</p>
+ */
+public final class SpiProviderRecord {
+
+    /**
+     * 加载状态。
+     */
+    public enum State {
+        /** 已实例化并注册 */
+        LOADED,
+        /** 已发现实现类，等待首次查找时实例化 */
+        DEFERRED,
+        /** 发现、实例化或注册失败 */
+        FAILED
+    }
+
+    private final String providerClassName;
+
+    private final String code;
+
+    private final State state;
+
+    private final long loadNanos;
+
+    private final Throwable failure;
+
+    SpiProviderRecord(String providerClassName, String code, State state, long loadNanos, Throwable failure) {
+        this.providerClassName = providerClassName;
+        this.code = code;
+        this.state = state;
+        this.loadNanos = loadNanos;
+        this.failure = failure;
+    }
+
+    /**
+     * 获取实现类的完全限定名；发现阶段即失败且无法得知类名时为 {@code null}。
+     *
+     * @return 实现类名
+     */
+    public String getProviderClassName() {
+        return providerClassName;
+    }
+
+    /**
+     * 获取策略 {@code code}；尚未得知时为 {@code null}。
+     *
+     * @return 策略 code
+     */
+    public String getCode() {
+        return code;
+    }
+
+    /**
+     * 获取加载状态。
+     *
+     * @return 加载状态
+     */
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * 获取实例化耗时（纳秒），未实例化时为 {@code 0}。
+     *
+     * @return 实例化耗时
+     */
+    public long getLoadNanos() {
+        return loadNanos;
+    }
+
+    /**
+     * 获取失败原因，非失败记录为 {@code null}。
+     *
+     * @return 失败原因
+     */
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public String toString() {
+        return "SpiProviderRecord{provider=" + providerClassName + ", code=" + code + ", state=" + state
+                + ", loadMicros=" + loadNanos / 1000 + (failure == null ? "" : ", failure=" + failure) + "}";
+    }
+
+}
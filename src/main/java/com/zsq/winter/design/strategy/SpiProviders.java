@@ -0,0 +1,200 @@
+package com.zsq.winter.design.strategy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * SPI 实现类发现工具：只解析实现类型，不实例化。
+ *
+ * <p>Java 9 及以上通过 {@code ServiceLoader.stream()} 获取 {@code ServiceLoader.Provider}（可同时发现模块路径上的实现）；
+ * Java 8 下按 {@link ServiceLoader} 相同的规则读取 {@code META-INF/services} 配置文件。</p>
+ */
+final class SpiProviders {
+
+    private SpiProviders() {}
+
+    /**
+     * 单次发现中允许连续出现的配置错误上限，防止异常的迭代器无限重试。
+     */
+    private static final int MAX_CONSECUTIVE_ERRORS = 1024;
+
+    private static final Method STREAM;
+
+    private static final Method PROVIDER_TYPE;
+
+    private static final Method PROVIDER_GET;
+
+    static {
+        Method stream = null;
+        Method type = null;
+        Method get = null;
+        try {
+            Class<?> providerClass = Class.forName("java.util.ServiceLoader$Provider");
+            stream = ServiceLoader.class.getMethod("stream");
+            type = providerClass.getMethod("type");
+            get = providerClass.getMethod("get");
+        } catch (ReflectiveOperationException ignored) {
+            // Java 8：无 ServiceLoader.Provider，退化为读取配置文件
+        }
+        STREAM = stream;
+        PROVIDER_TYPE = type;
+        PROVIDER_GET = get;
+    }
+
+    /**
+     * 发现指定接口的全部实现。
+     *
+     * @param service 策略接口
+     * @param failure 发现阶段的失败回调（此时尚未实例化）
+     * @param <S>     策略接口类型
+     * @return 按配置顺序排列的实现
+     */
+    static <S> List<Provider<S>> discover(Class<S> service, Consumer<SpiProviderRecord> failure) {
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        if (STREAM != null) {
+            return discoverByStream(service, classLoader, failure);
+        }
+        return discoverByConfig(service, classLoader, failure);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <S> List<Provider<S>> discoverByStream(Class<S> service, ClassLoader classLoader, Consumer<SpiProviderRecord> failure) {
+        List<Provider<S>> providers = new ArrayList<>();
+        Iterator<?> iterator;
+        try {
+            iterator = ((Stream<?>) STREAM.invoke(ServiceLoader.load(service, classLoader))).iterator();
+        } catch (ReflectiveOperationException | ServiceConfigurationError e) {
+            failure.accept(new SpiProviderRecord(null, null, SpiProviderRecord.State.FAILED, 0, unwrap(e)));
+            return providers;
+        }
+        int errors = 0;
+        while (errors < MAX_CONSECUTIVE_ERRORS) {
+            Object provider;
+            Class<? extends S> type;
+            try {
+                if (!iterator.hasNext()) break;
+                provider = iterator.next();
+                type = (Class<? extends S>) PROVIDER_TYPE.invoke(provider);
+            } catch (ReflectiveOperationException | ServiceConfigurationError e) {
+                errors++;
+                failure.accept(new SpiProviderRecord(null, null, SpiProviderRecord.State.FAILED, 0, unwrap(e)));
+                continue;
+            }
+            errors = 0;
+            final Object source = provider;
+            providers.add(new Provider<>(type, () -> service.cast(PROVIDER_GET.invoke(source))));
+        }
+        return providers;
+    }
+
+    private static <S> List<Provider<S>> discoverByConfig(Class<S> service, ClassLoader classLoader, Consumer<SpiProviderRecord> failure) {
+        List<Provider<S>> providers = new ArrayList<>();
+        ClassLoader loader = classLoader != null ? classLoader : ClassLoader.getSystemClassLoader();
+        Set<String> classNames = new LinkedHashSet<>();
+        try {
+            Enumeration<URL> configs = loader.getResources("META-INF/services/" + service.getName());
+            while (configs.hasMoreElements()) {
+                readConfig(configs.nextElement(), classNames);
+            }
+        } catch (IOException e) {
+            failure.accept(new SpiProviderRecord(null, null, SpiProviderRecord.State.FAILED, 0, e));
+            return providers;
+        }
+        for (String className : classNames) {
+            try {
+                Class<?> type = Class.forName(className, false, loader);
+                if (!service.isAssignableFrom(type)) {
+                    throw new ServiceConfigurationError(service.getName() + ": " + className + " 不是该接口的实现");
+                }
+                Class<? extends S> providerType = type.asSubclass(service);
+                providers.add(new Provider<>(providerType, () -> providerType.getConstructor().newInstance()));
+            } catch (ClassNotFoundException | LinkageError e) {
+                failure.accept(new SpiProviderRecord(className, null, SpiProviderRecord.State.FAILED, 0, e));
+            }
+        }
+        return providers;
+    }
+
+    private static void readConfig(URL config, Set<String> classNames) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(config.openStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int comment = line.indexOf('#');
+                if (comment >= 0) line = line.substring(0, comment);
+                line = line.trim();
+                if (!line.isEmpty()) classNames.add(line);
+            }
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof InvocationTargetException ? e.getCause() : e;
+    }
+
+    /**
+     * 可延迟实例化的实现。
+     */
+    @FunctionalInterface
+    interface Instantiator<S> {
+        S newInstance() throws Exception;
+    }
+
+    /**
+     * 已发现但尚未实例化的 SPI 实现。
+     */
+    static final class Provider<S> {
+
+        final Class<? extends S> type;
+
+        private final Instantiator<S> instantiator;
+
+        Provider(Class<? extends S> type, Instantiator<S> instantiator) {
+            this.type = type;
+            this.instantiator = instantiator;
+        }
+
+        /**
+         * 获取实现类上声明的 {@link StrategyCode}。
+         *
+         * @return 声明的 code；未声明返回 {@code null}
+         */
+        String declaredCode() {
+            StrategyCode strategyCode = type.getAnnotation(StrategyCode.class);
+            return strategyCode == null ? null : strategyCode.value();
+        }
+
+        /**
+         * 实例化实现。
+         *
+         * @return 新实例
+         * @throws Exception 实例化失败
+         */
+        S newInstance() throws Exception {
+            try {
+                return instantiator.newInstance();
+            } catch (InvocationTargetException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) throw (Exception) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw e;
+            }
+        }
+
+    }
+
+}
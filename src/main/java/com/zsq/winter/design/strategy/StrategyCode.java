@@ -0,0 +1,32 @@
+package com.zsq.winter.design.strategy;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 在策略实现类上声明其绑定的枚举 {@code code}，使工厂在 {@link SpiLoadMode#LAZY} 模式下无需实例化即可建立索引。
+ *
+ * <p>取值必须与实现类 {@link BaseStrategy#getStrategyType()} 返回的枚举 {@code code} 一致，
+ * 实例化后框架会进行校验，不一致时视为加载失败。</p>
+ *
+ * <pre>{@code
+ * @StrategyCode("ALIPAY")
+ * public class AlipayPaymentStrategy implements PaymentStrategy { ... }
+ * }</pre>
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface StrategyCode {
+
+    /**
+     * 策略绑定的枚举 {@code code}。
+     *
+     * @return 枚举 {@code code}
+     */
+    String value();
+
+}
@@ -0,0 +1,77 @@
+package com.zsq.winter.design.strategy;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 同一 {@code code} 下多个候选策略的加权选择器，构建后不可变。
+ *
+ * <p>采用 Walker 别名法：构建时把权重分布拆成 {@code n} 个等概率的格子，每格最多两个候选；
+ * 选择时只需一次随机数与一次比较，与候选数量无关，且不分配对象。
+ * 选中的候选被限流时依次尝试后续候选，全部饱和时返回 {@code null}。</p>
+ */
+final class WeightedSelector<S> {
+
+    private final WeightedStrategy<? extends S>[] candidates;
+
+    /**
+     * 第 i 格选中候选 i 的概率，否则选中 {@code alias[i]}。
+     */
+    private final double[] probability;
+
+    private final int[] alias;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    WeightedSelector(List<? extends WeightedStrategy<? extends S>> candidates) {
+        int n = candidates.size();
+        this.candidates = candidates.toArray(new WeightedStrategy[0]);
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        long total = 0;
+        for (WeightedStrategy<? extends S> candidate : this.candidates) total += candidate.getWeight();
+        double[] scaled = new double[n];
+        Deque<Integer> small = new ArrayDeque<>();
+        Deque<Integer> large = new ArrayDeque<>();
+        for (int i = 0; i < n; i++) {
+            scaled[i] = (double) this.candidates[i].getWeight() * n / total;
+            (scaled[i] < 1.0 ? small : large).push(i);
+        }
+        while (!small.isEmpty() && !large.isEmpty()) {
+            int less = small.pop();
+            int more = large.pop();
+            probability[less] = scaled[less];
+            alias[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1.0;
+            (scaled[more] < 1.0 ? small : large).push(more);
+        }
+        // 剩余格子因浮点误差略偏离 1，直接视为 1
+        while (!large.isEmpty()) probability[large.pop()] = 1.0;
+        while (!small.isEmpty()) probability[small.pop()] = 1.0;
+    }
+
+    /**
+     * 按权重选择一个候选策略，被限流时溢出到后续候选。
+     *
+     * @return 选中的策略；全部候选都被限流时返回 {@code null}
+     */
+    S select() {
+        int n = candidates.length;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int index = random.nextInt(n);
+        if (random.nextDouble() >= probability[index]) index = alias[index];
+        for (int i = 0; i < n; i++) {
+            WeightedStrategy<? extends S> candidate = candidates[index];
+            if (candidate.tryAcquire()) return candidate.getStrategy();
+            if (++index == n) index = 0;
+        }
+        return null;
+    }
+
+    WeightedStrategy<? extends S>[] candidates() {
+        return candidates;
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.zsq.winter.design.strategy;
+
+import com.zsq.winter.design.resilience.RateLimiter;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 同一 {@code code} 下的一个候选策略及其权重与限流配置，用于灰度发布与流量整形。
+ *
+ * <pre>{@code
+ * factory.registerWeightedStrategies(PaymentMethod.ALIPAY, Arrays.asList(
+ *         WeightedStrategy.of(alipayV1, 90),
+ *         WeightedStrategy.of(alipayV2, 10).rateLimit(200)));
+ * }</pre>
+ *
+ * @param <S> 策略接口类型
+ */
+public final class WeightedStrategy<S> {
+
+    private final S strategy;
+
+    private final int weight;
+
+    private final RateLimiter rateLimiter;
+
+    private final LongAdder selectedCount = new LongAdder();
+
+    private WeightedStrategy(S strategy, int weight, RateLimiter rateLimiter) {
+        this.strategy = strategy;
+        this.weight = weight;
+        this.rateLimiter = rateLimiter;
+    }
+
+    /**
+     * 创建不限流的候选策略。
+     *
+     * @param strategy 策略实现
+     * @param weight   权重，需为正数
+     * @param <S>      策略接口类型
+     * @return 候选策略
+     */
+    public static <S> WeightedStrategy<S> of(S strategy, int weight) {
+        Objects.requireNonNull(strategy, "strategy must not be null");
+        if (weight <= 0) throw new IllegalArgumentException("weight must be positive, weight=" + weight);
+        return new WeightedStrategy<>(strategy, weight, null);
+    }
+
+    /**
+     * 返回带令牌桶限流的副本，令牌不足时选择溢出到下一个候选。
+     *
+     * @param permitsPerSecond 每秒令牌数
+     * @return 新的候选策略
+     */
+    public WeightedStrategy<S> rateLimit(double permitsPerSecond) {
+        return new WeightedStrategy<>(strategy, weight, new RateLimiter(permitsPerSecond));
+    }
+
+    /**
+     * 返回带令牌桶限流的副本，令牌不足时选择溢出到下一个候选。
+     *
+     * @param permitsPerSecond 每秒令牌数
+     * @param burst            可积攒的最大令牌数
+     * @return 新的候选策略
+     */
+    public WeightedStrategy<S> rateLimit(double permitsPerSecond, int burst) {
+        return new WeightedStrategy<>(strategy, weight, new RateLimiter(permitsPerSecond, burst));
+    }
+
+    /**
+     * 尝试选中本候选：未限流或获取到令牌时计入选中次数。
+     */
+    boolean tryAcquire() {
+        if (null != rateLimiter && !rateLimiter.tryAcquire()) return false;
+        selectedCount.increment();
+        return true;
+    }
+
+    /**
+     * 获取策略实现。
+     *
+     * @return 策略实现
+     */
+    public S getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * 获取权重。
+     *
+     * @return 权重
+     */
+    public int getWeight() {
+        return weight;
+    }
+
+    /**
+     * 获取限流器。
+     *
+     * @return 限流器，不限流时为 {@code null}
+     */
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    /**
+     * 获取被选中的次数。
+     *
+     * @return 选中次数
+     */
+    public long getSelectedCount() {
+        return selectedCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "WeightedStrategy{strategy=" + strategy.getClass().getName() + ", weight=" + weight
+                + ", rateLimiter=" + rateLimiter + ", selected=" + getSelectedCount() + "}";
+    }
+
+}
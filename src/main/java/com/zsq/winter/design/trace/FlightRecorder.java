@@ -0,0 +1,387 @@
+package com.zsq.winter.design.trace;
+
+import com.zsq.winter.design.metrics.MetricsRecorder;
+import com.zsq.winter.design.metrics.NodeOutcome;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * 采样式执行轨迹记录器：按比例采样请求，记录规则树与责任链经过的节点、各节点耗时与停止位置。
+ *
+ * <p>作为 {@link MetricsRecorder} 安装，可同时转发给另一个记录器（如 {@link com.zsq.winter.design.metrics.NodeMetricsRegistry}）：</p>
+ * <pre>{@code
+ * FlightRecorder flightRecorder = new FlightRecorder(0.01, 256, new NodeMetricsRegistry());
+ * Metrics.setRecorder(flightRecorder);
+ * ...
+ * flightRecorder.recentTraces().forEach(System.out::println);
+ * flightRecorder.hotPaths().forEach(System.out::println);
+ * }</pre>
+ *
+ * <ul>
+ *   <li>线程上没有正在执行的节点时进入的第一个节点（或链路）视为新请求，在此按采样率决定是否记录；
+ *   未采样请求只维护一个节点栈，不取时间、不分配对象；</li>
+ *   <li>每个线程有自己的环形缓冲区，只由该线程写入，保留最近 {@code tracesPerThread} 条轨迹，读取时不加锁；
+ *   缓冲区在线程首次完成被采样的请求时才分配；</li>
+ *   <li>已结束线程的轨迹在新线程注册或读取轨迹时移入一个共享的缓冲区（同样保留最近 {@code tracesPerThread} 条），其记录状态随即释放，
+ *   因此为每个任务新建线程的执行器（如虚拟线程）不会使记录器无限增长；</li>
+ *   <li>异步节点在阶段完成时才回调，无法确定嵌套关系，仅在所在线程恰有被采样的请求时作为事件记录；批量路径不回调，不会出现在轨迹中。</li>
+ * </ul>
+ */
+public class FlightRecorder implements MetricsRecorder {
+
+    /**
+     * 单条轨迹最多记录的节点数。
+     */
+    private static final int MAX_SPANS = 256;
+
+    /**
+     * 线程状态数低于该值时不清理已结束的线程。
+     */
+    private static final int MIN_PRUNE_THRESHOLD = 64;
+
+    private final int tracesPerThread;
+
+    private final MetricsRecorder delegate;
+
+    private volatile double sampleRate;
+
+    private final ConcurrentLinkedQueue<ThreadState> threadStates = new ConcurrentLinkedQueue<>();
+
+    /**
+     * {@link #threadStates} 的近似大小，超过 {@link #pruneThreshold} 时清理已结束的线程。
+     */
+    private final AtomicInteger stateCount = new AtomicInteger();
+
+    private volatile int pruneThreshold = MIN_PRUNE_THRESHOLD;
+
+    private final AtomicBoolean pruning = new AtomicBoolean();
+
+    /**
+     * 已结束线程的最近轨迹，由清理的线程写入。
+     */
+    private final AtomicReferenceArray<Trace> retired;
+
+    private final AtomicLong retiredWritten = new AtomicLong();
+
+    private final ThreadLocal<ThreadState> threadState = ThreadLocal.withInitial(this::register);
+
+    /**
+     * 创建每个线程保留 256 条轨迹、不转发指标的记录器。
+     *
+     * @param sampleRate 采样率，取值 [0, 1]
+     */
+    public FlightRecorder(double sampleRate) {
+        this(sampleRate, 256, null);
+    }
+
+    /**
+     * 创建记录器。
+     *
+     * @param sampleRate      采样率，取值 [0, 1]
+     * @param tracesPerThread 每个线程保留的最近轨迹数，向上取整为 2 的幂
+     * @param delegate        同时转发节点指标的记录器，可为 {@code null}
+     */
+    public FlightRecorder(double sampleRate, int tracesPerThread, MetricsRecorder delegate) {
+        if (tracesPerThread <= 0) throw new IllegalArgumentException("tracesPerThread must be positive, tracesPerThread=" + tracesPerThread);
+        setSampleRate(sampleRate);
+        int size = 1;
+        while (size < tracesPerThread && size < (1 << 20)) size <<= 1;
+        this.tracesPerThread = size;
+        this.retired = new AtomicReferenceArray<>(size);
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void enter(String scope, Object node) {
+        if (null != delegate) delegate.enter(scope, node);
+        threadState.get().enter(scope, node, sampleRate);
+    }
+
+    @Override
+    public void record(String scope, Object node, long latencyNanos, NodeOutcome outcome) {
+        if (null != delegate) delegate.record(scope, node, latencyNanos, outcome);
+        threadState.get().close(scope, node, latencyNanos, outcome);
+    }
+
+    @Override
+    public void exit(String scope, Object chain, long latencyNanos, NodeOutcome outcome) {
+        if (null != delegate) delegate.exit(scope, chain, latencyNanos, outcome);
+        threadState.get().close(scope, chain, latencyNanos, outcome);
+    }
+
+    /**
+     * 调整采样率，对之后开始的请求生效。
+     *
+     * @param sampleRate 采样率，取值 [0, 1]
+     */
+    public void setSampleRate(double sampleRate) {
+        if (!(sampleRate >= 0 && sampleRate <= 1)) {
+            throw new IllegalArgumentException("sampleRate must be in [0, 1], sampleRate=" + sampleRate);
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    /**
+     * 获取采样率。
+     *
+     * @return 采样率
+     */
+    public double getSampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * 获取各线程最近的轨迹，按请求开始时间排序；已结束线程的轨迹合并保留最近 {@code tracesPerThread} 条。
+     *
+     * @return 轨迹列表
+     */
+    public List<Trace> recentTraces() {
+        pruneDeadThreads();
+        List<Trace> traces = new ArrayList<>();
+        for (ThreadState state : threadStates) {
+            collect(state.ring, traces);
+        }
+        collect(retired, traces);
+        traces.sort((a, b) -> Long.compare(a.getStartNanos() - b.getStartNanos(), 0));
+        return traces;
+    }
+
+    /**
+     * 按路径聚合最近的轨迹，按经过次数从多到少排序。
+     *
+     * @return 热点路径
+     */
+    public List<HotPath> hotPaths() {
+        Map<String, HotPath> paths = new LinkedHashMap<>();
+        for (Trace trace : recentTraces()) {
+            String path = trace.getPath();
+            HotPath hotPath = paths.get(path);
+            paths.put(path, null == hotPath ? new HotPath(path, 1, trace.getDurationNanos(), trace.getDurationNanos()) : hotPath.merge(trace.getDurationNanos()));
+        }
+        List<HotPath> result = new ArrayList<>(paths.values());
+        result.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return result;
+    }
+
+    /**
+     * 清空已记录的轨迹；与正在写入的线程并发时，个别轨迹可能未被清除。
+     */
+    public void clear() {
+        for (ThreadState state : threadStates) {
+            clear(state.ring);
+        }
+        clear(retired);
+    }
+
+    private ThreadState register() {
+        if (stateCount.get() >= pruneThreshold) pruneDeadThreads();
+        ThreadState state = new ThreadState(Thread.currentThread(), tracesPerThread);
+        threadStates.add(state);
+        stateCount.incrementAndGet();
+        return state;
+    }
+
+    /**
+     * 把已结束线程的轨迹移入 {@link #retired} 并移除其状态；同一时刻只有一个线程清理，其余直接返回。
+     */
+    private void pruneDeadThreads() {
+        if (!pruning.compareAndSet(false, true)) return;
+        try {
+            int live = 0;
+            for (Iterator<ThreadState> iterator = threadStates.iterator(); iterator.hasNext(); ) {
+                ThreadState state = iterator.next();
+                Thread owner = state.owner.get();
+                if (null != owner && owner.isAlive()) {
+                    live++;
+                    continue;
+                }
+                AtomicReferenceArray<Trace> ring = state.ring;
+                if (null != ring) {
+                    for (int i = 0; i < ring.length(); i++) {
+                        Trace trace = ring.get(i);
+                        if (null != trace) retired.set((int) (retiredWritten.getAndIncrement() & (retired.length() - 1)), trace);
+                    }
+                }
+                iterator.remove();
+                stateCount.decrementAndGet();
+            }
+            // 按存活线程数放宽阈值，使清理的开销均摊到每次注册上
+            pruneThreshold = Math.max(MIN_PRUNE_THRESHOLD, live * 2);
+        } finally {
+            pruning.set(false);
+        }
+    }
+
+    private static void collect(AtomicReferenceArray<Trace> ring, List<Trace> traces) {
+        if (null == ring) return;
+        for (int i = 0; i < ring.length(); i++) {
+            Trace trace = ring.get(i);
+            if (null != trace) traces.add(trace);
+        }
+    }
+
+    private static void clear(AtomicReferenceArray<Trace> ring) {
+        if (null == ring) return;
+        for (int i = 0; i < ring.length(); i++) {
+            ring.set(i, null);
+        }
+    }
+
+    /**
+     * 单个线程的记录状态：节点栈、正在记录的轨迹与最近轨迹的环形缓冲区。除 {@link #ring} 外只由所属线程访问。
+     */
+    private static final class ThreadState {
+
+        final WeakReference<Thread> owner;
+
+        final String threadName;
+
+        final int tracesPerThread;
+
+        /**
+         * 最近轨迹的环形缓冲区，首次发布轨迹时分配。
+         */
+        volatile AtomicReferenceArray<Trace> ring;
+
+        long written;
+
+        /**
+         * 正在执行的节点栈及其在轨迹中的位置（未采样或超出上限时为 {@code -1}）。
+         */
+        Object[] frames = new Object[16];
+
+        int[] frameSpans = new int[16];
+
+        int depth;
+
+        boolean sampled;
+
+        long traceStartNanos;
+
+        long traceStartMillis;
+
+        int spanCount;
+
+        boolean truncated;
+
+        // 轨迹节点，首次采样时分配，之后复用
+        String[] scopes;
+
+        Object[] nodes;
+
+        int[] depths;
+
+        long[] starts;
+
+        long[] durations;
+
+        NodeOutcome[] outcomes;
+
+        ThreadState(Thread owner, int tracesPerThread) {
+            this.owner = new WeakReference<>(owner);
+            this.threadName = owner.getName();
+            this.tracesPerThread = tracesPerThread;
+        }
+
+        void enter(String scope, Object node, double sampleRate) {
+            if (depth == 0) {
+                sampled = sampleRate >= 1 || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+                if (sampled) begin();
+            }
+            if (depth == frames.length) {
+                frames = Arrays.copyOf(frames, depth * 2);
+                frameSpans = Arrays.copyOf(frameSpans, depth * 2);
+            }
+            frames[depth] = node;
+            frameSpans[depth] = sampled ? openSpan(scope, node, depth, System.nanoTime()) : -1;
+            depth++;
+        }
+
+        void close(String scope, Object node, long latencyNanos, NodeOutcome outcome) {
+            boolean executed = outcome != NodeOutcome.DEADLINE_EXCEEDED && outcome != NodeOutcome.REJECTED;
+            if (!executed || depth == 0 || frames[depth - 1] != node) {
+                // 未执行的节点或异步节点，没有对应的进入回调
+                if (sampled && depth > 0) {
+                    int span = openSpan(scope, node, depth, System.nanoTime() - latencyNanos);
+                    if (span >= 0) {
+                        durations[span] = latencyNanos;
+                        outcomes[span] = outcome;
+                    }
+                }
+                return;
+            }
+            depth--;
+            frames[depth] = null;
+            int span = frameSpans[depth];
+            if (span >= 0) {
+                durations[span] = latencyNanos;
+                outcomes[span] = outcome;
+            }
+            if (depth == 0 && sampled) {
+                sampled = false;
+                publish();
+            }
+        }
+
+        private void begin() {
+            if (null == scopes) {
+                scopes = new String[MAX_SPANS];
+                nodes = new Object[MAX_SPANS];
+                depths = new int[MAX_SPANS];
+                starts = new long[MAX_SPANS];
+                durations = new long[MAX_SPANS];
+                outcomes = new NodeOutcome[MAX_SPANS];
+            }
+            spanCount = 0;
+            truncated = false;
+            traceStartMillis = System.currentTimeMillis();
+            traceStartNanos = System.nanoTime();
+        }
+
+        private int openSpan(String scope, Object node, int spanDepth, long start) {
+            if (spanCount == MAX_SPANS) {
+                truncated = true;
+                return -1;
+            }
+            int span = spanCount++;
+            scopes[span] = scope;
+            nodes[span] = node;
+            depths[span] = spanDepth;
+            starts[span] = start;
+            durations[span] = 0L;
+            outcomes[span] = null;
+            return span;
+        }
+
+        private void publish() {
+            long end = System.nanoTime();
+            TraceSpan[] spans = new TraceSpan[spanCount];
+            for (int i = 0; i < spanCount; i++) {
+                spans[i] = new TraceSpan(scopes[i], nodes[i].getClass().getName(), depths[i],
+                        starts[i] - traceStartNanos, durations[i], outcomes[i]);
+                scopes[i] = null;
+                nodes[i] = null;
+            }
+            Trace trace = new Trace(threadName, traceStartMillis, traceStartNanos, end - traceStartNanos,
+                    Collections.unmodifiableList(Arrays.asList(spans)), truncated);
+            AtomicReferenceArray<Trace> ring = this.ring;
+            if (null == ring) this.ring = ring = new AtomicReferenceArray<>(tracesPerThread);
+            ring.lazySet((int) (written++ & (ring.length() - 1)), trace);
+        }
+
+    }
+
+}
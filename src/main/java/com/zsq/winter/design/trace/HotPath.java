@@ -0,0 +1,68 @@
+package com.zsq.winter.design.trace;
+
+/**
+ * 按路径聚合的轨迹统计，不可变。
+ */
+public final class HotPath {
+
+    private final String path;
+
+    private final long count;
+
+    private final long totalNanos;
+
+    private final long maxNanos;
+
+    HotPath(String path, long count, long totalNanos, long maxNanos) {
+        this.path = path;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * 获取路径，格式同 {@link Trace#getPath()}。
+     *
+     * @return 路径
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * 获取经过该路径的轨迹数。
+     *
+     * @return 轨迹数
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * 获取平均耗时（纳秒）。
+     *
+     * @return 平均耗时
+     */
+    public long getAverageNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * 获取最大耗时（纳秒）。
+     *
+     * @return 最大耗时
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    HotPath merge(long durationNanos) {
+        return new HotPath(path, count + 1, totalNanos + durationNanos, Math.max(maxNanos, durationNanos));
+    }
+
+    @Override
+    public String toString() {
+        return path + " count=" + count + ", avg=" + getAverageNanos() + "ns, max=" + maxNanos + "ns";
+    }
+
+}
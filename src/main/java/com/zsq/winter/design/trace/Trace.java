@@ -0,0 +1,130 @@
+package com.zsq.winter.design.trace;
+
+import java.util.List;
+
+/**
+ * 一次被采样请求的执行轨迹，不可变。
+ *
+ * <p>节点按进入顺序（先序）排列，以 {@link TraceSpan#getDepth()} 表示嵌套关系。</p>
+ */
+public final class Trace {
+
+    private final String threadName;
+
+    private final long startTimeMillis;
+
+    /**
+     * 开始时刻（{@link System#nanoTime()}），用于跨线程排序。
+     */
+    private final long startNanos;
+
+    private final long durationNanos;
+
+    private final List<TraceSpan> spans;
+
+    private final boolean truncated;
+
+    Trace(String threadName, long startTimeMillis, long startNanos, long durationNanos, List<TraceSpan> spans, boolean truncated) {
+        this.threadName = threadName;
+        this.startTimeMillis = startTimeMillis;
+        this.startNanos = startNanos;
+        this.durationNanos = durationNanos;
+        this.spans = spans;
+        this.truncated = truncated;
+    }
+
+    /**
+     * 获取执行请求的线程名称。
+     *
+     * @return 线程名称
+     */
+    public String getThreadName() {
+        return threadName;
+    }
+
+    /**
+     * 获取请求开始的时间戳（毫秒）。
+     *
+     * @return 开始时间戳
+     */
+    public long getStartTimeMillis() {
+        return startTimeMillis;
+    }
+
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    /**
+     * 获取请求总耗时（纳秒）。
+     *
+     * @return 总耗时
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * 获取按先序排列的节点。
+     *
+     * @return 节点列表（只读）
+     */
+    public List<TraceSpan> getSpans() {
+        return spans;
+    }
+
+    /**
+     * 节点数超过上限时，超出部分未被记录。
+     *
+     * @return 是否被截断
+     */
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * 获取请求经过的节点路径，节点以 {@code " > "} 连接。
+     *
+     * @return 路径
+     */
+    public String getPath() {
+        StringBuilder path = new StringBuilder();
+        for (TraceSpan span : spans) {
+            if (path.length() > 0) path.append(" > ");
+            path.append(simpleName(span.getNode()));
+        }
+        return path.toString();
+    }
+
+    /**
+     * 获取请求停止或降级的位置：先序中最后一个中断、异常、超时跳过或被拒绝的节点。
+     *
+     * @return 停止点；请求执行到底时返回 {@code null}
+     */
+    public TraceSpan getStopPoint() {
+        for (int i = spans.size() - 1; i >= 0; i--) {
+            if (spans.get(i).isStopPoint()) return spans.get(i);
+        }
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder dump = new StringBuilder();
+        dump.append("Trace{thread=").append(threadName)
+                .append(", start=").append(startTimeMillis)
+                .append(", duration=").append(durationNanos).append("ns")
+                .append(truncated ? ", truncated" : "").append('}');
+        for (TraceSpan span : spans) {
+            dump.append('\n');
+            for (int i = 0; i <= span.getDepth(); i++) dump.append("  ");
+            dump.append(span);
+        }
+        return dump.toString();
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+}
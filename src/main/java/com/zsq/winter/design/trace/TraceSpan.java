@@ -0,0 +1,99 @@
+package com.zsq.winter.design.trace;
+
+import com.zsq.winter.design.metrics.NodeOutcome;
+
+/**
+ * 执行轨迹中的一个节点，不可变。
+ */
+public final class TraceSpan {
+
+    private final String scope;
+
+    private final String node;
+
+    private final int depth;
+
+    private final long offsetNanos;
+
+    private final long durationNanos;
+
+    private final NodeOutcome outcome;
+
+    TraceSpan(String scope, String node, int depth, long offsetNanos, long durationNanos, NodeOutcome outcome) {
+        this.scope = scope;
+        this.node = node;
+        this.depth = depth;
+        this.offsetNanos = offsetNanos;
+        this.durationNanos = durationNanos;
+        this.outcome = outcome;
+    }
+
+    /**
+     * 获取节点所属范围（路由节点类名或链路名称）。
+     *
+     * @return 范围
+     */
+    public String getScope() {
+        return scope;
+    }
+
+    /**
+     * 获取节点名称（处理器或链路的类名）。
+     *
+     * @return 节点名称
+     */
+    public String getNode() {
+        return node;
+    }
+
+    /**
+     * 获取嵌套深度，请求的第一个节点为 {@code 0}。
+     *
+     * @return 嵌套深度
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * 获取相对请求开始的偏移（纳秒）。
+     *
+     * @return 偏移
+     */
+    public long getOffsetNanos() {
+        return offsetNanos;
+    }
+
+    /**
+     * 获取节点耗时（纳秒），包含其下游节点；未执行的节点为 {@code 0}。
+     *
+     * @return 耗时
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    /**
+     * 获取节点结果。
+     *
+     * @return 结果
+     */
+    public NodeOutcome getOutcome() {
+        return outcome;
+    }
+
+    /**
+     * 节点是否使请求在此停止或降级：中断、异常、超时跳过或被拒绝。
+     *
+     * @return 是否为停止点
+     */
+    public boolean isStopPoint() {
+        return outcome != NodeOutcome.COMPLETED && outcome != NodeOutcome.NEXT;
+    }
+
+    @Override
+    public String toString() {
+        return scope + " / " + node + " " + outcome + " " + durationNanos + "ns @+" + offsetNanos + "ns";
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.zsq.winter.design.tree;
+
+import com.zsq.winter.design.deadline.Deadlines;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 异步策略路由抽象基类：根据入参与上下文选择具体的异步策略并执行，全程不阻塞调用线程。
+ * 子类实现 {@link #get(Object, Object)} 与 {@link #apply(Object, Object)}，在 {@code apply} 中通过
+ * {@link CompletionStage#thenCompose} 组合本节点的异步处理与 {@link #router(Object, Object)}：
+ * <pre>{@code
+ * public CompletionStage<String> apply(String userId, Context ctx) {
+ *     return accountClient.queryAsync(userId)
+ *             .thenCompose(account -> {
+ *                 ctx.setAccount(account);
+ *                 return router(userId, ctx);
+ *             });
+ * }
+ * }</pre>
+ *
+ * <p>若映射不到有效策略，则回退到 {@link #defaultStrategyHandler}；映射或执行中抛出的异常均以异常完成的阶段返回。</p>
+ */
+public abstract class AbstractAsyncStrategyRouter<T, D, R> implements AsyncStrategyMapper<T, D, R>, AsyncStrategyHandler<T, D, R> {
+
+    /**
+     * 默认异步策略处理器，当无法映射到具体策略时执行。
+     */
+    @Getter
+    @Setter
+    @SuppressWarnings("unchecked")
+    protected AsyncStrategyHandler<T, D, R> defaultStrategyHandler = AsyncStrategyHandler.DEFAULT;
+
+    /**
+     * 请求超过截止时间时执行的降级处理器，为 {@code null} 时使用 {@link #defaultStrategyHandler}。
+     */
+    @Getter
+    @Setter
+    protected AsyncStrategyHandler<T, D, R> deadlineFallbackHandler;
+
+    /**
+     * 根据映射器获取策略并进行路由执行。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @return 策略执行结果的异步阶段；若无策略映射则返回默认策略的结果，请求已超过截止时间时返回降级处理器的结果
+     */
+    public CompletionStage<R> router(T requestParameter, D dynamicContext) {
+        AsyncStrategyHandler<T, D, R> strategyHandler;
+        if (Deadlines.isExceeded(dynamicContext)) {
+            strategyHandler = RouterSupport.deadlineExceeded(this, deadlineFallbackHandler, defaultStrategyHandler);
+            return StrategyDispatcher.dispatchAsync(this, strategyHandler, requestParameter, dynamicContext);
+        }
+        try {
+            strategyHandler = get(requestParameter, dynamicContext);
+        } catch (Throwable e) {
+            return StrategyDispatcher.failed(e);
+        }
+        if (null == strategyHandler) strategyHandler = defaultStrategyHandler;
+        return StrategyDispatcher.dispatchAsync(this, strategyHandler, requestParameter, dynamicContext);
+    }
+
+}
@@ -1,19 +1,37 @@
 package com.zsq.winter.design.tree;
 
+import com.zsq.winter.design.deadline.Deadlines;
+import com.zsq.winter.design.resilience.Guard;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.List;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
 
 /**
  * 带多线程预处理的策略路由。
  * 在 Java 中：
  * 抽象类可以不实现它所继承（或实现）的接口中的所有方法，可以实现一部分吗，都不实现也可以，剩下的交给子类去实现即可。
- * 所以继承目前这个抽象类的话，子类必须实现get()方法，抽象方法multiThread()和doApply()方法。父类已经实现了apply方法，这个apply方法会调用子类对应实现的multiThread()和doApply()方法
+ * 所以继承目前这个抽象类的话，子类必须实现get()方法和抽象方法doApply()，multiThread()方法可按需覆写。父类已经实现了apply方法，这个apply方法会调用子类对应实现的multiThread()和doApply()方法
  * 子类调用该父类的router方法，该方法会调用子类实现的get()（用来指定下一个节点）和该父类的apply()方法，父类的apply()方法会调用子类实现的doApply()方法进行业务处理，通常需要进行调用router方法
  * 也就是说子类的get()方法需要判断和执行下一个节点的任务
  * <p>在执行主策略前，先通过多线程异步加载数据或预计算，随后进行主业务受理。</p>
+ * <p>推荐在子类构造方法中向 {@link #asyncLoadStage} 声明式注册加载器，由框架负责并行执行、超时、取消与结果写回；
+ * 仍需自定义并发逻辑时可覆写 {@link #multiThread(Object, Object)}，它在加载阶段完成后、{@link #doApply(Object, Object)} 之前执行。</p>
+ * <pre>{@code
+ * public AccountNode() {
+ *     asyncLoadStage
+ *             .register("account", (req, ctx) -> accountService.query(req.getUserId()), DynamicContext::setAccount)
+ *             .register("level", (req, ctx) -> levelService.query(req.getUserId()), DynamicContext::setLevel,
+ *                     200, TimeUnit.MILLISECONDS, e -> Level.DEFAULT);
+ *     asyncLoadStage.setTimeout(500, TimeUnit.MILLISECONDS);
+ * }
+ * }</pre>
  */
 public abstract class AbstractMultiThreadStrategyRouter<T, D, R> implements StrategyMapper<T, D, R>, StrategyHandler<T, D, R> {
 
@@ -24,18 +42,123 @@ public abstract class AbstractMultiThreadStrategyRouter<T, D, R> implements Stra
     @Setter
     protected StrategyHandler<T, D, R> defaultStrategyHandler = StrategyHandler.DEFAULT;
 
+    /**
+     * 请求超过截止时间时执行的降级处理器，为 {@code null} 时使用 {@link #defaultStrategyHandler}。
+     */
+    @Getter
+    @Setter
+    protected StrategyHandler<T, D, R> deadlineFallbackHandler;
+
+    /**
+     * 路由决策缓存，默认不启用；仅适用于路由结果是请求键纯函数的节点。
+     */
+    @Getter
+    @Setter
+    protected RoutingCache<?, T, D, R> routingCache;
+
+    /**
+     * 推测执行配置，默认不启用；启用后映射与候选子节点并行执行，见 {@link SpeculativeRouting}。
+     */
+    @Getter
+    @Setter
+    protected SpeculativeRouting<T, D, R> speculativeRouting;
+
+    /**
+     * 节点的并行加载阶段，在 {@link #doApply(Object, Object)} 之前执行。
+     */
+    @Getter
+    protected final AsyncLoadStage<T, D> asyncLoadStage = new AsyncLoadStage<>();
+
     /**
      * 根据映射器获取策略并进行路由执行。
+     * <p>启用了 {@link #speculativeRouting} 时，映射与候选子节点并行执行。</p>
      *
      * @param requestParameter 入参
      * @param dynamicContext   上下文
-     * @return 策略执行结果；若无策略映射则返回默认策略的结果
+     * @return 策略执行结果；若无策略映射则返回默认策略的结果，请求已超过截止时间时返回降级处理器的结果
      * @throws Exception 获取或执行策略过程中可能的异常
      */
     public R router(T requestParameter, D dynamicContext) throws Exception {
-        StrategyHandler<T, D, R> strategyHandler = get(requestParameter, dynamicContext);
-        if (null != strategyHandler) return strategyHandler.apply(requestParameter, dynamicContext);
-        return defaultStrategyHandler.apply(requestParameter, dynamicContext);
+        if (Deadlines.isExceeded(dynamicContext)) {
+            StrategyHandler<T, D, R> fallback = RouterSupport.deadlineExceeded(this, deadlineFallbackHandler, defaultStrategyHandler);
+            return StrategyDispatcher.dispatch(this, fallback, requestParameter, dynamicContext);
+        }
+        if (null != speculativeRouting) {
+            return speculativeRouting.route(this, routingCache, defaultStrategyHandler, requestParameter, dynamicContext);
+        }
+        StrategyHandler<T, D, R> strategyHandler = RouterSupport.select(this, routingCache, defaultStrategyHandler, requestParameter, dynamicContext);
+        return StrategyDispatcher.dispatch(this, strategyHandler, requestParameter, dynamicContext);
+    }
+
+    /**
+     * 批量路由执行：逐个元素确定策略，再把选中同一 {@link BatchStrategyHandler} 的元素合并为一批执行。
+     * <p>未实现批量接口的策略逐个执行，效果与逐条调用 {@link #router(Object, Object)} 相同（含截止时间检查）；任一元素出错时整批失败。</p>
+     *
+     * @param requestParameters 入参列表，建议使用支持随机访问的列表
+     * @param dynamicContexts   与入参一一对应的上下文列表
+     * @return 与入参一一对应的执行结果
+     * @throws Exception 获取或执行策略过程中可能的异常
+     */
+    public List<R> routerBatch(List<T> requestParameters, List<D> dynamicContexts) throws Exception {
+        return RouterSupport.routerBatch(this, routingCache, deadlineFallbackHandler, defaultStrategyHandler, requestParameters, dynamicContexts);
+    }
+
+    /**
+     * 以熔断器与隔离舱保护下游处理器，被拒绝时执行当前的 {@link #defaultStrategyHandler}。
+     *
+     * @param strategyHandler 下游处理器
+     * @param guard           熔断器与隔离舱
+     * @return 受保护的处理器，在 {@link #get(Object, Object)} 中代替原处理器返回
+     */
+    protected StrategyHandler<T, D, R> guarded(StrategyHandler<T, D, R> strategyHandler, Guard guard) {
+        return RouterSupport.guarded(strategyHandler, guard, () -> defaultStrategyHandler);
+    }
+
+    /**
+     * 缓存下游处理器的执行结果，同一键的并发请求合并为一次执行；仅适用于结果是键的纯函数的处理器。
+     *
+     * @param strategyHandler 下游处理器
+     * @param keyExtractor    从入参与上下文提取缓存键，返回 {@code null} 表示本次不走缓存
+     * @param maximumSize     最大缓存条目数
+     * @param ttl             写入后存活时间，{@code <= 0} 表示永不过期
+     * @param unit            时间单位
+     * @param <K>             缓存键类型
+     * @return 带结果缓存的处理器，在 {@link #get(Object, Object)} 中代替原处理器返回
+     */
+    protected <K> MemoizingStrategyHandler<K, T, D, R> memoized(StrategyHandler<T, D, R> strategyHandler, BiFunction<T, D, K> keyExtractor,
+                                                                long maximumSize, long ttl, TimeUnit unit) {
+        return new MemoizingStrategyHandler<>(strategyHandler, keyExtractor, maximumSize, ttl, unit);
+    }
+
+    /**
+     * 启用路由决策缓存：同一键的请求不再重复执行 {@link #get(Object, Object)}。
+     *
+     * @param keyExtractor 从入参与上下文提取缓存键，返回 {@code null} 表示本次不走缓存
+     * @param maximumSize  最大缓存条目数
+     * @param ttl          写入后存活时间，{@code <= 0} 表示永不过期
+     * @param unit         时间单位
+     * @param <K>          缓存键类型
+     * @return 创建的路由缓存，可用于查看命中统计或主动失效
+     */
+    public <K> RoutingCache<K, T, D, R> enableRoutingCache(BiFunction<T, D, K> keyExtractor, long maximumSize, long ttl, TimeUnit unit) {
+        RoutingCache<K, T, D, R> cache = new RoutingCache<>(keyExtractor, maximumSize, ttl, unit);
+        this.routingCache = cache;
+        return cache;
+    }
+
+    /**
+     * 启用推测执行：映射与可能被选中的子节点同时开始，选中后取消落选的候选并提交选中候选的上下文变更。
+     *
+     * @param candidates 返回本次请求的候选子节点，应与 {@link #get(Object, Object)} 返回相同的实例
+     * @param forker     为候选复制上下文，如 {@code DynamicContext::fork}
+     * @param committer  把选中候选的上下文副本提交回原上下文，如 {@code DynamicContext::merge}
+     * @return 创建的推测执行配置，可用于设置线程池或查看命中统计
+     */
+    public SpeculativeRouting<T, D, R> enableSpeculation(BiFunction<T, D, List<? extends StrategyHandler<T, D, R>>> candidates,
+                                                         UnaryOperator<D> forker, BiConsumer<D, D> committer) {
+        SpeculativeRouting<T, D, R> speculation = new SpeculativeRouting<>(candidates, forker, committer);
+        this.speculativeRouting = speculation;
+        return speculation;
     }
 
     /**
@@ -48,6 +171,8 @@ public abstract class AbstractMultiThreadStrategyRouter<T, D, R> implements Stra
      */
     @Override
     public R apply(T requestParameter, D dynamicContext) throws Exception {
+        // 声明式注册的加载器并行加载数据，等待时间不超过请求剩余的时间预算
+        asyncLoadStage.load(requestParameter, dynamicContext, Math.max(0L, Deadlines.remainingNanos(dynamicContext)));
         // 异步加载数据
         multiThread(requestParameter, dynamicContext);
         // 业务流程受理
@@ -56,6 +181,9 @@ public abstract class AbstractMultiThreadStrategyRouter<T, D, R> implements Stra
 
     /**
      * 功能：异步加载数据或进行预计算。
+     * <p>默认不做任何处理；已通过 {@link #asyncLoadStage} 注册加载器的节点无需覆写。
+     * 覆写时若在工作线程中直接写入上下文，应使用线程安全的上下文（如
+     * {@link com.zsq.winter.design.link.model2.context.ConcurrentDynamicContext}），并在返回前等待工作线程结束。</p>
      *
      * @param requestParameter 入参
      * @param dynamicContext   上下文
@@ -63,7 +191,8 @@ public abstract class AbstractMultiThreadStrategyRouter<T, D, R> implements Stra
      * @throws InterruptedException 线程中断异常
      * @throws TimeoutException     任务超时异常
      */
-    protected abstract void multiThread(T requestParameter, D dynamicContext) throws ExecutionException, InterruptedException, TimeoutException;
+    protected void multiThread(T requestParameter, D dynamicContext) throws ExecutionException, InterruptedException, TimeoutException {
+    }
 
     /**
      * 功能：主业务受理逻辑，用来判断下一个节点的流向
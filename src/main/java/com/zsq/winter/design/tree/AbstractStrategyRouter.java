@@ -1,8 +1,14 @@
 package com.zsq.winter.design.tree;
 
+import com.zsq.winter.design.deadline.Deadlines;
+import com.zsq.winter.design.resilience.Guard;
 import lombok.Getter;
 import lombok.Setter;
 
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
 /**
  * 策略路由抽象基类：根据入参与上下文选择具体策略并执行。
  * 在 Java 中：
@@ -22,18 +28,91 @@ public abstract class AbstractStrategyRouter<T, D, R> implements StrategyMapper<
     @Setter
     protected StrategyHandler<T, D, R> defaultStrategyHandler = StrategyHandler.DEFAULT;
 
+    /**
+     * 请求超过截止时间时执行的降级处理器，为 {@code null} 时使用 {@link #defaultStrategyHandler}。
+     */
+    @Getter
+    @Setter
+    protected StrategyHandler<T, D, R> deadlineFallbackHandler;
+
+    /**
+     * 路由决策缓存，默认不启用；仅适用于路由结果是请求键纯函数的节点。
+     */
+    @Getter
+    @Setter
+    protected RoutingCache<?, T, D, R> routingCache;
+
     /**
      * 根据映射器获取策略并进行路由执行。
      *
      * @param requestParameter 入参
      * @param dynamicContext   上下文
-     * @return 策略执行结果；若无策略映射则返回默认策略的结果
+     * @return 策略执行结果；若无策略映射则返回默认策略的结果，请求已超过截止时间时返回降级处理器的结果
      * @throws Exception 获取或执行策略过程中可能的异常
      */
     public R router(T requestParameter, D dynamicContext) throws Exception {
-        StrategyHandler<T, D, R> strategyHandler = get(requestParameter, dynamicContext);
-        if(null != strategyHandler) return strategyHandler.apply(requestParameter, dynamicContext);
-        return defaultStrategyHandler.apply(requestParameter, dynamicContext);
+        if (Deadlines.isExceeded(dynamicContext)) {
+            StrategyHandler<T, D, R> fallback = RouterSupport.deadlineExceeded(this, deadlineFallbackHandler, defaultStrategyHandler);
+            return StrategyDispatcher.dispatch(this, fallback, requestParameter, dynamicContext);
+        }
+        StrategyHandler<T, D, R> strategyHandler = RouterSupport.select(this, routingCache, defaultStrategyHandler, requestParameter, dynamicContext);
+        return StrategyDispatcher.dispatch(this, strategyHandler, requestParameter, dynamicContext);
+    }
+
+    /**
+     * 批量路由执行：逐个元素确定策略，再把选中同一 {@link BatchStrategyHandler} 的元素合并为一批执行。
+     * <p>未实现批量接口的策略逐个执行，效果与逐条调用 {@link #router(Object, Object)} 相同（含截止时间检查）；任一元素出错时整批失败。</p>
+     *
+     * @param requestParameters 入参列表，建议使用支持随机访问的列表
+     * @param dynamicContexts   与入参一一对应的上下文列表
+     * @return 与入参一一对应的执行结果
+     * @throws Exception 获取或执行策略过程中可能的异常
+     */
+    public List<R> routerBatch(List<T> requestParameters, List<D> dynamicContexts) throws Exception {
+        return RouterSupport.routerBatch(this, routingCache, deadlineFallbackHandler, defaultStrategyHandler, requestParameters, dynamicContexts);
+    }
+
+    /**
+     * 以熔断器与隔离舱保护下游处理器，被拒绝时执行当前的 {@link #defaultStrategyHandler}。
+     *
+     * @param strategyHandler 下游处理器
+     * @param guard           熔断器与隔离舱
+     * @return 受保护的处理器，在 {@link #get(Object, Object)} 中代替原处理器返回
+     */
+    protected StrategyHandler<T, D, R> guarded(StrategyHandler<T, D, R> strategyHandler, Guard guard) {
+        return RouterSupport.guarded(strategyHandler, guard, () -> defaultStrategyHandler);
+    }
+
+    /**
+     * 缓存下游处理器的执行结果，同一键的并发请求合并为一次执行；仅适用于结果是键的纯函数的处理器。
+     *
+     * @param strategyHandler 下游处理器
+     * @param keyExtractor    从入参与上下文提取缓存键，返回 {@code null} 表示本次不走缓存
+     * @param maximumSize     最大缓存条目数
+     * @param ttl             写入后存活时间，{@code <= 0} 表示永不过期
+     * @param unit            时间单位
+     * @param <K>             缓存键类型
+     * @return 带结果缓存的处理器，在 {@link #get(Object, Object)} 中代替原处理器返回
+     */
+    protected <K> MemoizingStrategyHandler<K, T, D, R> memoized(StrategyHandler<T, D, R> strategyHandler, BiFunction<T, D, K> keyExtractor,
+                                                                long maximumSize, long ttl, TimeUnit unit) {
+        return new MemoizingStrategyHandler<>(strategyHandler, keyExtractor, maximumSize, ttl, unit);
+    }
+
+    /**
+     * 启用路由决策缓存：同一键的请求不再重复执行 {@link #get(Object, Object)}。
+     *
+     * @param keyExtractor 从入参与上下文提取缓存键，返回 {@code null} 表示本次不走缓存
+     * @param maximumSize  最大缓存条目数
+     * @param ttl          写入后存活时间，{@code <= 0} 表示永不过期
+     * @param unit         时间单位
+     * @param <K>          缓存键类型
+     * @return 创建的路由缓存，可用于查看命中统计或主动失效
+     */
+    public <K> RoutingCache<K, T, D, R> enableRoutingCache(BiFunction<T, D, K> keyExtractor, long maximumSize, long ttl, TimeUnit unit) {
+        RoutingCache<K, T, D, R> cache = new RoutingCache<>(keyExtractor, maximumSize, ttl, unit);
+        this.routingCache = cache;
+        return cache;
     }
 
 }
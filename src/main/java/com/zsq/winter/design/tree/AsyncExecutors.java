@@ -0,0 +1,106 @@
+package com.zsq.winter.design.tree;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 框架共享的异步执行器。
+ *
+ * <p>运行在 Java 21 及以上版本时优先使用虚拟线程（每任务一个虚拟线程），
+ * 否则退化为有界的守护线程池（最多 {@code max(16, CPU 数 * 8)} 个线程、排队 1024 个任务），饱和时拒绝新任务，
+ * 使用方在被拒绝时回退到调用线程执行或放弃并行。执行器为进程内共享，无需也不应关闭。</p>
+ */
+public final class AsyncExecutors {
+
+    /**
+     * 默认线程池（非虚拟线程时）的最大线程数。
+     */
+    private static final int DEFAULT_MAX_THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 8);
+
+    /**
+     * 默认线程池（非虚拟线程时）的最大排队任务数。
+     */
+    private static final int DEFAULT_QUEUE_CAPACITY = 1024;
+
+    private AsyncExecutors() {}
+
+    /**
+     * 获取共享的默认执行器。
+     *
+     * @return 默认执行器
+     */
+    public static ExecutorService defaultExecutor() {
+        return Holder.DEFAULT;
+    }
+
+    /**
+     * 当前运行环境是否支持虚拟线程。
+     *
+     * @return {@code true} 支持
+     */
+    public static boolean virtualThreadsAvailable() {
+        return Holder.VIRTUAL;
+    }
+
+    /**
+     * 尝试创建虚拟线程执行器。
+     *
+     * @return 虚拟线程执行器；当前 JDK 不支持时返回 {@code null}
+     */
+    public static ExecutorService newVirtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 创建有界的守护线程池：线程数与排队任务数均有上限，空闲线程超时后回收，饱和时拒绝新任务（{@link RejectedExecutionException}）。
+     *
+     * @param prefix        线程名前缀
+     * @param maxThreads    最大线程数
+     * @param queueCapacity 最大排队任务数
+     * @return 线程池
+     */
+    public static ExecutorService newDaemonBoundedExecutor(String prefix, int maxThreads, int queueCapacity) {
+        if (maxThreads <= 0) throw new IllegalArgumentException("maxThreads must be positive, maxThreads=" + maxThreads);
+        if (queueCapacity <= 0) throw new IllegalArgumentException("queueCapacity must be positive, queueCapacity=" + queueCapacity);
+        AtomicInteger sequence = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(queueCapacity), threadFactory, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * 延迟初始化的持有者，仅在首次使用默认执行器时创建。
+     */
+    private static final class Holder {
+
+        static final ExecutorService DEFAULT;
+
+        static final boolean VIRTUAL;
+
+        static {
+            ExecutorService virtual = newVirtualThreadExecutor();
+            VIRTUAL = virtual != null;
+            DEFAULT = VIRTUAL ? virtual : newDaemonBoundedExecutor("winter-design-async-", DEFAULT_MAX_THREADS, DEFAULT_QUEUE_CAPACITY);
+        }
+
+    }
+
+}
@@ -0,0 +1,285 @@
+package com.zsq.winter.design.tree;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * 声明式的并行加载阶段（fan-out / fan-in）。
+ * T 入参类型
+ * D 上下文参数
+ * <p>在节点上按名称注册若干 {@link AsyncLoader}，执行时：</p>
+ * <ol>
+ *   <li>将所有加载器同时提交到执行器（默认 {@link AsyncExecutors#defaultExecutor()}，支持时使用虚拟线程），线程池饱和时在调用线程上执行；</li>
+ *   <li>按完成顺序处理结果，每个加载器的等待时间取“自身超时”与“整体超时”中先到者；</li>
+ *   <li>任一加载器失败或超时且未配置降级时，立即取消其余仍在执行的加载器，并抛出带加载器名称的异常；</li>
+ *   <li>全部完成后，在调用线程上按注册顺序将结果写回上下文，因此上下文本身无需线程安全。</li>
+ * </ol>
+ *
+ * <p>注册应在节点构造阶段完成；执行期间注册新的加载器对正在执行的请求不可见。</p>
+ */
+public class AsyncLoadStage<T, D> {
+
+    /**
+     * 表示“不限时”的纳秒值。
+     */
+    private static final long NO_TIMEOUT = Long.MAX_VALUE;
+
+    /**
+     * 已注册的加载器，整体替换以保证执行时读到一致的快照。
+     */
+    private volatile Registration<T, D, ?>[] registrations = newRegistrations(0);
+
+    /**
+     * 执行加载器的线程池。
+     */
+    private volatile ExecutorService executor = AsyncExecutors.defaultExecutor();
+
+    /**
+     * 整体超时（纳秒）。
+     */
+    private volatile long timeoutNanos = NO_TIMEOUT;
+
+    /**
+     * 注册不限时、无降级的加载器。
+     *
+     * @param name         加载器名称，在阶段内唯一
+     * @param loader       加载器
+     * @param resultWriter 结果写回上下文的方式
+     * @param <V>          加载结果类型
+     * @return 当前阶段，便于链式注册
+     */
+    public <V> AsyncLoadStage<T, D> register(String name, AsyncLoader<T, D, V> loader, BiConsumer<D, V> resultWriter) {
+        return register(name, loader, resultWriter, 0, TimeUnit.NANOSECONDS, null);
+    }
+
+    /**
+     * 注册加载器。
+     *
+     * @param name         加载器名称，在阶段内唯一
+     * @param loader       加载器
+     * @param resultWriter 结果写回上下文的方式
+     * @param timeout      该加载器的超时时间，{@code <= 0} 表示只受整体超时约束
+     * @param unit         超时时间单位
+     * @param fallback     失败或超时时的降级结果（入参为失败原因），为 {@code null} 表示不降级、直接失败
+     * @param <V>          加载结果类型
+     * @return 当前阶段，便于链式注册
+     * @throws IllegalStateException 名称重复时抛出
+     */
+    public synchronized <V> AsyncLoadStage<T, D> register(String name, AsyncLoader<T, D, V> loader, BiConsumer<D, V> resultWriter,
+                                                          long timeout, TimeUnit unit, Function<Throwable, V> fallback) {
+        Objects.requireNonNull(name, "name must not be null");
+        Objects.requireNonNull(loader, "loader must not be null");
+        Objects.requireNonNull(resultWriter, "resultWriter must not be null");
+        for (Registration<T, D, ?> registration : registrations) {
+            if (registration.name.equals(name)) {
+                throw new IllegalStateException("重复注册异步加载器，name=" + name);
+            }
+        }
+        long loaderTimeout = timeout > 0 ? unit.toNanos(timeout) : NO_TIMEOUT;
+        Registration<T, D, ?>[] updated = Arrays.copyOf(registrations, registrations.length + 1);
+        updated[registrations.length] = new Registration<>(name, loader, resultWriter, loaderTimeout, fallback);
+        registrations = updated;
+        return this;
+    }
+
+    /**
+     * 并行执行所有加载器并将结果写回上下文。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @throws ExecutionException   加载器执行失败且未配置降级
+     * @throws InterruptedException 等待过程中线程被中断
+     * @throws TimeoutException     加载器超时且未配置降级
+     */
+    public void load(T requestParameter, D dynamicContext) throws ExecutionException, InterruptedException, TimeoutException {
+        load(requestParameter, dynamicContext, NO_TIMEOUT);
+    }
+
+    /**
+     * 并行执行所有加载器并将结果写回上下文，整体等待时间不超过 {@code budgetNanos}。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @param budgetNanos      调用方剩余的时间预算（纳秒），与阶段的整体超时取较小者
+     * @throws ExecutionException   加载器执行失败且未配置降级
+     * @throws InterruptedException 等待过程中线程被中断
+     * @throws TimeoutException     加载器超时且未配置降级
+     */
+    public void load(T requestParameter, D dynamicContext, long budgetNanos) throws ExecutionException, InterruptedException, TimeoutException {
+        final Registration<T, D, ?>[] registrations = this.registrations;
+        final int n = registrations.length;
+        if (n == 0) return;
+
+        final ExecutorService executor = this.executor;
+        final long start = System.nanoTime();
+        final long overallTimeout = Math.min(timeoutNanos, budgetNanos);
+
+        ExecutorCompletionService<Object> completionService = new ExecutorCompletionService<>(executor);
+        Future<?>[] futures = new Future<?>[n];
+        Object[] results = new Object[n];
+        boolean[] done = new boolean[n];
+        int pending = n;
+        try {
+            for (int i = 0; i < n; i++) {
+                AsyncLoader<T, D, ?> loader = registrations[i].loader;
+                Callable<Object> task = () -> loader.load(requestParameter, dynamicContext);
+                try {
+                    futures[i] = completionService.submit(task);
+                } catch (RejectedExecutionException e) {
+                    // 线程池饱和时在调用线程上执行
+                    FutureTask<Object> inline = new FutureTask<>(task);
+                    futures[i] = inline;
+                    inline.run();
+                    results[i] = completed(registrations[i], inline);
+                    done[i] = true;
+                    pending--;
+                }
+            }
+            // 按完成顺序处理结果，任一加载器失败或超时时立即结束，其余加载器在 finally 中取消
+            while (pending > 0) {
+                long elapsed = System.nanoTime() - start;
+                long wait = NO_TIMEOUT;
+                for (int i = 0; i < n; i++) {
+                    if (done[i]) continue;
+                    // 预算均为相对时长，避免与可能为负的 nanoTime 绝对值比较而溢出
+                    long timeout = Math.min(overallTimeout, registrations[i].timeoutNanos);
+                    if (timeout == NO_TIMEOUT) continue;
+                    long remaining = timeout - elapsed;
+                    if (remaining <= 0) {
+                        futures[i].cancel(true);
+                        results[i] = timedOut(registrations[i]);
+                        done[i] = true;
+                        pending--;
+                    } else {
+                        wait = Math.min(wait, remaining);
+                    }
+                }
+                if (pending == 0) break;
+                Future<Object> completed = wait == NO_TIMEOUT
+                        ? completionService.take()
+                        : completionService.poll(wait, TimeUnit.NANOSECONDS);
+                if (completed == null) continue;
+                int index = indexOf(futures, completed);
+                if (done[index]) continue;
+                results[index] = completed(registrations[index], completed);
+                done[index] = true;
+                pending--;
+            }
+        } finally {
+            // 正常完成时均已结束，cancel 为空操作；异常退出时取消仍在执行的加载器
+            for (Future<?> future : futures) {
+                if (future != null) future.cancel(true);
+            }
+        }
+
+        for (int i = 0; i < n; i++) {
+            registrations[i].write(dynamicContext, results[i]);
+        }
+    }
+
+    /**
+     * 设置执行加载器的线程池。
+     *
+     * @param executor 线程池
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+    }
+
+    /**
+     * 获取执行加载器的线程池。
+     *
+     * @return 线程池
+     */
+    public ExecutorService getExecutor() {
+        return executor;
+    }
+
+    /**
+     * 设置整体超时时间。
+     *
+     * @param timeout 超时时间，{@code <= 0} 表示不限时
+     * @param unit    时间单位
+     */
+    public void setTimeout(long timeout, TimeUnit unit) {
+        this.timeoutNanos = timeout > 0 ? unit.toNanos(timeout) : NO_TIMEOUT;
+    }
+
+    /**
+     * 是否注册了加载器。
+     *
+     * @return {@code true} 未注册任何加载器
+     */
+    public boolean isEmpty() {
+        return registrations.length == 0;
+    }
+
+    private static Object timedOut(Registration<?, ?, ?> registration) throws TimeoutException {
+        TimeoutException timeout = new TimeoutException("异步加载超时，name=" + registration.name);
+        if (registration.fallback != null) return registration.fallback.apply(timeout);
+        throw timeout;
+    }
+
+    private static Object completed(Registration<?, ?, ?> registration, Future<Object> future) throws ExecutionException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (registration.fallback != null) return registration.fallback.apply(e.getCause());
+            throw new ExecutionException("异步加载失败，name=" + registration.name, e.getCause());
+        }
+    }
+
+    private static int indexOf(Future<?>[] futures, Future<?> future) {
+        for (int i = 0; i < futures.length; i++) {
+            if (futures[i] == future) return i;
+        }
+        throw new IllegalStateException("未知的加载任务");
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static <T, D> Registration<T, D, ?>[] newRegistrations(int length) {
+        return new Registration[length];
+    }
+
+    /**
+     * 单个加载器的注册信息。
+     */
+    private static final class Registration<T, D, V> {
+
+        final String name;
+
+        final AsyncLoader<T, D, V> loader;
+
+        final BiConsumer<D, V> resultWriter;
+
+        final long timeoutNanos;
+
+        final Function<Throwable, V> fallback;
+
+        Registration(String name, AsyncLoader<T, D, V> loader, BiConsumer<D, V> resultWriter, long timeoutNanos, Function<Throwable, V> fallback) {
+            this.name = name;
+            this.loader = loader;
+            this.resultWriter = resultWriter;
+            this.timeoutNanos = timeoutNanos;
+            this.fallback = fallback;
+        }
+
+        @SuppressWarnings("unchecked")
+        void write(D dynamicContext, Object result) {
+            resultWriter.accept(dynamicContext, (V) result);
+        }
+
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.zsq.winter.design.tree;
+
+/**
+ * 异步加载器：在规则树节点受理前并行加载数据或进行预计算。
+ * T 入参类型
+ * D 上下文参数
+ * V 加载结果类型
+ * <p>通过 {@link AsyncLoadStage#register(String, AsyncLoader, java.util.function.BiConsumer)} 注册到节点，
+ * 由框架在线程池中执行；加载器内不应直接修改上下文，结果由框架统一写回。</p>
+ */
+@FunctionalInterface
+public interface AsyncLoader<T, D, V> {
+
+    /**
+     * 加载数据。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文（只读使用）
+     * @return 加载结果
+     * @throws Exception 加载过程中可能的异常
+     */
+    V load(T requestParameter, D dynamicContext) throws Exception;
+
+}
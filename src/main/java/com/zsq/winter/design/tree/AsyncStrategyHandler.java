@@ -0,0 +1,115 @@
+package com.zsq.winter.design.tree;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+
+/**
+ * 异步策略处理器接口：{@link StrategyHandler} 的非阻塞形态。
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>处理器返回 {@link CompletionStage}，I/O 等耗时操作不再占用请求线程；
+ * 与 {@link AsyncStrategyMapper} 配合、由 {@link AbstractAsyncStrategyRouter} 组合成完全非阻塞的规则树。</p>
+ *
+ * <p>同步与异步节点可混合使用：{@link #of(StrategyHandler)} 将同步节点挂到异步树上，
+ * {@link #blocking(AsyncStrategyHandler)} 将异步节点挂到同步树上（会阻塞等待结果）。</p>
+ */
+public interface AsyncStrategyHandler<T, D, R> {
+
+    /**
+     * 默认异步策略处理器：不做任何处理，返回已完成的 {@code null} 结果。
+     */
+    @SuppressWarnings("rawtypes")
+    AsyncStrategyHandler DEFAULT = (T, D) -> CompletableFuture.completedFuture(null);
+
+    /**
+     * 执行策略逻辑。
+     *
+     * <p>实现应通过返回异常完成的阶段来表达失败；直接抛出的运行时异常会被路由器转换为异常完成的阶段。</p>
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @return 执行结果的异步阶段，不能为 {@code null}
+     */
+    CompletionStage<R> apply(T requestParameter, D dynamicContext);
+
+    /**
+     * 将同步策略处理器适配为异步处理器，在调用线程上执行并返回已完成的阶段。
+     *
+     * @param handler 同步策略处理器
+     * @param <T>     入参类型
+     * @param <D>     上下文类型
+     * @param <R>     返参类型
+     * @return 异步策略处理器
+     */
+    static <T, D, R> AsyncStrategyHandler<T, D, R> of(StrategyHandler<T, D, R> handler) {
+        Objects.requireNonNull(handler, "handler must not be null");
+        return (requestParameter, dynamicContext) -> {
+            CompletableFuture<R> future = new CompletableFuture<>();
+            try {
+                future.complete(handler.apply(requestParameter, dynamicContext));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+            return future;
+        };
+    }
+
+    /**
+     * 将同步策略处理器适配为异步处理器，在指定线程池中执行，适合包装阻塞调用。
+     *
+     * @param handler  同步策略处理器
+     * @param executor 执行同步处理器的线程池
+     * @param <T>      入参类型
+     * @param <D>      上下文类型
+     * @param <R>      返参类型
+     * @return 异步策略处理器
+     */
+    static <T, D, R> AsyncStrategyHandler<T, D, R> of(StrategyHandler<T, D, R> handler, Executor executor) {
+        Objects.requireNonNull(handler, "handler must not be null");
+        Objects.requireNonNull(executor, "executor must not be null");
+        return (requestParameter, dynamicContext) -> {
+            CompletableFuture<R> future = new CompletableFuture<>();
+            try {
+                executor.execute(() -> {
+                    try {
+                        future.complete(handler.apply(requestParameter, dynamicContext));
+                    } catch (Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                });
+            } catch (Throwable e) {
+                // 线程池拒绝执行
+                future.completeExceptionally(e);
+            }
+            return future;
+        };
+    }
+
+    /**
+     * 将异步策略处理器适配为同步处理器：阻塞等待结果，异常完成时抛出原始异常。
+     *
+     * @param handler 异步策略处理器
+     * @param <T>     入参类型
+     * @param <D>     上下文类型
+     * @param <R>     返参类型
+     * @return 同步策略处理器
+     */
+    static <T, D, R> StrategyHandler<T, D, R> blocking(AsyncStrategyHandler<T, D, R> handler) {
+        Objects.requireNonNull(handler, "handler must not be null");
+        return (requestParameter, dynamicContext) -> {
+            try {
+                return handler.apply(requestParameter, dynamicContext).toCompletableFuture().get();
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception) throw (Exception) cause;
+                if (cause instanceof Error) throw (Error) cause;
+                throw e;
+            }
+        };
+    }
+
+}
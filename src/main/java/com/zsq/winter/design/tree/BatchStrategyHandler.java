@@ -0,0 +1,30 @@
+package com.zsq.winter.design.tree;
+
+import java.util.List;
+
+/**
+ * 支持批量处理的策略处理器。
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>路由器以批量方式执行（{@code routerBatch}）时，会把路由到同一处理器的元素合并为一批，
+ * 实现了本接口的处理器一次性接收整批元素，可借此合并远程调用、批量查库等；未实现本接口的处理器逐个调用 {@link #apply(Object, Object)}。
+ * 单条执行时仍走 {@code apply}，两者的业务语义应保持一致。</p>
+ *
+ * <p>作为中间节点的路由器实现本接口时，通常在 {@code applyBatch} 中完成本节点的批量受理，再调用 {@code routerBatch} 继续向下路由。</p>
+ */
+public interface BatchStrategyHandler<T, D, R> extends StrategyHandler<T, D, R> {
+
+    /**
+     * 批量执行策略逻辑。
+     *
+     * <p>两个列表一一对应、只读，且仅在本次调用期间有效，不应被保存。</p>
+     *
+     * @param requestParameters 入参列表
+     * @param dynamicContexts   与入参一一对应的上下文列表
+     * @return 与入参一一对应的执行结果，大小必须与入参列表一致
+     * @throws Exception 执行过程中可能的异常
+     */
+    List<R> applyBatch(List<T> requestParameters, List<D> dynamicContexts) throws Exception;
+
+}
@@ -0,0 +1,452 @@
+package com.zsq.winter.design.tree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * 决策表：把 {@link StrategyMapper#get(Object, Object)} 中按若干字段判断的 if/else 分支声明为规则，并编译为查找结构。
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>表由若干维度与若干规则组成：</p>
+ * <ul>
+ *   <li>精确维度（{@link Builder#exact}）：从入参与上下文提取一个值，规则声明可接受的取值集合，编译为哈希表；</li>
+ *   <li>区间维度（{@link Builder#range}）：提取一个 {@code long} 值，规则声明左闭右开区间，编译为有序边界数组，查找时二分定位；</li>
+ *   <li>规则未约束的维度视为任意值；多条规则同时命中时，先声明的规则优先，语义与 if/else 阶梯一致。</li>
+ * </ul>
+ *
+ * <p>每个维度的每个取值（或区间片段）预先计算出命中规则的位图，查找时只需每个维度一次哈希或二分，再对位图按位与取最低位，
+ * 耗时与规则数量基本无关；规则不超过 64 条时查找过程不分配对象。编译后的决策表不可变，可在多线程间共享。</p>
+ *
+ * <pre>{@code
+ * DecisionTable<Req, DynamicContext, Res> table = DecisionTable.<Req, DynamicContext, Res>builder()
+ *         .exact("channel", (req, ctx) -> req.getChannel())
+ *         .range("amount", (req, ctx) -> req.getAmount())
+ *         .rule(bigAppHandler).in("channel", "APP", "H5").between("amount", 10_000, Long.MAX_VALUE).end()
+ *         .rule(appHandler).in("channel", "APP", "H5").end()
+ *         .rule(otherHandler).end()
+ *         .build();
+ *
+ * public StrategyHandler<Req, DynamicContext, Res> get(Req req, DynamicContext ctx) {
+ *     return table.get(req, ctx);
+ * }
+ * }</pre>
+ */
+public final class DecisionTable<T, D, R> implements StrategyMapper<T, D, R> {
+
+    private final ExactDimension<T, D>[] exactDimensions;
+
+    private final RangeDimension<T, D>[] rangeDimensions;
+
+    /**
+     * 规则对应的处理器，下标即规则优先级。
+     */
+    private final StrategyHandler<T, D, R>[] handlers;
+
+    /**
+     * 没有规则命中时返回的处理器。
+     */
+    private final StrategyHandler<T, D, R> defaultHandler;
+
+    /**
+     * 位图长度（以 long 计）。
+     */
+    private final int words;
+
+    private DecisionTable(ExactDimension<T, D>[] exactDimensions, RangeDimension<T, D>[] rangeDimensions,
+                          StrategyHandler<T, D, R>[] handlers, StrategyHandler<T, D, R> defaultHandler) {
+        this.exactDimensions = exactDimensions;
+        this.rangeDimensions = rangeDimensions;
+        this.handlers = handlers;
+        this.defaultHandler = defaultHandler;
+        this.words = words(handlers.length);
+    }
+
+    /**
+     * 创建决策表构建器。
+     *
+     * @param <T> 入参类型
+     * @param <D> 上下文参数
+     * @param <R> 返参类型
+     * @return 构建器
+     */
+    public static <T, D, R> Builder<T, D, R> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * 查找第一条命中的规则。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @return 命中规则的处理器；没有规则命中时返回默认处理器（未设置时为 {@code null}）
+     */
+    @Override
+    public StrategyHandler<T, D, R> get(T requestParameter, D dynamicContext) {
+        int rule = match(requestParameter, dynamicContext);
+        return rule < 0 ? defaultHandler : handlers[rule];
+    }
+
+    /**
+     * 查找第一条命中的规则的下标。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @return 规则下标（按声明顺序从 0 开始），没有规则命中时返回 {@code -1}
+     */
+    public int match(T requestParameter, D dynamicContext) {
+        if (words == 1) {
+            long word = -1L;
+            for (int i = 0; i < exactDimensions.length && word != 0L; i++) {
+                word &= exactDimensions[i].masks(requestParameter, dynamicContext)[0];
+            }
+            for (int i = 0; i < rangeDimensions.length && word != 0L; i++) {
+                word &= rangeDimensions[i].masks(requestParameter, dynamicContext)[0];
+            }
+            int rule = Long.numberOfTrailingZeros(word);
+            return rule < handlers.length ? rule : -1;
+        }
+        final int exactCount = exactDimensions.length;
+        final long[][] masks = new long[exactCount + rangeDimensions.length][];
+        for (int i = 0; i < exactCount; i++) {
+            masks[i] = exactDimensions[i].masks(requestParameter, dynamicContext);
+        }
+        for (int i = 0; i < rangeDimensions.length; i++) {
+            masks[exactCount + i] = rangeDimensions[i].masks(requestParameter, dynamicContext);
+        }
+        for (int w = 0; w < words; w++) {
+            long word = -1L;
+            for (int i = 0; i < masks.length && word != 0L; i++) {
+                word &= masks[i][w];
+            }
+            if (word != 0L) {
+                int rule = (w << 6) + Long.numberOfTrailingZeros(word);
+                return rule < handlers.length ? rule : -1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取规则数量。
+     *
+     * @return 规则数量
+     */
+    public int size() {
+        return handlers.length;
+    }
+
+    private static int words(int rules) {
+        return Math.max(1, (rules + 63) >>> 6);
+    }
+
+    private static void set(long[] mask, int rule) {
+        mask[rule >>> 6] |= 1L << rule;
+    }
+
+    /**
+     * 编译后的精确维度：取值 → 命中规则的位图。
+     */
+    private static final class ExactDimension<T, D> {
+
+        final BiFunction<T, D, ?> extractor;
+
+        final Map<Object, long[]> masks;
+
+        /**
+         * 取值不在表中时命中的规则，即未约束本维度的规则。
+         */
+        final long[] otherwise;
+
+        ExactDimension(BiFunction<T, D, ?> extractor, Map<Object, long[]> masks, long[] otherwise) {
+            this.extractor = extractor;
+            this.masks = masks;
+            this.otherwise = otherwise;
+        }
+
+        long[] masks(T requestParameter, D dynamicContext) {
+            long[] mask = masks.get(extractor.apply(requestParameter, dynamicContext));
+            return null == mask ? otherwise : mask;
+        }
+
+    }
+
+    /**
+     * 编译后的区间维度：有序边界把数轴切分为若干片段，每个片段对应命中规则的位图。
+     */
+    private static final class RangeDimension<T, D> {
+
+        final ToLongBiFunction<T, D> extractor;
+
+        /**
+         * 升序排列的边界，第 {@code i} 个片段为 {@code [bounds[i - 1], bounds[i])}，首尾片段无界。
+         */
+        final long[] bounds;
+
+        final long[][] masks;
+
+        RangeDimension(ToLongBiFunction<T, D> extractor, long[] bounds, long[][] masks) {
+            this.extractor = extractor;
+            this.bounds = bounds;
+            this.masks = masks;
+        }
+
+        long[] masks(T requestParameter, D dynamicContext) {
+            long value = extractor.applyAsLong(requestParameter, dynamicContext);
+            int index = Arrays.binarySearch(bounds, value);
+            // 命中边界时值属于以该边界开始的片段；否则插入点即片段下标
+            return masks[index >= 0 ? index + 1 : -index - 1];
+        }
+
+    }
+
+    /**
+     * 决策表构建器：先声明维度，再按优先级从高到低声明规则。构建器不是线程安全的。
+     */
+    public static final class Builder<T, D, R> {
+
+        private final Map<String, BiFunction<T, D, ?>> exactExtractors = new LinkedHashMap<>();
+
+        private final Map<String, ToLongBiFunction<T, D>> rangeExtractors = new LinkedHashMap<>();
+
+        private final List<Rule<T, D, R>> rules = new ArrayList<>();
+
+        private StrategyHandler<T, D, R> defaultHandler;
+
+        private Builder() {}
+
+        /**
+         * 声明精确匹配维度。
+         *
+         * @param name      维度名称
+         * @param extractor 从入参与上下文提取取值，取值需正确实现 {@code equals} 与 {@code hashCode}
+         * @return 当前构建器
+         */
+        public Builder<T, D, R> exact(String name, BiFunction<T, D, ?> extractor) {
+            checkDimension(name);
+            exactExtractors.put(name, Objects.requireNonNull(extractor, "extractor must not be null"));
+            return this;
+        }
+
+        /**
+         * 声明区间维度。
+         *
+         * @param name      维度名称
+         * @param extractor 从入参与上下文提取取值
+         * @return 当前构建器
+         */
+        public Builder<T, D, R> range(String name, ToLongBiFunction<T, D> extractor) {
+            checkDimension(name);
+            rangeExtractors.put(name, Objects.requireNonNull(extractor, "extractor must not be null"));
+            return this;
+        }
+
+        /**
+         * 开始声明一条规则，优先级低于之前声明的规则。
+         *
+         * @param handler 规则命中时返回的处理器
+         * @return 规则构建器，以 {@link RuleBuilder#end()} 结束
+         */
+        public RuleBuilder<T, D, R> rule(StrategyHandler<T, D, R> handler) {
+            return new RuleBuilder<>(this, Objects.requireNonNull(handler, "handler must not be null"));
+        }
+
+        /**
+         * 设置没有规则命中时返回的处理器，默认为 {@code null}（交由路由器回退到其默认处理器）。
+         *
+         * @param defaultHandler 默认处理器
+         * @return 当前构建器
+         */
+        public Builder<T, D, R> defaultHandler(StrategyHandler<T, D, R> defaultHandler) {
+            this.defaultHandler = defaultHandler;
+            return this;
+        }
+
+        /**
+         * 编译决策表。
+         *
+         * @return 不可变的决策表
+         */
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        public DecisionTable<T, D, R> build() {
+            final int words = words(rules.size());
+            ExactDimension<T, D>[] exactDimensions = new ExactDimension[exactExtractors.size()];
+            int i = 0;
+            for (Map.Entry<String, BiFunction<T, D, ?>> entry : exactExtractors.entrySet()) {
+                exactDimensions[i++] = compileExact(entry.getKey(), entry.getValue(), words);
+            }
+            RangeDimension<T, D>[] rangeDimensions = new RangeDimension[rangeExtractors.size()];
+            i = 0;
+            for (Map.Entry<String, ToLongBiFunction<T, D>> entry : rangeExtractors.entrySet()) {
+                rangeDimensions[i++] = compileRange(entry.getKey(), entry.getValue(), words);
+            }
+            StrategyHandler<T, D, R>[] handlers = new StrategyHandler[rules.size()];
+            for (int r = 0; r < handlers.length; r++) {
+                handlers[r] = rules.get(r).handler;
+            }
+            return new DecisionTable<>(exactDimensions, rangeDimensions, handlers, defaultHandler);
+        }
+
+        private ExactDimension<T, D> compileExact(String name, BiFunction<T, D, ?> extractor, int words) {
+            long[] otherwise = new long[words];
+            Set<Object> values = new HashSet<>();
+            for (int r = 0; r < rules.size(); r++) {
+                Set<Object> accepted = rules.get(r).exact.get(name);
+                if (null == accepted) {
+                    set(otherwise, r);
+                } else {
+                    values.addAll(accepted);
+                }
+            }
+            Map<Object, long[]> masks = new HashMap<>(values.size() * 2);
+            for (Object value : values) {
+                long[] mask = otherwise.clone();
+                for (int r = 0; r < rules.size(); r++) {
+                    Set<Object> accepted = rules.get(r).exact.get(name);
+                    if (null != accepted && accepted.contains(value)) set(mask, r);
+                }
+                masks.put(value, mask);
+            }
+            return new ExactDimension<>(extractor, masks, otherwise);
+        }
+
+        private RangeDimension<T, D> compileRange(String name, ToLongBiFunction<T, D> extractor, int words) {
+            TreeSet<Long> boundSet = new TreeSet<>();
+            for (Rule<T, D, R> rule : rules) {
+                long[] interval = rule.ranges.get(name);
+                if (null == interval) continue;
+                boundSet.add(interval[0]);
+                boundSet.add(interval[1]);
+            }
+            long[] bounds = new long[boundSet.size()];
+            int i = 0;
+            for (Long bound : boundSet) {
+                bounds[i++] = bound;
+            }
+            long[][] masks = new long[bounds.length + 1][];
+            for (int segment = 0; segment < masks.length; segment++) {
+                long[] mask = new long[words];
+                for (int r = 0; r < rules.size(); r++) {
+                    long[] interval = rules.get(r).ranges.get(name);
+                    if (null == interval || covers(interval, bounds, segment)) set(mask, r);
+                }
+                masks[segment] = mask;
+            }
+            return new RangeDimension<>(extractor, bounds, masks);
+        }
+
+        /**
+         * 片段要么整体落在区间内、要么整体落在区间外，因此只需判断片段起点。
+         */
+        private static boolean covers(long[] interval, long[] bounds, int segment) {
+            if (segment == 0) return interval[0] == Long.MIN_VALUE && interval[1] > Long.MIN_VALUE;
+            long start = bounds[segment - 1];
+            return interval[0] <= start && start < interval[1];
+        }
+
+        private void checkDimension(String name) {
+            Objects.requireNonNull(name, "name must not be null");
+            if (exactExtractors.containsKey(name) || rangeExtractors.containsKey(name)) {
+                throw new IllegalStateException("重复声明决策表维度，name=" + name);
+            }
+        }
+
+    }
+
+    /**
+     * 单条规则的构建器。
+     */
+    public static final class RuleBuilder<T, D, R> {
+
+        private final Builder<T, D, R> owner;
+
+        private final Rule<T, D, R> rule;
+
+        private RuleBuilder(Builder<T, D, R> owner, StrategyHandler<T, D, R> handler) {
+            this.owner = owner;
+            this.rule = new Rule<>(handler);
+        }
+
+        /**
+         * 约束精确维度的取值为给定值之一。
+         *
+         * @param name   维度名称
+         * @param values 可接受的取值
+         * @return 当前规则构建器
+         */
+        public RuleBuilder<T, D, R> in(String name, Object... values) {
+            if (!owner.exactExtractors.containsKey(name)) {
+                throw new IllegalStateException("未声明的精确维度，name=" + name);
+            }
+            if (rule.exact.containsKey(name)) {
+                throw new IllegalStateException("规则重复约束维度，name=" + name);
+            }
+            Set<Object> accepted = new HashSet<>();
+            Collections.addAll(accepted, values);
+            rule.exact.put(name, accepted);
+            return this;
+        }
+
+        /**
+         * 约束区间维度的取值落在 {@code [from, to)} 内。
+         *
+         * @param name 维度名称
+         * @param from 下界（包含），{@link Long#MIN_VALUE} 表示无下界
+         * @param to   上界（不包含）
+         * @return 当前规则构建器
+         */
+        public RuleBuilder<T, D, R> between(String name, long from, long to) {
+            if (!owner.rangeExtractors.containsKey(name)) {
+                throw new IllegalStateException("未声明的区间维度，name=" + name);
+            }
+            if (rule.ranges.containsKey(name)) {
+                throw new IllegalStateException("规则重复约束维度，name=" + name);
+            }
+            if (from > to) {
+                throw new IllegalArgumentException("区间下界大于上界，name=" + name + ", from=" + from + ", to=" + to);
+            }
+            rule.ranges.put(name, new long[]{from, to});
+            return this;
+        }
+
+        /**
+         * 结束当前规则。
+         *
+         * @return 决策表构建器
+         */
+        public Builder<T, D, R> end() {
+            owner.rules.add(rule);
+            return owner;
+        }
+
+    }
+
+    /**
+     * 规则声明。
+     */
+    private static final class Rule<T, D, R> {
+
+        final StrategyHandler<T, D, R> handler;
+
+        final Map<String, Set<Object>> exact = new HashMap<>();
+
+        final Map<String, long[]> ranges = new HashMap<>();
+
+        Rule(StrategyHandler<T, D, R> handler) {
+            this.handler = handler;
+        }
+
+    }
+
+}
@@ -0,0 +1,111 @@
+package com.zsq.winter.design.tree;
+
+import com.zsq.winter.design.metrics.Metrics;
+import com.zsq.winter.design.metrics.MetricsRecorder;
+import com.zsq.winter.design.metrics.NodeOutcome;
+import com.zsq.winter.design.resilience.CircuitBreaker;
+import com.zsq.winter.design.resilience.Guard;
+
+import java.util.Objects;
+
+/**
+ * 以熔断器与隔离舱保护单个策略处理器或规则树节点。
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>被拒绝时不执行被保护的处理器，改为执行降级处理器（通常传入路由器的 {@code defaultStrategyHandler}），
+ * 并向节点指标记录一次 {@link NodeOutcome#REJECTED}；降级处理器为 {@code null} 时抛出
+ * {@link com.zsq.winter.design.resilience.CallNotPermittedException}。</p>
+ *
+ * <p>由路由器调用时，拒绝与正常调用都以路由器为范围、以被保护的处理器为节点记录，落在该节点的同一行指标中；
+ * 单独使用时拒绝以本类为范围记录。</p>
+ *
+ * <pre>{@code
+ * StrategyHandler<Req, DynamicContext, Res> risk = new GuardedStrategyHandler<>(riskNode,
+ *         Guard.of(CircuitBreaker.builder("risk").build(), new Bulkhead("risk", 32)),
+ *         getDefaultStrategyHandler());
+ * }</pre>
+ */
+public final class GuardedStrategyHandler<T, D, R> implements StrategyHandler<T, D, R> {
+
+    private final StrategyHandler<T, D, R> delegate;
+
+    private final Guard guard;
+
+    private final StrategyHandler<T, D, R> fallback;
+
+    /**
+     * 创建受保护的处理器。
+     *
+     * @param delegate 被保护的处理器
+     * @param guard    熔断器与隔离舱
+     * @param fallback 被拒绝时执行的处理器，可为 {@code null}
+     */
+    public GuardedStrategyHandler(StrategyHandler<T, D, R> delegate, Guard guard, StrategyHandler<T, D, R> fallback) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.guard = Objects.requireNonNull(guard, "guard must not be null");
+        this.fallback = fallback;
+    }
+
+    @Override
+    public R apply(T requestParameter, D dynamicContext) throws Exception {
+        CircuitBreaker.Permit permit = guard.tryEnter();
+        if (null == permit) {
+            MetricsRecorder recorder = Metrics.recorder();
+            if (null != recorder) recorder.record(GuardedStrategyHandler.class.getName(), delegate, 0L, NodeOutcome.REJECTED);
+            return rejected(requestParameter, dynamicContext);
+        }
+        return applyPermitted(permit, requestParameter, dynamicContext);
+    }
+
+    /**
+     * 申请执行许可，由 {@link StrategyDispatcher} 在记录指标前调用。
+     *
+     * @return 许可；被拒绝时返回 {@code null}
+     */
+    CircuitBreaker.Permit tryEnter() {
+        return guard.tryEnter();
+    }
+
+    /**
+     * 被拒绝时执行降级处理器。
+     */
+    R rejected(T requestParameter, D dynamicContext) throws Exception {
+        if (null == fallback) throw guard.notPermitted();
+        return fallback.apply(requestParameter, dynamicContext);
+    }
+
+    /**
+     * 持有许可执行被保护的处理器，结束后归还许可并向熔断器报告结果。
+     */
+    R applyPermitted(CircuitBreaker.Permit permit, T requestParameter, D dynamicContext) throws Exception {
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            R result = delegate.apply(requestParameter, dynamicContext);
+            failed = false;
+            return result;
+        } finally {
+            guard.exit(permit, System.nanoTime() - start, failed);
+        }
+    }
+
+    /**
+     * 获取被保护的处理器。
+     *
+     * @return 被保护的处理器
+     */
+    public StrategyHandler<T, D, R> getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * 获取熔断器与隔离舱。
+     *
+     * @return 保护组合
+     */
+    public Guard getGuard() {
+        return guard;
+    }
+
+}
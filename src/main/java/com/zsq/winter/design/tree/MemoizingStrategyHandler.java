@@ -0,0 +1,100 @@
+package com.zsq.winter.design.tree;
+
+import com.zsq.winter.design.cache.CacheStats;
+import com.zsq.winter.design.cache.LocalCache;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * 结果缓存：以请求派生的键缓存策略处理器的执行结果，同一键的并发请求合并为一次执行。
+ * K 缓存键类型
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>仅适用于结果是“键”的纯函数、且代价较高的处理器：同一键必须总是得到相同的结果，处理器不依赖也不修改上下文中的其他状态，
+ * 命中时处理器不会执行，其对上下文的写入也不会发生。键提取器返回 {@code null} 时本次请求不走缓存；结果为 {@code null} 时不缓存。</p>
+ *
+ * <p>缓存为有界的 {@link LocalCache}（CLOCK 淘汰 + 写入后 TTL）；同一键的并发未命中只有首个请求执行处理器，
+ * 其余请求等待并共享其结果或异常，避免缓存击穿；处理器执行期间在同一线程上以同一键重入时抛出 {@link IllegalStateException}。</p>
+ *
+ * <pre>{@code
+ * StrategyHandler<Req, DynamicContext, Quote> quote = new MemoizingStrategyHandler<>(quoteNode,
+ *         (req, ctx) -> req.getSkuId() + ":" + req.getRegion(), 10_000, 30, TimeUnit.SECONDS);
+ * }</pre>
+ */
+public final class MemoizingStrategyHandler<K, T, D, R> implements StrategyHandler<T, D, R> {
+
+    private final StrategyHandler<T, D, R> delegate;
+
+    private final BiFunction<T, D, K> keyExtractor;
+
+    private final LocalCache<K, R> cache;
+
+    /**
+     * 创建带结果缓存的处理器。
+     *
+     * @param delegate     被缓存的处理器
+     * @param keyExtractor 从入参与上下文提取缓存键，返回 {@code null} 表示本次不走缓存
+     * @param maximumSize  最大缓存条目数
+     * @param ttl          写入后存活时间，{@code <= 0} 表示永不过期
+     * @param unit         时间单位
+     */
+    public MemoizingStrategyHandler(StrategyHandler<T, D, R> delegate, BiFunction<T, D, K> keyExtractor, long maximumSize, long ttl, TimeUnit unit) {
+        this.delegate = Objects.requireNonNull(delegate, "delegate must not be null");
+        this.keyExtractor = Objects.requireNonNull(keyExtractor, "keyExtractor must not be null");
+        this.cache = new LocalCache<>(maximumSize, ttl, unit);
+    }
+
+    @Override
+    public R apply(T requestParameter, D dynamicContext) throws Exception {
+        K key = keyExtractor.apply(requestParameter, dynamicContext);
+        if (null == key) return delegate.apply(requestParameter, dynamicContext);
+        return cache.get(key, () -> delegate.apply(requestParameter, dynamicContext));
+    }
+
+    /**
+     * 使指定键的结果失效。
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * 清空全部结果，通常在处理器依赖的数据变更后调用。
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 获取命中统计。
+     *
+     * @return 统计快照
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+    /**
+     * 获取并发未命中时等待在途执行、未重复执行处理器的次数。
+     *
+     * @return 合并的执行次数
+     */
+    public long getCoalescedCount() {
+        return cache.getCoalescedCount();
+    }
+
+    /**
+     * 获取被缓存的处理器。
+     *
+     * @return 被缓存的处理器
+     */
+    public StrategyHandler<T, D, R> getDelegate() {
+        return delegate;
+    }
+
+}
@@ -0,0 +1,222 @@
+package com.zsq.winter.design.tree;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * 并行路由：把一批请求分发到 {@link ForkJoinPool} 上并行通过同一棵规则树。
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>每个请求使用 {@code contextSupplier} 新建的上下文，规则树节点因此无需处理上下文的并发访问，但节点本身必须是无状态或线程安全的。</p>
+ *
+ * <ul>
+ *   <li>有序模式：结果按输入顺序交给 {@link RoutingSink}，慢请求会阻塞其后已完成结果的输出；</li>
+ *   <li>无序模式：结果按完成顺序输出，吞吐更高；</li>
+ *   <li>背压：同时在途的请求数不超过 {@link #setMaxInFlight(int)}，达到上限时调用线程停止读取输入，直到有结果输出，
+ *   因此输入可以是无界的流或迭代器；</li>
+ *   <li>任一请求失败或 {@code sink} 抛出异常时停止读取输入，尚未开始的请求被取消，正在执行的请求结果被丢弃。</li>
+ * </ul>
+ *
+ * <pre>{@code
+ * ParallelRouter<Req, DynamicContext, Res> parallel = new ParallelRouter<>(rootNode::router, DynamicContext::new);
+ * parallel.route(requests.stream(), false, (req, ctx, res) -> writer.write(res));
+ * }</pre>
+ */
+public class ParallelRouter<T, D, R> {
+
+    /**
+     * 规则树入口，通常为根节点的 {@code router} 或 {@code apply}。
+     */
+    private final StrategyHandler<T, D, R> root;
+
+    /**
+     * 为每个请求创建上下文。
+     */
+    private final Supplier<D> contextSupplier;
+
+    /**
+     * 执行路由的线程池。
+     */
+    private volatile ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * 同时在途的最大请求数。
+     */
+    private volatile int maxInFlight = ForkJoinPool.commonPool().getParallelism() * 4;
+
+    /**
+     * 创建并行路由。
+     *
+     * @param root            规则树入口
+     * @param contextSupplier 为每个请求创建上下文
+     */
+    public ParallelRouter(StrategyHandler<T, D, R> root, Supplier<D> contextSupplier) {
+        this.root = Objects.requireNonNull(root, "root must not be null");
+        this.contextSupplier = Objects.requireNonNull(contextSupplier, "contextSupplier must not be null");
+    }
+
+    /**
+     * 并行路由全部请求，按输入顺序返回结果。
+     *
+     * @param requestParameters 入参
+     * @return 与入参顺序一致的结果
+     * @throws ExecutionException   任一请求路由失败，原因为原始异常
+     * @throws InterruptedException 等待过程中线程被中断
+     */
+    public List<R> routeAll(Iterable<? extends T> requestParameters) throws ExecutionException, InterruptedException {
+        List<R> results = new ArrayList<>();
+        try {
+            route(requestParameters.iterator(), true, (requestParameter, dynamicContext, result) -> results.add(result));
+        } catch (ExecutionException | InterruptedException e) {
+            throw e;
+        } catch (Exception e) {
+            // 收集结果的 sink 不会抛出受检异常
+            throw new IllegalStateException(e);
+        }
+        return results;
+    }
+
+    /**
+     * 并行路由流中的请求。
+     *
+     * @param requestParameters 入参流，在调用线程上按需读取
+     * @param ordered           是否按输入顺序输出结果
+     * @param sink              结果接收方，在调用线程上回调
+     * @throws ExecutionException   任一请求路由失败，原因为原始异常
+     * @throws InterruptedException 等待过程中线程被中断
+     * @throws Exception            {@code sink} 抛出的异常
+     */
+    public void route(Stream<? extends T> requestParameters, boolean ordered, RoutingSink<T, D, R> sink) throws Exception {
+        route(requestParameters.iterator(), ordered, sink);
+    }
+
+    /**
+     * 并行路由迭代器中的请求。
+     *
+     * @param requestParameters 入参迭代器，在调用线程上按需读取
+     * @param ordered           是否按输入顺序输出结果
+     * @param sink              结果接收方，在调用线程上回调
+     * @throws ExecutionException   任一请求路由失败，原因为原始异常
+     * @throws InterruptedException 等待过程中线程被中断
+     * @throws Exception            {@code sink} 抛出的异常
+     */
+    public void route(Iterator<? extends T> requestParameters, boolean ordered, RoutingSink<T, D, R> sink) throws Exception {
+        Objects.requireNonNull(sink, "sink must not be null");
+        final ForkJoinPool pool = this.pool;
+        final int maxInFlight = this.maxInFlight;
+        ArrayDeque<Slot> inFlight = new ArrayDeque<>(maxInFlight);
+        BlockingQueue<Slot> completions = ordered ? null : new LinkedBlockingQueue<>();
+        try {
+            while (requestParameters.hasNext()) {
+                if (inFlight.size() == maxInFlight) {
+                    emit(ordered ? inFlight.peekFirst() : completions.take(), inFlight, sink);
+                }
+                Slot slot = new Slot(requestParameters.next(), completions);
+                slot.task = pool.submit(slot);
+                inFlight.addLast(slot);
+            }
+            while (!inFlight.isEmpty()) {
+                emit(ordered ? inFlight.peekFirst() : completions.take(), inFlight, sink);
+            }
+        } finally {
+            // 正常完成时队列为空；异常退出时取消尚未开始的请求
+            for (Slot slot : inFlight) {
+                slot.task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * 设置执行路由的线程池。
+     *
+     * @param pool 线程池
+     */
+    public void setPool(ForkJoinPool pool) {
+        this.pool = Objects.requireNonNull(pool, "pool must not be null");
+    }
+
+    /**
+     * 获取执行路由的线程池。
+     *
+     * @return 线程池
+     */
+    public ForkJoinPool getPool() {
+        return pool;
+    }
+
+    /**
+     * 设置同时在途的最大请求数，即背压窗口大小。
+     *
+     * @param maxInFlight 最大在途请求数，必须大于 0
+     */
+    public void setMaxInFlight(int maxInFlight) {
+        if (maxInFlight <= 0) throw new IllegalArgumentException("maxInFlight must be positive, maxInFlight=" + maxInFlight);
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * 获取同时在途的最大请求数。
+     *
+     * @return 最大在途请求数
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    private void emit(Slot slot, ArrayDeque<Slot> inFlight, RoutingSink<T, D, R> sink) throws Exception {
+        slot.task.get();
+        inFlight.remove(slot);
+        if (null != slot.error) {
+            throw new ExecutionException("并行路由失败，request=" + slot.requestParameter, slot.error);
+        }
+        sink.accept(slot.requestParameter, slot.dynamicContext, slot.result);
+    }
+
+    /**
+     * 单个请求的执行单元，执行结束后（无论成功与否）在无序模式下放入完成队列。
+     */
+    private final class Slot implements Runnable {
+
+        final T requestParameter;
+
+        final BlockingQueue<Slot> completions;
+
+        ForkJoinTask<?> task;
+
+        D dynamicContext;
+
+        R result;
+
+        Throwable error;
+
+        Slot(T requestParameter, BlockingQueue<Slot> completions) {
+            this.requestParameter = requestParameter;
+            this.completions = completions;
+        }
+
+        @Override
+        public void run() {
+            try {
+                dynamicContext = contextSupplier.get();
+                result = root.apply(requestParameter, dynamicContext);
+            } catch (Throwable e) {
+                error = e;
+            } finally {
+                if (null != completions) completions.add(this);
+            }
+        }
+
+    }
+
+}
@@ -0,0 +1,23 @@
+package com.zsq.winter.design.tree;
+
+/**
+ * 路由计划中的节点选择器：根据入参与上下文选出下一个节点。
+ * T 入参类型
+ * D 上下文参数
+ * <p>与 {@link StrategyMapper} 的区别在于返回子节点的标识而不是处理器，
+ * 使 {@link RoutingPlan} 在构建时即可掌握整棵树的结构；只能返回注册节点时声明过的子节点。</p>
+ */
+@FunctionalInterface
+public interface RouteSelector<T, D> {
+
+    /**
+     * 选择下一个节点，可在选择前完成本节点的受理逻辑（如写入上下文）。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @return 子节点标识；返回 {@code null} 表示回退到计划的默认处理器
+     * @throws Exception 选择过程中可能的异常
+     */
+    String select(T requestParameter, D dynamicContext) throws Exception;
+
+}
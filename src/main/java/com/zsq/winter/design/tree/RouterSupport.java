@@ -0,0 +1,88 @@
+package com.zsq.winter.design.tree;
+
+import com.zsq.winter.design.deadline.Deadlines;
+import com.zsq.winter.design.resilience.Guard;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * 各类路由器共用的路由逻辑：策略选择、截止时间降级、批量路由与下游处理器包装，路由器只持有配置并委托到这里。
+ */
+final class RouterSupport {
+
+    private RouterSupport() {}
+
+    /**
+     * 选择本次请求的策略：启用了路由缓存时经缓存映射，映射不到时返回默认处理器。
+     *
+     * @param router         发起调用的路由节点，同时是映射器
+     * @param routingCache   路由决策缓存，可为 {@code null}
+     * @param defaultHandler 映射不到策略时执行的处理器
+     * @return 选中的策略处理器
+     * @throws Exception 映射过程中可能的异常
+     */
+    static <T, D, R> StrategyHandler<T, D, R> select(StrategyMapper<T, D, R> router, RoutingCache<?, T, D, R> routingCache,
+                                                     StrategyHandler<T, D, R> defaultHandler, T requestParameter, D dynamicContext) throws Exception {
+        StrategyHandler<T, D, R> strategyHandler = null == routingCache
+                ? router.get(requestParameter, dynamicContext)
+                : routingCache.get(requestParameter, dynamicContext, router);
+        return null == strategyHandler ? defaultHandler : strategyHandler;
+    }
+
+    /**
+     * 请求已超时：记录超时事件并返回降级处理器。
+     *
+     * @param router          发起调用的路由节点
+     * @param fallbackHandler 超时降级处理器，可为 {@code null}
+     * @param defaultHandler  未设置降级处理器时使用的默认处理器
+     * @return 应执行的处理器
+     */
+    static <H> H deadlineExceeded(Object router, H fallbackHandler, H defaultHandler) {
+        Deadlines.recordExceeded(router.getClass().getName(), router);
+        return null == fallbackHandler ? defaultHandler : fallbackHandler;
+    }
+
+    /**
+     * 批量路由：逐个元素检查截止时间并选择策略，再交由 {@link StrategyDispatcher#dispatchBatch} 合并执行。
+     *
+     * @param router          发起调用的路由节点，同时是映射器
+     * @param routingCache    路由决策缓存，可为 {@code null}
+     * @param fallbackHandler 超时降级处理器，可为 {@code null}
+     * @param defaultHandler  映射不到策略时执行的处理器
+     * @return 与入参一一对应的执行结果
+     * @throws Exception 获取或执行策略过程中可能的异常
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static <T, D, R> List<R> routerBatch(StrategyMapper<T, D, R> router, RoutingCache<?, T, D, R> routingCache,
+                                         StrategyHandler<T, D, R> fallbackHandler, StrategyHandler<T, D, R> defaultHandler,
+                                         List<T> requestParameters, List<D> dynamicContexts) throws Exception {
+        if (requestParameters.size() != dynamicContexts.size()) {
+            throw new IllegalArgumentException("请求与上下文数量不一致，requests=" + requestParameters.size() + ", contexts=" + dynamicContexts.size());
+        }
+        StrategyHandler<T, D, R>[] strategyHandlers = new StrategyHandler[requestParameters.size()];
+        for (int i = 0; i < strategyHandlers.length; i++) {
+            T requestParameter = requestParameters.get(i);
+            D dynamicContext = dynamicContexts.get(i);
+            strategyHandlers[i] = Deadlines.isExceeded(dynamicContext)
+                    ? deadlineExceeded(router, fallbackHandler, defaultHandler)
+                    : select(router, routingCache, defaultHandler, requestParameter, dynamicContext);
+        }
+        return StrategyDispatcher.dispatchBatch(router, strategyHandlers, requestParameters, dynamicContexts);
+    }
+
+    /**
+     * 以熔断器与隔离舱保护下游处理器，被拒绝时执行调用时刻的默认处理器。
+     *
+     * @param strategyHandler 下游处理器
+     * @param guard           熔断器与隔离舱
+     * @param defaultHandler  读取路由器当前的默认处理器
+     * @return 受保护的处理器
+     */
+    static <T, D, R> StrategyHandler<T, D, R> guarded(StrategyHandler<T, D, R> strategyHandler, Guard guard,
+                                                      Supplier<StrategyHandler<T, D, R>> defaultHandler) {
+        return new GuardedStrategyHandler<>(strategyHandler, guard, (requestParameter, dynamicContext) ->
+                defaultHandler.get().apply(requestParameter, dynamicContext));
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.zsq.winter.design.tree;
+
+import com.zsq.winter.design.cache.CacheStats;
+import com.zsq.winter.design.cache.LocalCache;
+
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * 路由决策缓存：以请求派生的键缓存 {@link StrategyMapper#get(Object, Object)} 的结果。
+ * K 缓存键类型
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>仅当路由决策是“键”的纯函数时才应启用：同一键必须总是映射到同一个处理器，且 {@code get} 不依赖或修改上下文中的其他状态。
+ * 键提取器返回 {@code null} 时本次请求不走缓存。映射结果为 {@code null}（回退默认处理器）同样会被缓存。</p>
+ */
+public class RoutingCache<K, T, D, R> {
+
+    /**
+     * 表示“映射结果为 null”的占位处理器。
+     */
+    private static final StrategyHandler<?, ?, ?> NO_HANDLER = (requestParameter, dynamicContext) -> null;
+
+    private final BiFunction<T, D, K> keyExtractor;
+
+    private final LocalCache<K, StrategyHandler<T, D, R>> cache;
+
+    /**
+     * 创建路由缓存。
+     *
+     * @param keyExtractor 从入参与上下文提取缓存键
+     * @param maximumSize  最大缓存条目数
+     * @param ttl          写入后存活时间，{@code <= 0} 表示永不过期
+     * @param unit         时间单位
+     */
+    public RoutingCache(BiFunction<T, D, K> keyExtractor, long maximumSize, long ttl, TimeUnit unit) {
+        this.keyExtractor = Objects.requireNonNull(keyExtractor, "keyExtractor must not be null");
+        this.cache = new LocalCache<>(maximumSize, ttl, unit);
+    }
+
+    /**
+     * 优先从缓存获取路由结果，未命中时调用映射器并写入缓存。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @param strategyMapper   实际的策略映射器
+     * @return 对应的策略处理器；可能为 {@code null}
+     * @throws Exception 映射过程中可能的异常
+     */
+    @SuppressWarnings("unchecked")
+    public StrategyHandler<T, D, R> get(T requestParameter, D dynamicContext, StrategyMapper<T, D, R> strategyMapper) throws Exception {
+        K key = keyExtractor.apply(requestParameter, dynamicContext);
+        if (null == key) return strategyMapper.get(requestParameter, dynamicContext);
+
+        StrategyHandler<T, D, R> strategyHandler = cache.get(key);
+        if (null != strategyHandler) return strategyHandler == NO_HANDLER ? null : strategyHandler;
+
+        strategyHandler = strategyMapper.get(requestParameter, dynamicContext);
+        cache.put(key, null == strategyHandler ? (StrategyHandler<T, D, R>) NO_HANDLER : strategyHandler);
+        return strategyHandler;
+    }
+
+    /**
+     * 使指定键的路由结果失效。
+     *
+     * @param key 缓存键
+     */
+    public void invalidate(K key) {
+        cache.invalidate(key);
+    }
+
+    /**
+     * 清空全部路由结果，通常在规则变更后调用。
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * 获取命中统计。
+     *
+     * @return 统计快照
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+
+}
@@ -0,0 +1,328 @@
+package com.zsq.winter.design.tree;
+
+import com.zsq.winter.design.deadline.Deadlines;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 预编译的路由计划：显式注册规则树的节点与边，构建时做整树静态检查，执行时以循环代替逐层 {@code router} 调用。
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>节点分为三类：</p>
+ * <ul>
+ *   <li>路由节点（{@link Builder#route}）：由 {@link RouteSelector} 选择子节点，子节点须在注册时声明；</li>
+ *   <li>直通节点（{@link Builder#passThrough}）：总是转到唯一的子节点，构建时被折叠，执行时不再经过；</li>
+ *   <li>叶子节点（{@link Builder#leaf}）：执行 {@link StrategyHandler}，可以是任意已有的处理器或路由器。</li>
+ * </ul>
+ *
+ * <p>构建时检查：子节点是否已注册、是否存在环，并记录从根不可达的节点与被折叠的直通节点。
+ * 计划本身是 {@link StrategyHandler}，可作为叶子挂到其他规则树或计划中；构建后不可变，可在多线程间共享。</p>
+ *
+ * <pre>{@code
+ * RoutingPlan<Req, DynamicContext, Res> plan = RoutingPlan.<Req, DynamicContext, Res>builder()
+ *         .root("root")
+ *         .passThrough("root", "switch")
+ *         .route("switch", (req, ctx) -> req.isVip() ? "vip" : "normal", "vip", "normal")
+ *         .leaf("vip", vipHandler)
+ *         .leaf("normal", normalHandler)
+ *         .build();
+ * Res res = plan.apply(req, new DynamicContext());
+ * }</pre>
+ */
+public final class RoutingPlan<T, D, R> implements StrategyHandler<T, D, R> {
+
+    private final Step<T, D, R> root;
+
+    private final StrategyHandler<T, D, R> defaultHandler;
+
+    private final List<String> unreachableNodes;
+
+    private final List<String> flattenedNodes;
+
+    private RoutingPlan(Step<T, D, R> root, StrategyHandler<T, D, R> defaultHandler, List<String> unreachableNodes, List<String> flattenedNodes) {
+        this.root = root;
+        this.defaultHandler = defaultHandler;
+        this.unreachableNodes = unreachableNodes;
+        this.flattenedNodes = flattenedNodes;
+    }
+
+    /**
+     * 创建路由计划构建器。
+     *
+     * @param <T> 入参类型
+     * @param <D> 上下文参数
+     * @param <R> 返参类型
+     * @return 构建器
+     */
+    public static <T, D, R> Builder<T, D, R> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * 按计划路由并执行叶子节点。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @return 叶子节点的执行结果；选择器返回 {@code null} 或请求已超过截止时间时为默认处理器的结果
+     * @throws Exception 选择或执行过程中可能的异常
+     * @throws IllegalStateException 选择器返回了未声明的子节点
+     */
+    @Override
+    public R apply(T requestParameter, D dynamicContext) throws Exception {
+        Step<T, D, R> step = root;
+        while (null != step.selector) {
+            if (Deadlines.isExceeded(dynamicContext)) {
+                Deadlines.recordExceeded(step.id, step.selector);
+                return StrategyDispatcher.dispatch(this, defaultHandler, requestParameter, dynamicContext);
+            }
+            String childId = step.selector.select(requestParameter, dynamicContext);
+            if (null == childId) {
+                return StrategyDispatcher.dispatch(this, defaultHandler, requestParameter, dynamicContext);
+            }
+            Step<T, D, R> next = step.children.get(childId);
+            if (null == next) {
+                throw new IllegalStateException("路由到未声明的子节点，node=" + step.id + ", child=" + childId);
+            }
+            step = next;
+        }
+        return StrategyDispatcher.dispatch(this, step.handler, requestParameter, dynamicContext);
+    }
+
+    /**
+     * 获取从根不可达的节点，这些节点不参与执行，通常意味着配置遗漏。
+     *
+     * @return 不可达节点标识（只读）
+     */
+    public List<String> getUnreachableNodes() {
+        return unreachableNodes;
+    }
+
+    /**
+     * 获取被折叠的直通节点。
+     *
+     * @return 被折叠的节点标识（只读）
+     */
+    public List<String> getFlattenedNodes() {
+        return flattenedNodes;
+    }
+
+    /**
+     * 编译后的执行节点：路由节点持有选择器与子节点，叶子节点持有处理器。
+     */
+    private static final class Step<T, D, R> {
+
+        final String id;
+
+        final RouteSelector<T, D> selector;
+
+        /**
+         * 声明的子节点标识 → 折叠直通节点后的执行节点。
+         */
+        final Map<String, Step<T, D, R>> children;
+
+        final StrategyHandler<T, D, R> handler;
+
+        Step(String id, RouteSelector<T, D> selector, Map<String, Step<T, D, R>> children, StrategyHandler<T, D, R> handler) {
+            this.id = id;
+            this.selector = selector;
+            this.children = children;
+            this.handler = handler;
+        }
+
+    }
+
+    /**
+     * 节点声明。
+     */
+    private static final class NodeDef<T, D, R> {
+
+        final String id;
+
+        final RouteSelector<T, D> selector;
+
+        final List<String> children;
+
+        final StrategyHandler<T, D, R> handler;
+
+        NodeDef(String id, RouteSelector<T, D> selector, List<String> children, StrategyHandler<T, D, R> handler) {
+            this.id = id;
+            this.selector = selector;
+            this.children = children;
+            this.handler = handler;
+        }
+
+        boolean isPassThrough() {
+            return null == selector && null == handler;
+        }
+
+    }
+
+    /**
+     * 路由计划构建器。构建器不是线程安全的。
+     */
+    public static final class Builder<T, D, R> {
+
+        private final Map<String, NodeDef<T, D, R>> nodes = new LinkedHashMap<>();
+
+        private String rootId;
+
+        @SuppressWarnings("unchecked")
+        private StrategyHandler<T, D, R> defaultHandler = StrategyHandler.DEFAULT;
+
+        private Builder() {}
+
+        /**
+         * 指定根节点。
+         *
+         * @param rootId 根节点标识
+         * @return 当前构建器
+         */
+        public Builder<T, D, R> root(String rootId) {
+            this.rootId = Objects.requireNonNull(rootId, "rootId must not be null");
+            return this;
+        }
+
+        /**
+         * 注册路由节点。
+         *
+         * @param id       节点标识
+         * @param selector 子节点选择器
+         * @param children 选择器可能返回的全部子节点
+         * @return 当前构建器
+         */
+        public Builder<T, D, R> route(String id, RouteSelector<T, D> selector, String... children) {
+            Objects.requireNonNull(selector, "selector must not be null");
+            if (children.length == 0) {
+                throw new IllegalArgumentException("路由节点至少声明一个子节点，node=" + id);
+            }
+            List<String> declared = new ArrayList<>(new LinkedHashSet<>(Arrays.asList(children)));
+            return add(new NodeDef<>(id, selector, declared, null));
+        }
+
+        /**
+         * 注册直通节点：总是转到唯一的子节点，构建时被折叠。
+         *
+         * @param id    节点标识
+         * @param child 子节点标识
+         * @return 当前构建器
+         */
+        public Builder<T, D, R> passThrough(String id, String child) {
+            Objects.requireNonNull(child, "child must not be null");
+            return add(new NodeDef<>(id, null, Collections.singletonList(child), null));
+        }
+
+        /**
+         * 注册叶子节点。
+         *
+         * @param id      节点标识
+         * @param handler 节点处理器
+         * @return 当前构建器
+         */
+        public Builder<T, D, R> leaf(String id, StrategyHandler<T, D, R> handler) {
+            Objects.requireNonNull(handler, "handler must not be null");
+            return add(new NodeDef<>(id, null, Collections.emptyList(), handler));
+        }
+
+        /**
+         * 设置选择器返回 {@code null} 时执行的处理器，默认为 {@link StrategyHandler#DEFAULT}。
+         *
+         * @param defaultHandler 默认处理器
+         * @return 当前构建器
+         */
+        public Builder<T, D, R> defaultHandler(StrategyHandler<T, D, R> defaultHandler) {
+            this.defaultHandler = Objects.requireNonNull(defaultHandler, "defaultHandler must not be null");
+            return this;
+        }
+
+        /**
+         * 检查整棵树并编译路由计划。
+         *
+         * @return 不可变的路由计划
+         * @throws IllegalStateException 未指定根节点、子节点未注册或存在环时抛出
+         */
+        public RoutingPlan<T, D, R> build() {
+            if (null == rootId) throw new IllegalStateException("未指定路由计划的根节点");
+            if (!nodes.containsKey(rootId)) throw new IllegalStateException("根节点未注册，root=" + rootId);
+            for (NodeDef<T, D, R> node : nodes.values()) {
+                for (String child : node.children) {
+                    if (!nodes.containsKey(child)) {
+                        throw new IllegalStateException("子节点未注册，node=" + node.id + ", child=" + child);
+                    }
+                }
+            }
+
+            Set<String> reachable = new LinkedHashSet<>();
+            checkCycles(rootId, new ArrayList<>(), reachable);
+            List<String> unreachable = new ArrayList<>();
+            List<String> flattened = new ArrayList<>();
+            for (NodeDef<T, D, R> node : nodes.values()) {
+                if (!reachable.contains(node.id)) {
+                    unreachable.add(node.id);
+                } else if (node.isPassThrough()) {
+                    flattened.add(node.id);
+                }
+            }
+
+            Step<T, D, R> root = compile(rootId, new HashMap<>());
+            return new RoutingPlan<>(root, defaultHandler, Collections.unmodifiableList(unreachable), Collections.unmodifiableList(flattened));
+        }
+
+        private Builder<T, D, R> add(NodeDef<T, D, R> node) {
+            Objects.requireNonNull(node.id, "id must not be null");
+            if (nodes.containsKey(node.id)) {
+                throw new IllegalStateException("重复注册路由节点，node=" + node.id);
+            }
+            nodes.put(node.id, node);
+            return this;
+        }
+
+        /**
+         * 深度优先遍历，发现回到当前路径上的节点即为环。
+         */
+        private void checkCycles(String id, List<String> path, Set<String> visited) {
+            int index = path.indexOf(id);
+            if (index >= 0) {
+                List<String> cycle = new ArrayList<>(path.subList(index, path.size()));
+                cycle.add(id);
+                throw new IllegalStateException("路由计划存在环，path=" + String.join(" -> ", cycle));
+            }
+            if (!visited.add(id)) return;
+            path.add(id);
+            for (String child : nodes.get(id).children) {
+                checkCycles(child, path, visited);
+            }
+            path.remove(path.size() - 1);
+        }
+
+        /**
+         * 编译节点，直通节点解析为其最终目标；被多个父节点引用的节点只编译一次。
+         */
+        private Step<T, D, R> compile(String id, Map<String, Step<T, D, R>> compiled) {
+            NodeDef<T, D, R> node = nodes.get(id);
+            while (node.isPassThrough()) {
+                node = nodes.get(node.children.get(0));
+            }
+            Step<T, D, R> step = compiled.get(node.id);
+            if (null != step) return step;
+            Map<String, Step<T, D, R>> children = new HashMap<>();
+            for (String child : node.children) {
+                children.put(child, compile(child, compiled));
+            }
+            step = new Step<>(node.id, node.selector, children, node.handler);
+            compiled.put(node.id, step);
+            return step;
+        }
+
+    }
+
+}
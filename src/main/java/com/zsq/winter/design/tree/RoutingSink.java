@@ -0,0 +1,23 @@
+package com.zsq.winter.design.tree;
+
+/**
+ * 并行路由结果的接收方。
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>由 {@link ParallelRouter} 在调用线程上逐个回调，因此实现本身无需线程安全。</p>
+ */
+@FunctionalInterface
+public interface RoutingSink<T, D, R> {
+
+    /**
+     * 接收单个请求的路由结果。
+     *
+     * @param requestParameter 入参
+     * @param dynamicContext   为该请求创建的上下文
+     * @param result           路由结果（可能为 {@code null}）
+     * @throws Exception 处理结果过程中可能的异常，抛出后不再继续路由
+     */
+    void accept(T requestParameter, D dynamicContext, R result) throws Exception;
+
+}
@@ -0,0 +1,188 @@
+package com.zsq.winter.design.tree;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.function.BiFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * 推测执行：映射（{@link StrategyMapper#get}）与可能被选中的子节点同时开始，以 CPU 换取端到端延迟。
+ * T 入参类型
+ * D 上下文参数
+ * R 返参类型
+ * <p>执行过程：</p>
+ * <ol>
+ *   <li>取出本次请求的候选子节点，为每个候选复制一份上下文，提交到执行器执行；</li>
+ *   <li>在调用线程上执行映射，映射与候选并行；</li>
+ *   <li>选中的子节点在候选中时取消其余候选，等待其结果（尚未被执行器取走时直接在调用线程上执行）并把它的上下文变更提交回原上下文（命中）；
+ *   不在候选中时取消全部候选，按普通方式在调用线程上执行选中的节点（未命中）。</li>
+ * </ol>
+ *
+ * <p>适用前提：候选子节点不依赖映射过程写入上下文的数据，且其副作用可以安全地被放弃（落选的候选会被中断，但可能已部分执行）。
+ * 候选按身份与映射结果比较，因此应返回与 {@code get} 相同的处理器实例。</p>
+ *
+ * <pre>{@code
+ * List<StrategyHandler<Req, DynamicContext, Res>> likely = Arrays.asList(vipNode, normalNode);
+ * enableSpeculation((req, ctx) -> likely, DynamicContext::fork, DynamicContext::merge);
+ * }</pre>
+ */
+public class SpeculativeRouting<T, D, R> {
+
+    private final BiFunction<T, D, List<? extends StrategyHandler<T, D, R>>> candidates;
+
+    private final UnaryOperator<D> forker;
+
+    private final BiConsumer<D, D> committer;
+
+    /**
+     * 执行候选子节点的线程池。
+     */
+    private volatile ExecutorService executor = AsyncExecutors.defaultExecutor();
+
+    private final LongAdder hitCount = new LongAdder();
+
+    private final LongAdder missCount = new LongAdder();
+
+    private final LongAdder cancelledCount = new LongAdder();
+
+    /**
+     * 创建推测执行配置。
+     *
+     * @param candidates 返回本次请求的候选子节点，返回空列表时不推测
+     * @param forker     为候选复制上下文，候选只读写自己的副本
+     * @param committer  把选中候选的上下文副本（第二个参数）提交回原上下文（第一个参数）
+     */
+    public SpeculativeRouting(BiFunction<T, D, List<? extends StrategyHandler<T, D, R>>> candidates, UnaryOperator<D> forker, BiConsumer<D, D> committer) {
+        this.candidates = Objects.requireNonNull(candidates, "candidates must not be null");
+        this.forker = Objects.requireNonNull(forker, "forker must not be null");
+        this.committer = Objects.requireNonNull(committer, "committer must not be null");
+    }
+
+    /**
+     * 推测执行路由。
+     *
+     * @param router         发起调用的路由节点，同时是映射器
+     * @param routingCache   路由决策缓存，可为 {@code null}
+     * @param defaultHandler 映射不到策略时执行的处理器
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @return 选中策略的执行结果
+     * @throws Exception 映射或执行过程中可能的异常
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    R route(StrategyMapper<T, D, R> router, RoutingCache<?, T, D, R> routingCache, StrategyHandler<T, D, R> defaultHandler,
+            T requestParameter, D dynamicContext) throws Exception {
+        List<? extends StrategyHandler<T, D, R>> likely = candidates.apply(requestParameter, dynamicContext);
+        int size = null == likely ? 0 : likely.size();
+        Object[] forks = new Object[size];
+        FutureTask<R>[] futures = new FutureTask[size];
+        for (int i = 0; i < size; i++) {
+            StrategyHandler<T, D, R> candidate = likely.get(i);
+            D fork = forker.apply(dynamicContext);
+            forks[i] = fork;
+            futures[i] = new FutureTask<>(() -> StrategyDispatcher.dispatch(router, candidate, requestParameter, fork));
+        }
+        ExecutorService executor = this.executor;
+        for (int i = 0; i < size; i++) {
+            try {
+                executor.execute(futures[i]);
+            } catch (RejectedExecutionException e) {
+                // 执行器饱和时其余候选不再提交，选中时由调用线程执行
+                break;
+            }
+        }
+
+        StrategyHandler<T, D, R> strategyHandler;
+        try {
+            strategyHandler = RouterSupport.select(router, routingCache, defaultHandler, requestParameter, dynamicContext);
+        } catch (Throwable e) {
+            cancelExcept(futures, -1);
+            throw e;
+        }
+
+        int winner = -1;
+        for (int i = 0; i < futures.length; i++) {
+            if (likely.get(i) == strategyHandler) {
+                winner = i;
+                break;
+            }
+        }
+        cancelExcept(futures, winner);
+        if (winner < 0) {
+            if (futures.length > 0) missCount.increment();
+            return StrategyDispatcher.dispatch(router, strategyHandler, requestParameter, dynamicContext);
+        }
+
+        hitCount.increment();
+        R result;
+        try {
+            // 选中的候选仍在执行器队列中时直接在调用线程上执行，避免排在无关任务之后或在嵌套推测时耗尽线程池
+            futures[winner].run();
+            result = futures[winner].get();
+        } catch (InterruptedException e) {
+            futures[winner].cancel(true);
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Exception) throw (Exception) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw e;
+        }
+        committer.accept(dynamicContext, (D) forks[winner]);
+        return result;
+    }
+
+    private void cancelExcept(FutureTask<R>[] futures, int winner) {
+        for (int i = 0; i < futures.length; i++) {
+            if (i != winner && null != futures[i] && futures[i].cancel(true)) cancelledCount.increment();
+        }
+    }
+
+    /**
+     * 设置执行候选子节点的线程池，默认为 {@link AsyncExecutors#defaultExecutor()}。
+     *
+     * @param executor 线程池
+     */
+    public void setExecutor(ExecutorService executor) {
+        this.executor = Objects.requireNonNull(executor, "executor must not be null");
+    }
+
+    /**
+     * 获取选中节点在候选中的次数。
+     *
+     * @return 命中次数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * 获取选中节点不在候选中、按普通方式执行的次数。
+     *
+     * @return 未命中次数
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * 获取被取消的落选候选数（取消时尚未结束的）。
+     *
+     * @return 取消数
+     */
+    public long getCancelledCount() {
+        return cancelledCount.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "SpeculativeRouting{hit=" + getHitCount() + ", miss=" + getMissCount() + ", cancelled=" + getCancelledCount() + "}";
+    }
+
+}
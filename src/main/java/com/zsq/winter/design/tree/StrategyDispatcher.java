@@ -0,0 +1,162 @@
+package com.zsq.winter.design.tree;
+
+import com.zsq.winter.design.metrics.Metrics;
+import com.zsq.winter.design.metrics.MetricsRecorder;
+import com.zsq.winter.design.metrics.NodeOutcome;
+import com.zsq.winter.design.resilience.CircuitBreaker;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * 路由节点调用下游策略的统一入口，各类路由器共用，便于在此集中挂载横切逻辑（如指标采集）。
+ */
+final class StrategyDispatcher {
+
+    private StrategyDispatcher() {}
+
+    /**
+     * 执行路由选中的策略处理器。
+     *
+     * @param router           发起调用的路由节点
+     * @param strategyHandler  选中的策略处理器
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @return 策略执行结果
+     * @throws Exception 策略执行过程中可能的异常
+     */
+    static <T, D, R> R dispatch(Object router, StrategyHandler<T, D, R> strategyHandler, T requestParameter, D dynamicContext) throws Exception {
+        MetricsRecorder recorder = Metrics.recorder();
+        if (null == recorder) return strategyHandler.apply(requestParameter, dynamicContext);
+        if (strategyHandler instanceof GuardedStrategyHandler) {
+            return dispatchGuarded(recorder, router, (GuardedStrategyHandler<T, D, R>) strategyHandler, requestParameter, dynamicContext);
+        }
+
+        recorder.enter(router.getClass().getName(), strategyHandler);
+        long start = System.nanoTime();
+        try {
+            R result = strategyHandler.apply(requestParameter, dynamicContext);
+            recorder.record(router.getClass().getName(), strategyHandler, System.nanoTime() - start, NodeOutcome.COMPLETED);
+            return result;
+        } catch (Throwable e) {
+            recorder.record(router.getClass().getName(), strategyHandler, System.nanoTime() - start, NodeOutcome.ERROR);
+            throw e;
+        }
+    }
+
+    /**
+     * 开启指标时执行受保护的处理器：先申请许可，拒绝与正常调用都以被保护的处理器为节点记录在路由器的范围下，
+     * 被拒绝时只记录 {@link NodeOutcome#REJECTED}，降级处理器的执行不计入该节点。
+     */
+    private static <T, D, R> R dispatchGuarded(MetricsRecorder recorder, Object router, GuardedStrategyHandler<T, D, R> guarded,
+                                               T requestParameter, D dynamicContext) throws Exception {
+        String scope = router.getClass().getName();
+        StrategyHandler<T, D, R> node = guarded.getDelegate();
+        CircuitBreaker.Permit permit = guarded.tryEnter();
+        if (null == permit) {
+            recorder.record(scope, node, 0L, NodeOutcome.REJECTED);
+            return guarded.rejected(requestParameter, dynamicContext);
+        }
+        recorder.enter(scope, node);
+        long start = System.nanoTime();
+        try {
+            R result = guarded.applyPermitted(permit, requestParameter, dynamicContext);
+            recorder.record(scope, node, System.nanoTime() - start, NodeOutcome.COMPLETED);
+            return result;
+        } catch (Throwable e) {
+            recorder.record(scope, node, System.nanoTime() - start, NodeOutcome.ERROR);
+            throw e;
+        }
+    }
+
+    /**
+     * 批量执行路由选中的策略处理器。
+     * <p>未实现 {@link BatchStrategyHandler} 的处理器在遍历时经 {@link #dispatch} 逐个执行；
+     * 选中同一批量处理器的元素合并为一组，遍历结束后按首次出现的顺序每组调用一次（不采集节点指标）。</p>
+     *
+     * @param router            发起调用的路由节点
+     * @param strategyHandlers  与请求一一对应的选中处理器
+     * @param requestParameters 入参列表
+     * @param dynamicContexts   上下文列表
+     * @return 与请求一一对应的执行结果
+     * @throws Exception 任一策略执行过程中的异常，整批失败
+     */
+    @SuppressWarnings("unchecked")
+    static <T, D, R> List<R> dispatchBatch(Object router, StrategyHandler<T, D, R>[] strategyHandlers, List<T> requestParameters, List<D> dynamicContexts) throws Exception {
+        Object[] results = new Object[strategyHandlers.length];
+        Map<StrategyHandler<T, D, R>, List<Integer>> groups = new IdentityHashMap<>();
+        List<StrategyHandler<T, D, R>> order = new ArrayList<>();
+        for (int i = 0; i < strategyHandlers.length; i++) {
+            StrategyHandler<T, D, R> strategyHandler = strategyHandlers[i];
+            if (!(strategyHandler instanceof BatchStrategyHandler)) {
+                results[i] = dispatch(router, strategyHandler, requestParameters.get(i), dynamicContexts.get(i));
+                continue;
+            }
+            List<Integer> group = groups.get(strategyHandler);
+            if (null == group) {
+                group = new ArrayList<>();
+                groups.put(strategyHandler, group);
+                order.add(strategyHandler);
+            }
+            group.add(i);
+        }
+        for (StrategyHandler<T, D, R> strategyHandler : order) {
+            List<Integer> group = groups.get(strategyHandler);
+            List<T> groupRequests = new ArrayList<>(group.size());
+            List<D> groupContexts = new ArrayList<>(group.size());
+            for (Integer index : group) {
+                groupRequests.add(requestParameters.get(index));
+                groupContexts.add(dynamicContexts.get(index));
+            }
+            List<R> groupResults = ((BatchStrategyHandler<T, D, R>) strategyHandler).applyBatch(groupRequests, groupContexts);
+            if (null == groupResults || groupResults.size() != group.size()) {
+                throw new IllegalStateException("批量处理结果数量与请求不一致，handler=" + strategyHandler.getClass().getName());
+            }
+            for (int k = 0; k < group.size(); k++) {
+                results[group.get(k)] = groupResults.get(k);
+            }
+        }
+        return (List<R>) Arrays.asList(results);
+    }
+
+    /**
+     * 执行路由选中的异步策略处理器；开启指标时以阶段完成的时刻计算耗时。
+     *
+     * @param router           发起调用的路由节点
+     * @param strategyHandler  选中的异步策略处理器
+     * @param requestParameter 入参
+     * @param dynamicContext   上下文
+     * @return 策略执行结果的异步阶段，处理器直接抛出的异常转换为异常完成的阶段
+     */
+    static <T, D, R> CompletionStage<R> dispatchAsync(Object router, AsyncStrategyHandler<T, D, R> strategyHandler, T requestParameter, D dynamicContext) {
+        MetricsRecorder recorder = Metrics.recorder();
+        long start = null == recorder ? 0L : System.nanoTime();
+        CompletionStage<R> stage;
+        try {
+            stage = strategyHandler.apply(requestParameter, dynamicContext);
+        } catch (Throwable e) {
+            stage = failed(e);
+        }
+        if (null == recorder) return stage;
+        return stage.whenComplete((result, e) -> recorder.record(router.getClass().getName(), strategyHandler,
+                System.nanoTime() - start, null == e ? NodeOutcome.COMPLETED : NodeOutcome.ERROR));
+    }
+
+    /**
+     * 创建异常完成的阶段。
+     *
+     * @param e 异常
+     * @return 异常完成的阶段
+     */
+    static <R> CompletableFuture<R> failed(Throwable e) {
+        CompletableFuture<R> future = new CompletableFuture<>();
+        future.completeExceptionally(e);
+        return future;
+    }
+
+}
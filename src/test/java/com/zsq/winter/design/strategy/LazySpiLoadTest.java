@@ -0,0 +1,83 @@
+package com.zsq.winter.design.strategy;
+
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * {@link SpiLoadMode#LAZY} 下 SPI 实现的加载与冲突记录。
+ */
+public class LazySpiLoadTest {
+
+    @Test
+    public void unannotatedProviderConflictingWithPendingProviderIsReportedNotThrown() {
+        TestStrategyFactory factory = new TestStrategyFactory();
+
+        assertTrue(factory.getStrategy(TestType.X) instanceof AnnotatedX);
+        assertTrue(factory.getStrategy(TestType.Y) instanceof UnannotatedY);
+
+        List<SpiProviderRecord> failures = factory.getSpiLoadReport().getFailures();
+        assertEquals(1, failures.size());
+        assertEquals(UnannotatedX.class.getName(), failures.get(0).getProviderClassName());
+        assertEquals(TestType.X.getCode(), failures.get(0).getCode());
+        assertTrue(failures.get(0).getFailure() instanceof IllegalStateException);
+    }
+
+    public enum TestType implements BaseEnum {
+        X, Y;
+
+        @Override
+        public String getCode() {
+            return name();
+        }
+
+        @Override
+        public String getDesc() {
+            return name();
+        }
+    }
+
+    public interface TestStrategy extends BaseStrategy<TestType> {
+
+        @Override
+        default void execute(Object... params) {
+        }
+    }
+
+    @StrategyCode("X")
+    public static class AnnotatedX implements TestStrategy {
+
+        @Override
+        public TestType getStrategyType() {
+            return TestType.X;
+        }
+    }
+
+    public static class UnannotatedX implements TestStrategy {
+
+        @Override
+        public TestType getStrategyType() {
+            return TestType.X;
+        }
+    }
+
+    public static class UnannotatedY implements TestStrategy {
+
+        @Override
+        public TestType getStrategyType() {
+            return TestType.Y;
+        }
+    }
+
+    static class TestStrategyFactory extends AbstractStrategyFactory<TestType, TestStrategy> {
+
+        TestStrategyFactory() {
+            super(TestStrategy.class, Collections.emptyList(), SpiLoadMode.LAZY, null);
+        }
+    }
+
+}